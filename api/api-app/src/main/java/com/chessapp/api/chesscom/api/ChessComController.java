@@ -2,14 +2,17 @@ package com.chessapp.api.chesscom.api;
 
 import com.chessapp.api.chesscom.api.dto.ArchiveMetaDto;
 import com.chessapp.api.chesscom.api.dto.ArchivesDto;
+import com.chessapp.api.chesscom.api.dto.ChessComBulkIngestRequest;
 import com.chessapp.api.chesscom.api.dto.ChessComIngestRequest;
 import com.chessapp.api.chesscom.api.dto.ChessComIngestResponse;
 import com.chessapp.api.chesscom.service.ChessComService;
+import com.chessapp.api.ingest.service.IngestAdmission;
 import com.chessapp.api.ingest.service.IngestService;
 import com.chessapp.api.data.ingest.IngestRunRepository;
 import com.chessapp.api.datasets.service.DatasetCatalogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,15 +31,20 @@ public class ChessComController {
     private final ChessComService service;
     private final IngestService ingestService;
     private final DatasetCatalogService datasetCatalog;
+    private final IngestAdmission admission;
     @SuppressWarnings("unused")
     private final IngestRunRepository ingestRunRepository;
+    private final int maxBulkPlayers;
 
     public ChessComController(ChessComService service, IngestService ingestService,
-                              DatasetCatalogService datasetCatalog,
-                              IngestRunRepository ingestRunRepository) {
+                              DatasetCatalogService datasetCatalog, IngestAdmission admission,
+                              IngestRunRepository ingestRunRepository,
+                              @Value("${chess.ingest.bulk.max-players:1000}") int maxBulkPlayers) {
         this.service = service;
+        this.maxBulkPlayers = maxBulkPlayers;
         this.ingestService = ingestService;
         this.datasetCatalog = datasetCatalog;
+        this.admission = admission;
         this.ingestRunRepository = ingestRunRepository;
     }
 
@@ -89,6 +97,8 @@ public class ChessComController {
         if (months == null || months.isEmpty()) {
             throw new org.springframework.web.server.ResponseStatusException(HttpStatus.BAD_REQUEST, "months required");
         }
+        // before the dataset versions are registered, so a rejected request leaves nothing behind
+        admission.admitRun("chesscom");
         String dsId = req.datasetId() != null ? req.datasetId() : "chesscom_" + u;
         datasetCatalog.registerIfAbsent(dsId, dsId);
         String requester = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -98,9 +108,45 @@ public class ChessComController {
             datasetCatalog.addVersion(dsId, "v" + m, 0L, 0L);
         }
         var versions = months.stream().map(m -> "v" + m).toList();
-        java.util.UUID rid = ingestService.startWithContext(dsId, versions);
+        java.util.UUID rid = ingestService.startWithContext(dsId, u, versions);
         String runId = "ing_" + rid;
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new ChessComIngestResponse(runId, "queued"));
     }
+
+    @PostMapping("/ingest/chesscom/bulk")
+    public ResponseEntity<ChessComIngestResponse> ingestBulk(@RequestBody ChessComBulkIngestRequest req) {
+        if (req.players() == null || req.players().isEmpty()) {
+            throw new org.springframework.web.server.ResponseStatusException(HttpStatus.BAD_REQUEST, "players required");
+        }
+        List<String> players = req.players().stream()
+                .map(p -> validateUser(p == null ? null : p.toLowerCase()))
+                .distinct()
+                .toList();
+        if (players.size() > maxBulkPlayers) {
+            throw new org.springframework.web.server.ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "at most " + maxBulkPlayers + " players per run");
+        }
+        YearMonth from;
+        YearMonth to;
+        try {
+            from = YearMonth.parse(req.from());
+            to = YearMonth.parse(req.to());
+        } catch (RuntimeException e) {
+            throw new org.springframework.web.server.ResponseStatusException(HttpStatus.BAD_REQUEST, "from/to must be YYYY-MM");
+        }
+        if (to.isBefore(from)) {
+            throw new org.springframework.web.server.ResponseStatusException(HttpStatus.BAD_REQUEST, "from after to");
+        }
+        List<String> versions = new java.util.ArrayList<>();
+        for (YearMonth ym = from; !ym.isAfter(to); ym = ym.plusMonths(1)) {
+            versions.add("v" + ym);
+        }
+        String requester = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("chesscom bulk ingest requester={}, players={}, from={}, to={}", requester, players.size(), from, to);
+        admission.admitRun("chesscom_bulk");
+        java.util.UUID rid = ingestService.startBulk(players, versions);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ChessComIngestResponse("ing_" + rid, "queued"));
+    }
 }
@@ -0,0 +1,9 @@
+package com.chessapp.api.chesscom.api.dto;
+
+import java.util.List;
+
+/**
+ * One run over many players; {@code from}/{@code to} are inclusive months ({@code YYYY-MM}).
+ * Each player's months go to that player's dataset {@code chesscom_<player>}.
+ */
+public record ChessComBulkIngestRequest(List<String> players, String from, String to, String note) {}
@@ -0,0 +1,123 @@
+package com.chessapp.api.chesscom.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+
+/**
+ * Push-style reader for a monthly archive ({@code {"games":[{...}, ...]}}) that only counts games
+ * and their {@code time_class}.
+ * <p>
+ * Body buffers are fed to Jackson's non-blocking parser as they arrive and released right away,
+ * so nothing but the current buffer and the parser's token buffer is held. The text of other
+ * values (the PGN, FEN, player objects) is never turned into strings. Not thread-safe: one reader
+ * per response.
+ */
+public final class ArchiveMetaReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    /** Depth of a game object: root object, "games" array, game. */
+    private static final int GAME_DEPTH = 3;
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final Map<String, Integer> timeClasses = new HashMap<>();
+    private int depth;
+    private boolean inGames;
+    private boolean gamesField;
+    private boolean timeClassField;
+    private int games;
+
+    public ArchiveMetaReader() {
+        try {
+            this.parser = JSON.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /** Consume and release one body buffer. */
+    public ArchiveMetaReader feed(DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+            while (it.hasNext()) {
+                feed(it.next());
+            }
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+        return this;
+    }
+
+    public ArchiveMetaReader feed(ByteBuffer bytes) {
+        try {
+            feeder.feedInput(bytes);
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /** End of body; an empty body is a month without games. */
+    public ChessComService.ArchiveMeta finish() {
+        try {
+            feeder.endOfInput();
+            drain();
+            parser.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ChessComService.ArchiveMeta(games, Map.copyOf(timeClasses));
+    }
+
+    private void drain() throws IOException {
+        JsonToken t;
+        while ((t = parser.nextToken()) != null && t != JsonToken.NOT_AVAILABLE) {
+            switch (t) {
+                case START_OBJECT, START_ARRAY -> {
+                    depth++;
+                    if (t == JsonToken.START_ARRAY && gamesField && depth == GAME_DEPTH - 1) {
+                        inGames = true;
+                    } else if (t == JsonToken.START_OBJECT && inGames && depth == GAME_DEPTH) {
+                        games++;
+                    }
+                    gamesField = false;
+                    timeClassField = false;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    if (depth == GAME_DEPTH - 1) {
+                        inGames = false;
+                    }
+                    depth--;
+                }
+                // names are canonicalized by the parser, so the comparisons do not allocate
+                case FIELD_NAME -> {
+                    gamesField = depth == 1 && "games".equals(parser.currentName());
+                    timeClassField = inGames && depth == GAME_DEPTH && "time_class".equals(parser.currentName());
+                }
+                case VALUE_STRING -> {
+                    if (timeClassField) {
+                        timeClasses.merge(parser.getText(), 1, Integer::sum);
+                    }
+                    timeClassField = false;
+                    gamesField = false;
+                }
+                default -> {
+                    timeClassField = false;
+                    gamesField = false;
+                }
+            }
+        }
+    }
+}
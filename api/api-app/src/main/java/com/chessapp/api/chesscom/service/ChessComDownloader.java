@@ -1,12 +1,25 @@
 package com.chessapp.api.chesscom.service;
 
+import com.chessapp.api.ingest.pgn.PgnGameCounter;
+import com.chessapp.api.ingest.pgn.PgnProfile;
+import com.chessapp.api.ingest.pgn.PgnStatsCollector;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 /** Downloader wrapper around {@link ChessComService}. */
 @Service
@@ -14,16 +27,22 @@ public class ChessComDownloader {
 
     private static final Logger log = LoggerFactory.getLogger(ChessComDownloader.class);
 
+    /** Buffers requested ahead from the connection; bounds memory together with CHUNK_SIZE. */
+    private static final int PREFETCH = 4;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
     private final ChessComService service;
     private final Counter downloads;
     private final Counter gamesCounter;
     private final Counter bytesCounter;
+    private final Counter notModified;
 
     public ChessComDownloader(ChessComService service, MeterRegistry meterRegistry) {
         this.service = service;
         this.downloads = meterRegistry.counter("chs_ingest_download_total");
         this.gamesCounter = meterRegistry.counter("chs_ingest_games_total");
         this.bytesCounter = meterRegistry.counter("chs_ingest_bytes_total");
+        this.notModified = meterRegistry.counter("chs_ingest_not_modified_total");
     }
 
     public byte[] download(String user, YearMonth ym) {
@@ -60,5 +79,69 @@ public class ChessComDownloader {
         return new MonthDownload(data, games);
     }
 
+    /**
+     * Stream a month's PGN into {@code sink} while counting games, hashing and profiling the
+     * tag columns ({@link PgnStatsCollector}) on the fly. Only one network chunk is held at a
+     * time, so heap usage does not depend on the month size. The sink is not closed.
+     * <p>
+     * With validators from an earlier checkpoint the request is conditional; when chess.com
+     * answers {@code 304} nothing is written and {@link MonthStream#notModified()} is set.
+     */
+    public MonthStream streamMonth(String user, YearMonth ym, OutputStream sink,
+                                   @Nullable String etag, @Nullable String lastModified) throws IOException {
+        log.info("download user={} ym={} mode=stream conditional={}", user, ym, etag != null || lastModified != null);
+        var response = service.streamPgn(user, ym, etag, lastModified).block();
+        PgnGameCounter counter = new PgnGameCounter();
+        PgnStatsCollector stats = new PgnStatsCollector();
+        MessageDigest sha256 = sha256();
+        byte[] chunk = new byte[CHUNK_SIZE];
+        try (Stream<DataBuffer> buffers = response.body().toStream(PREFETCH)) {
+            Iterator<DataBuffer> it = buffers.iterator();
+            while (it.hasNext()) {
+                DataBuffer buffer = it.next();
+                try {
+                    while (buffer.readableByteCount() > 0) {
+                        int n = Math.min(chunk.length, buffer.readableByteCount());
+                        buffer.read(chunk, 0, n);
+                        counter.update(chunk, 0, n);
+                        stats.update(chunk, 0, n);
+                        sha256.update(chunk, 0, n);
+                        sink.write(chunk, 0, n);
+                    }
+                } finally {
+                    DataBufferUtils.release(buffer);
+                }
+            }
+        }
+        if (response.notModified()) {
+            notModified.increment();
+            log.info("month not modified user={} ym={}", user, ym);
+            return new MonthStream(0, 0, null, etag, lastModified, true, null);
+        }
+        stats.finish();
+        downloads.increment();
+        gamesCounter.increment(counter.games());
+        bytesCounter.increment(counter.bytes());
+        log.info("downloaded month user={} ym={} bytes={} games={}", user, ym, counter.bytes(), counter.games());
+        return new MonthStream(counter.bytes(), counter.games(), HexFormat.of().formatHex(sha256.digest()),
+                response.etag(), response.lastModified(), false, stats.profile());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public record MonthDownload(byte[] bytes, int games) {}
+
+    /**
+     * {@code sha256} and {@code profile} are null for a not-modified month; validators are echoed
+     * from the response.
+     */
+    public record MonthStream(long bytes, int games, @Nullable String sha256,
+                              @Nullable String etag, @Nullable String lastModified, boolean notModified,
+                              @Nullable PgnProfile profile) {}
 }
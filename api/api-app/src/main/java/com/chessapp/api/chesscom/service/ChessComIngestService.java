@@ -2,79 +2,141 @@ package com.chessapp.api.chesscom.service;
 
 import com.chessapp.api.datasets.service.DatasetCatalogService;
 import com.chessapp.api.data.ingest.IngestRunRepository;
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.ingest.pgn.PgnProfile;
+import com.chessapp.api.ingest.pgn.TeeOutputStream;
+import com.chessapp.api.ingest.pgn.TimedOutputStream;
+import com.chessapp.api.ingest.service.GameIngestService;
+import com.chessapp.api.ingest.service.IngestEvent;
+import com.chessapp.api.ingest.service.IngestEventBus;
+import com.chessapp.api.ingest.service.IngestReportService;
+import com.chessapp.api.ingest.service.IngestStage;
+import com.chessapp.api.ingest.service.StageTimings;
 import com.chessapp.api.storage.MinioStorageService;
+import com.chessapp.api.storage.S3MultipartOutputStream;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
-/** Orchestrates Chess.com download -> storage -> catalog upsert. */
+/**
+ * Orchestrates Chess.com download -> storage + parse -> catalog upsert.
+ * <p>
+ * Each month's body is read once and teed into the raw.pgn upload and the
+ * {@link GameIngestService} parse stage, which writes games/moves/positions in batches.
+ * <p>
+ * Months are fetched through a pipeline: up to {@code chess.ingest.pipeline.max-in-flight}
+ * months download/stream to S3 concurrently, while the catalog stage consumes results strictly
+ * in month order. Upstream rate limits are enforced inside {@link ChessComService}.
+ * <p>
+ * {@link #ingestBulk} covers many players in one run, interleaving their months round-robin.
+ * <p>
+ * Completed months are checkpointed on their dataset version (content hash, ETag, size), so a
+ * re-run or resumed run only fetches what is missing or may have changed.
+ */
 @Service
 public class ChessComIngestService {
 
     private static final Logger log = LoggerFactory.getLogger(ChessComIngestService.class);
 
     private final ChessComDownloader downloader;
+    private final ChessComService chessCom;
     private final MinioStorageService storage;
     private final DatasetCatalogService catalog;
     private final IngestRunRepository ingestRunRepository;
+    private final GameIngestService gameIngest;
+    private final IngestEventBus events;
+    private final ObjectMapper mapper;
+    private final IngestReportService reports;
     private final Counter upserts;
     private final Counter filesWrittenCounter;
+    private final Counter monthsFailedCounter;
+    private final Counter monthsSkippedCounter;
+    private final Scheduler ingestScheduler;
+    private final int maxInFlight;
+    private final int bulkInFlight;
 
     public ChessComIngestService(ChessComDownloader downloader,
+                                 ChessComService chessCom,
                                  MinioStorageService storage,
                                  DatasetCatalogService catalog,
                                  IngestRunRepository ingestRunRepository,
-                                 MeterRegistry meterRegistry) {
+                                 GameIngestService gameIngest,
+                                 IngestEventBus events,
+                                 ObjectMapper mapper,
+                                 IngestReportService reports,
+                                 MeterRegistry meterRegistry,
+                                 @Qualifier("ingestScheduler") Scheduler ingestScheduler,
+                                 @Value("${chess.ingest.pipeline.max-in-flight:2}") int maxInFlight,
+                                 @Value("${chess.ingest.bulk.max-in-flight:8}") int bulkInFlight) {
         this.downloader = downloader;
+        this.chessCom = chessCom;
         this.storage = storage;
         this.catalog = catalog;
         this.ingestRunRepository = ingestRunRepository;
+        this.gameIngest = gameIngest;
+        this.events = events;
+        this.mapper = mapper;
+        this.reports = reports;
         this.upserts = meterRegistry.counter("chs_ingest_upsert_total");
         this.filesWrittenCounter = meterRegistry.counter("chs_ingest_files_written");
+        this.monthsFailedCounter = meterRegistry.counter("chs_ingest_months_failed_total");
+        this.monthsSkippedCounter = meterRegistry.counter("chs_ingest_months_skipped_total");
+        this.ingestScheduler = ingestScheduler;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.bulkInFlight = Math.max(1, bulkInFlight);
     }
 
-    public void ingest(UUID runId, String datasetId, String username, List<YearMonth> months) {
+    /**
+     * Ingest the given months for a chess.com user.
+     *
+     * @return one result per month, in the order of {@code months}; a failed month does not
+     *         stop the others
+     */
+    public List<MonthResult> ingest(UUID runId, String datasetId, String username, List<YearMonth> months) {
         MDC.put("run_id", runId.toString());
         MDC.put("dataset_id", datasetId);
         MDC.put("username", username);
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
         try {
-            for (YearMonth ym : months) {
-                MDC.put("component", "download");
-                var dl = downloader.downloadMonth(username, ym);
-                byte[] data = dl.bytes();
-                int games = dl.games();
-                String version = "v" + ym; // ym prints as YYYY-MM
-
-                // Storage: datasets/<datasetId>/<version>/raw.pgn (bucket "datasets")
-                String key = datasetId + "/" + version + "/raw.pgn";
-                MDC.put("component", "storage");
-                storage.write("datasets", key, data, "application/x-chess-pgn");
-
-                // Catalog upsert with rows = games, sizeBytes = real bytes
-                MDC.put("component", "catalog");
-                catalog.addVersion(datasetId, version, games, data.length);
-                upserts.increment();
-
-                // Update run.filesWritten and metrics
-                ingestRunRepository.findById(runId).ifPresent(run -> {
-                    Long curr = run.getFilesWritten() == null ? 0L : run.getFilesWritten();
-                    run.setFilesWritten(curr + 1);
-                    ingestRunRepository.save(run);
-                });
-                filesWrittenCounter.increment();
-
-                // Structured log
-                log.info("ingest step component=ingest datasetId={} username={} ym={} version={} bytes={} games={}",
-                        datasetId, username, ym, version, data.length, games);
-            }
-            log.info("ingest completed");
+            List<MonthResult> results = Flux.fromIterable(months)
+                    .flatMapSequential(ym -> Mono.fromCallable(() -> fetch(mdc, datasetId, username, ym))
+                                    .subscribeOn(ingestScheduler)
+                                    .onErrorResume(e -> Mono.just(MonthResult.failed(username, ym, e))),
+                            maxInFlight, 1)
+                    .map(r -> r.ok() ? commit(mdc, runId, datasetId, username, r) : r)
+                    .doOnNext(r -> events.publish(IngestEvent.month(runId, r)))
+                    .collectList()
+                    .block();
+            long failures = results.stream().filter(r -> !r.ok()).count();
+            long skipped = results.stream().filter(MonthResult::skipped).count();
+            monthsFailedCounter.increment(failures);
+            log.info("ingest completed months={} failed={} skipped={}", results.size(), failures, skipped);
+            return results;
         } finally {
             MDC.remove("component");
             MDC.remove("username");
@@ -82,4 +144,290 @@ public class ChessComIngestService {
             MDC.remove("run_id");
         }
     }
+
+    /**
+     * Ingest the months {@code from..to} of many players in one run.
+     * <p>
+     * Each player's archive list is fetched first. The (player, month) tasks are then interleaved
+     * round-robin (every player's first month, then every player's second, ...) and run through
+     * one {@code flatMap} bounded by {@code chess.ingest.bulk.max-in-flight}. No player queues
+     * behind another's backlog, and the upstream token buckets are the only throttle. Downloads
+     * finish in any order, but each player's months are committed in month order, one commit at a
+     * time, into the player's own dataset {@code chesscom_<player>}, so the dataset's current
+     * version ends on the newest month and checkpoints are shared with single-player runs.
+     */
+    public BulkResult ingestBulk(UUID runId, List<String> players, YearMonth from, YearMonth to) {
+        MDC.put("run_id", runId.toString());
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Map<String, String> discoveryErrors = new ConcurrentHashMap<>();
+        try {
+            List<List<MonthTask>> perPlayer = Flux.fromIterable(players)
+                    .flatMapSequential(p -> Mono.fromCallable(() -> discover(mdc, p, from, to))
+                                    .subscribeOn(ingestScheduler)
+                                    .onErrorResume(e -> {
+                                        log.warn("bulk discovery failed user={} error={}", p, e.toString());
+                                        discoveryErrors.put(p, e.getClass().getSimpleName() + ": " + e.getMessage());
+                                        return Mono.just(List.of());
+                                    }),
+                            bulkInFlight, 1)
+                    .collectList()
+                    .block();
+            List<MonthTask> tasks = roundRobin(perPlayer);
+            MonthOrder order = new MonthOrder(tasks);
+            log.info("bulk ingest discovered players={} months={} discoveryFailed={}",
+                    players.size(), tasks.size(), discoveryErrors.size());
+
+            List<MonthResult> results = Flux.fromIterable(tasks)
+                    .flatMap(t -> Mono.fromCallable(() -> fetch(taskMdc(mdc, t.user()), t.datasetId(), t.user(), t.month()))
+                                    .subscribeOn(ingestScheduler)
+                                    .onErrorResume(e -> Mono.just(MonthResult.failed(t.user(), t.month(), e))),
+                            bulkInFlight)
+                    // flatMap emits serially, so the catalog stage is single-threaded
+                    .concatMapIterable(order::release)
+                    .map(r -> r.ok() ? commit(taskMdc(mdc, r.user()), runId, datasetId(r.user()), r.user(), r) : r)
+                    .doOnNext(r -> events.publish(IngestEvent.month(runId, r)))
+                    .collectList()
+                    .block();
+            long failures = results.stream().filter(r -> !r.ok()).count();
+            monthsFailedCounter.increment(failures);
+            log.info("bulk ingest completed players={} months={} failed={} skipped={}", players.size(),
+                    results.size(), failures, results.stream().filter(MonthResult::skipped).count());
+            return new BulkResult(results, Map.copyOf(discoveryErrors));
+        } finally {
+            MDC.remove("component");
+            MDC.remove("run_id");
+        }
+    }
+
+    /** Months of {@code from..to} that {@code user} has archives for, oldest first. */
+    private List<MonthTask> discover(Map<String, String> mdc, String user, YearMonth from, YearMonth to) {
+        MDC.setContextMap(mdc);
+        MDC.put("username", user);
+        MDC.put("component", "discovery");
+        try {
+            String datasetId = datasetId(user);
+            List<MonthTask> months = chessCom.listArchives(user).stream()
+                    .map(YearMonth::parse)
+                    .filter(ym -> !ym.isBefore(from) && !ym.isAfter(to))
+                    .sorted()
+                    .map(ym -> new MonthTask(user, datasetId, ym))
+                    .toList();
+            if (!months.isEmpty()) {
+                catalog.registerIfAbsent(datasetId, datasetId);
+            }
+            return months;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /** Round i holds every player's i-th month, players in request order. */
+    static List<MonthTask> roundRobin(List<List<MonthTask>> perPlayer) {
+        List<MonthTask> order = new ArrayList<>();
+        int rounds = perPlayer.stream().mapToInt(List::size).max().orElse(0);
+        for (int i = 0; i < rounds; i++) {
+            for (List<MonthTask> months : perPlayer) {
+                if (i < months.size()) {
+                    order.add(months.get(i));
+                }
+            }
+        }
+        return order;
+    }
+
+    /** Dataset a bulk run writes {@code user}'s months to. */
+    static String datasetId(String user) {
+        return "chesscom_" + user;
+    }
+
+    private static Map<String, String> taskMdc(Map<String, String> mdc, String user) {
+        Map<String, String> m = new HashMap<>(mdc);
+        m.put("username", user);
+        m.put("dataset_id", datasetId(user));
+        return m;
+    }
+
+    /**
+     * Holds back a player's finished month until all of that player's earlier months have
+     * finished (failed ones included), then releases them oldest first. Not thread-safe; fed
+     * from the serial output of a {@code flatMap}.
+     */
+    static final class MonthOrder {
+
+        private final Map<String, Deque<YearMonth>> expected = new HashMap<>();
+        private final Map<String, Map<YearMonth, MonthResult>> finished = new HashMap<>();
+
+        /** {@code tasks} hold each player's months oldest first, as {@link #roundRobin} keeps them. */
+        MonthOrder(List<MonthTask> tasks) {
+            for (MonthTask t : tasks) {
+                expected.computeIfAbsent(t.user(), u -> new ArrayDeque<>()).add(t.month());
+            }
+        }
+
+        /** The results that became releasable with {@code r}, possibly none. */
+        List<MonthResult> release(MonthResult r) {
+            Map<YearMonth, MonthResult> done = finished.computeIfAbsent(r.user(), u -> new HashMap<>());
+            done.put(r.month(), r);
+            Deque<YearMonth> next = expected.get(r.user());
+            List<MonthResult> ready = new ArrayList<>();
+            while (!next.isEmpty() && done.containsKey(next.peek())) {
+                ready.add(done.remove(next.poll()));
+            }
+            return ready;
+        }
+    }
+
+    /**
+     * Download stage: stream one month into datasets/<datasetId>/<version>/raw.pgn, with the
+     * column profile gathered on the way written next to it as profile.json.
+     * <p>
+     * A month whose checkpoint was taken after the month ended is final on chess.com and is
+     * skipped without a request; an earlier checkpoint (the month was still running) turns the
+     * download into a conditional GET.
+     */
+    private MonthResult fetch(Map<String, String> mdc, String datasetId, String username, YearMonth ym) {
+        MDC.setContextMap(mdc);
+        try {
+            String version = "v" + ym; // ym prints as YYYY-MM
+            String prefix = datasetId + "/" + version + "/";
+            MDC.put("component", "download");
+            var checkpoint = catalog.checkpoint(datasetId, version).orElse(null);
+            if (checkpoint != null && isFinal(ym, checkpoint)) {
+                log.info("ingest month skipped ym={} reason=checkpoint sha256={}", ym, checkpoint.sha256());
+                return MonthResult.skipped(username, ym, version, checkpoint);
+            }
+            return store(username, ym, prefix, version, checkpoint);
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private static boolean isFinal(YearMonth ym, DatasetCatalogService.Checkpoint checkpoint) {
+        Instant monthEnd = ym.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return !checkpoint.completedAt().isBefore(monthEnd);
+    }
+
+    /** Catalog stage: runs once per month, in month order. */
+    private MonthResult commit(Map<String, String> mdc, UUID runId, String datasetId, String username, MonthResult r) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        MDC.setContextMap(mdc);
+        try {
+            if (r.skipped()) {
+                monthsSkippedCounter.increment();
+                return r;
+            }
+            // Catalog upsert with rows = games, sizeBytes = real bytes; marks the month complete
+            MDC.put("component", "catalog");
+            r.timings().committing();
+            catalog.addVersion(datasetId, r.version(), r.games(), r.bytes(), r.checkpoint());
+            upserts.increment();
+
+            // Update run.filesWritten, parsed row counts (one atomic UPDATE) and metrics
+            ingestRunRepository.addProgress(runId, 1, r.bytes(), r.parsed().games(), r.parsed().moves(), r.parsed().positions());
+            filesWrittenCounter.increment();
+            r.timings().done();
+            reports.record(r.timings());
+
+            // Structured log
+            log.info("ingest step component=ingest datasetId={} username={} ym={} version={} bytes={} games={} gamesWritten={} moves={} positions={}",
+                    datasetId, username, r.month(), r.version(), r.bytes(), r.games(),
+                    r.parsed().games(), r.parsed().moves(), r.parsed().positions());
+            return r;
+        } catch (RuntimeException e) {
+            return MonthResult.failed(r.user(), r.month(), e);
+        } finally {
+            if (previous != null) {
+                MDC.setContextMap(previous);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+
+    private MonthResult store(String username, YearMonth ym, String prefix, String version,
+                              @Nullable DatasetCatalogService.Checkpoint previous) {
+        StageTimings timings = StageTimings.start();
+        S3MultipartOutputStream out = storage.openStream("datasets", prefix + "raw.pgn", "application/x-chess-pgn");
+        try {
+            GameIngestService.Session parse = gameIngest.open(username, Platform.CHESS_COM);
+            // the teed sinks are timed; the rest of the stream time is the download itself
+            TimedOutputStream s3 = new TimedOutputStream(out);
+            TimedOutputStream parser = new TimedOutputStream(parse);
+            var dl = downloader.streamMonth(username, ym, new TeeOutputStream(s3, parser),
+                    previous != null ? previous.etag() : null,
+                    previous != null ? previous.lastModified() : null);
+            if (dl.notModified()) {
+                out.abort();
+                parse.close();
+                log.info("ingest month skipped ym={} reason=not-modified", ym);
+                return MonthResult.skipped(username, ym, version, previous);
+            }
+            // rows first: if the batch write fails, the raw upload is aborted as well
+            MDC.put("component", "parse");
+            parser.close();
+            MDC.put("component", "storage");
+            s3.close();
+            long t0 = System.nanoTime();
+            writeProfile(prefix + "profile.json", dl.profile());
+            timings.add(IngestStage.S3_WRITE, s3.nanos() + System.nanoTime() - t0);
+            timings.add(IngestStage.DB_LOAD, parse.writeNanos());
+            timings.add(IngestStage.PARSE, parser.nanos() - parse.writeNanos());
+            timings.ready();
+            var checkpoint = new DatasetCatalogService.Checkpoint(dl.sha256(), dl.etag(), dl.lastModified(),
+                    dl.bytes(), Instant.now());
+            return new MonthResult(username, ym, version, dl.bytes(), dl.games(), parse.stats(), checkpoint, false, null,
+                    timings);
+        } catch (IOException e) {
+            out.abort();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            out.abort();
+            throw e;
+        }
+    }
+
+    /** The profile only feeds the dataset views, so a failed write does not fail the month. */
+    private void writeProfile(String key, @Nullable PgnProfile profile) {
+        if (profile == null) {
+            return;
+        }
+        try {
+            storage.write("datasets", key, mapper.writeValueAsBytes(profile), "application/json");
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("profile not written key={} error={}", key, e.toString());
+        }
+    }
+
+    /**
+     * Outcome of a single month; {@code error} is null on success. {@code games} counts games in the
+     * raw file, {@code parsed} the rows actually written. A {@code skipped} month was already
+     * complete (checkpoint or 304) and is neither stored nor cataloged again. {@code timings} are
+     * null for skipped and failed months.
+     */
+    public record MonthResult(String user, YearMonth month, String version, long bytes, int games,
+                              GameIngestService.Stats parsed, DatasetCatalogService.Checkpoint checkpoint,
+                              boolean skipped, String error, @Nullable StageTimings timings) {
+
+        public boolean ok() {
+            return error == null;
+        }
+
+        static MonthResult skipped(String user, YearMonth ym, String version, DatasetCatalogService.Checkpoint checkpoint) {
+            return new MonthResult(user, ym, version, 0L, 0, GameIngestService.Stats.EMPTY, checkpoint, true, null, null);
+        }
+
+        static MonthResult failed(String user, YearMonth ym, Throwable e) {
+            log.warn("ingest month failed ym={} error={}", ym, e.toString());
+            return new MonthResult(user, ym, "v" + ym, 0L, 0, GameIngestService.Stats.EMPTY, null, false,
+                    e.getClass().getSimpleName() + ": " + e.getMessage(), null);
+        }
+    }
+
+    record MonthTask(String user, String datasetId, YearMonth month) {}
+
+    /**
+     * Outcome of a bulk run: one result per discovered (player, month), in commit order (month
+     * order per player), and the players whose archive list could not be fetched.
+     */
+    public record BulkResult(List<MonthResult> months, Map<String, String> discoveryErrors) {}
 }
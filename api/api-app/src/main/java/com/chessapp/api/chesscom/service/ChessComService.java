@@ -2,20 +2,34 @@ package com.chessapp.api.chesscom.service;
 
 import java.time.Duration;
 import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 import reactor.util.retry.Retry;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
@@ -24,9 +38,38 @@ import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 public class ChessComService {
 
     private final WebClient web;
-    private final Map<String, Long> nextAllowed = new ConcurrentHashMap<>();
+    private final UpstreamBudget upstreamBudget;
+    private final UpstreamThrottle throttle;
+    /**
+     * Archive listings and month metadata, keyed by lowercased user. Concurrent misses for the
+     * same key share one upstream request; failed requests are not cached.
+     */
+    private final AsyncCache<String, List<String>> archives;
+    private final AsyncCache<MonthKey, ArchiveMeta> metas;
 
-    public ChessComService(@Value("${chess.ingest.baseUrl:https://api.chess.com}") String baseUrl) {
+    public ChessComService(@Value("${chess.ingest.baseUrl:https://api.chess.com}") String baseUrl,
+                           @Value("${chess.ingest.upstream.max-concurrent:4}") int maxConcurrent,
+                           @Value("${chess.ingest.upstream.global-rate:4}") double globalRate,
+                           @Value("${chess.ingest.upstream.user-rate:1}") double userRate,
+                           @Value("${chess.ingest.cache.archives-ttl:PT1H}") Duration archivesTtl,
+                           @Value("${chess.ingest.cache.current-month-ttl:PT5M}") Duration currentMonthTtl,
+                           @Value("${chess.ingest.cache.past-month-ttl:P30D}") Duration pastMonthTtl,
+                           @Value("${chess.ingest.cache.max-size:10000}") long cacheMaxSize,
+                           MeterRegistry meterRegistry) {
+        this.upstreamBudget = new UpstreamBudget(maxConcurrent);
+        this.throttle = new UpstreamThrottle(globalRate, userRate, meterRegistry);
+        this.archives = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ArchivesExpiry(archivesTtl))
+                .recordStats()
+                .buildAsync();
+        this.metas = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new MonthExpiry(currentMonthTtl, pastMonthTtl))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, archives, "chesscom_archives");
+        CaffeineCacheMetrics.monitor(meterRegistry, metas, "chesscom_meta");
         HttpClient httpClient = HttpClient.create()
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
                 .responseTimeout(Duration.ofSeconds(15))
@@ -38,7 +81,7 @@ public class ChessComService {
                 .filter(t -> t instanceof WebClientResponseException ex && ex.getStatusCode().is5xxServerError());
 
         ExchangeStrategies strategies = ExchangeStrategies.builder()
-                .codecs(cfg -> cfg.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // allow large PGN responses
+                .codecs(cfg -> cfg.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // aggregated bodies only; streamPgn/meta are unbounded
                 .build();
 
         this.web = WebClient.builder()
@@ -49,59 +92,152 @@ public class ChessComService {
                 .build();
     }
 
-    private void throttle(String user) {
-        user = user.toLowerCase();
-        long now = System.currentTimeMillis();
-        long allowed = nextAllowed.getOrDefault(user, 0L);
-        if (now < allowed) {
-            try { Thread.sleep(allowed - now); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-        }
-        nextAllowed.put(user, System.currentTimeMillis() + 1000);
+    /**
+     * Throttle, then wait for one of the {@code chess.ingest.upstream.max-concurrent} permits and
+     * release it when {@code request} terminates. Both waits are signals; no thread is parked in
+     * the pipeline. Only the blocking facades below hold their caller until the result is in.
+     */
+    private <T> Mono<T> limited(String user, Supplier<Mono<T>> request) {
+        return throttle.acquire(user)
+                .then(upstreamBudget.acquire())
+                .flatMap(permit -> request.get().doFinally(signal -> permit.release()))
+                .doOnDiscard(UpstreamBudget.Permit.class, UpstreamBudget.Permit::release);
     }
 
+    /** Months with games, e.g. {@code 2024-01}; cached for {@code archives-ttl}, at most until the month ends. */
     public List<String> listArchives(String user) {
-        throttle(user);
-        ArchivesWrapper wrapper = web.get()
+        return join(archives.get(user.toLowerCase(), (key, executor) -> limited(user, () -> web.get()
                 .uri("/pub/player/{user}/games/archives", user)
                 .retrieve()
-                .bodyToMono(ArchivesWrapper.class)
-                .block();
-        return wrapper.archives().stream()
-                .map(url -> {
-                    String[] parts = url.split("/");
-                    String year = parts[parts.length - 2];
-                    String month = parts[parts.length - 1];
-                    return year + "-" + month;
-                })
-                .collect(Collectors.toList());
+                .bodyToMono(ArchivesWrapper.class))
+                .map(wrapper -> wrapper.archives().stream()
+                        .map(url -> {
+                            String[] parts = url.split("/");
+                            String year = parts[parts.length - 2];
+                            String month = parts[parts.length - 1];
+                            return year + "-" + month;
+                        })
+                        .toList())
+                .toFuture()));
     }
 
+    /**
+     * Game count and {@code time_class} distribution of a month. The archive JSON (every game
+     * with its full PGN) is parsed as it streams in by {@link ArchiveMetaReader}, not aggregated.
+     * Months that are over are cached for {@code past-month-ttl}, the running one for
+     * {@code current-month-ttl}.
+     */
     public ArchiveMeta meta(String user, int year, int month) {
-        throttle(user);
-        GamesWrapper wrapper = web.get()
-                .uri("/pub/player/{user}/games/{year}/{month}", user, year, String.format("%02d", month))
-                .retrieve()
-                .bodyToMono(GamesWrapper.class)
-                .block();
-        int count = wrapper.games() == null ? 0 : wrapper.games().size();
-        Map<String, Integer> dist = wrapper.games() == null ? Map.of() :
-                wrapper.games().stream()
-                        .collect(Collectors.groupingBy(Game::time_class, Collectors.summingInt(g -> 1)));
-        return new ArchiveMeta(count, dist);
+        return join(metas.get(new MonthKey(user.toLowerCase(), YearMonth.of(year, month)), (key, executor) ->
+                limited(user, () -> web.get()
+                        .uri("/pub/player/{user}/games/{year}/{month}", user, year, String.format("%02d", month))
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class)
+                        .collect(ArchiveMetaReader::new, ArchiveMetaReader::feed)
+                        .map(ArchiveMetaReader::finish))
+                        .toFuture()));
+    }
+
+    /** Wait for a cached or in-flight request; upstream errors surface unwrapped, as from {@code block()}. */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
     }
 
     public byte[] downloadPgn(String user, YearMonth ym) {
-        throttle(user);
-        return web.get()
+        return limited(user, () -> web.get()
                 .uri("/pub/player/{user}/games/{year}/{month}/pgn", user, ym.getYear(), String.format("%02d", ym.getMonthValue()))
                 .retrieve()
-                .bodyToMono(byte[].class)
+                .bodyToMono(byte[].class))
                 .block();
     }
 
+    /**
+     * Stream a month's PGN without aggregating it; the codec size limit does not apply here.
+     * <p>
+     * {@code etag}/{@code lastModified} from a previous download turn the request into a
+     * conditional GET; a {@code 304} yields {@link PgnResponse#notModified()} and an empty body.
+     * Callers must subscribe to the body (also when not modified) and release every emitted
+     * buffer. The upstream permit is awaited (without blocking) after the throttle delay and held
+     * until the body completes, fails or is cancelled.
+     */
+    public Mono<PgnResponse> streamPgn(String user, YearMonth ym, @Nullable String etag, @Nullable String lastModified) {
+        return throttle.acquire(user).then(upstreamBudget.acquire()).flatMap(permit -> web.get()
+                .uri("/pub/player/{user}/games/{year}/{month}/pgn", user, ym.getYear(), String.format("%02d", ym.getMonthValue()))
+                .headers(h -> {
+                    if (etag != null) h.setIfNoneMatch(etag);
+                    if (lastModified != null) h.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+                })
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> new PgnResponse(
+                        entity.getStatusCode().value() == 304,
+                        entity.getHeaders().getETag(),
+                        entity.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED),
+                        (entity.getBody() != null ? entity.getBody() : Flux.<DataBuffer>empty())
+                                .doFinally(signal -> permit.release())))
+                .doOnError(e -> permit.release())
+                .doOnCancel(permit::release))
+                .doOnDiscard(UpstreamBudget.Permit.class, UpstreamBudget.Permit::release);
+    }
+
     private record ArchivesWrapper(List<String> archives) {}
-    private record GamesWrapper(List<Game> games) {}
-    private record Game(String time_class) {}
+
+    private record MonthKey(String user, YearMonth month) {}
+
+    /** Start of the month after {@code month}, UTC, the zone chess.com files games by. */
+    private static long monthEndNanos(YearMonth month) {
+        ZonedDateTime end = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC);
+        return Duration.between(ZonedDateTime.now(ZoneOffset.UTC), end).toNanos();
+    }
+
+    /** The listing gains a month when its first game is played, so it never outlives the current month. */
+    private record ArchivesExpiry(Duration ttl) implements Expiry<String, List<String>> {
+        @Override
+        public long expireAfterCreate(String key, List<String> value, long currentTime) {
+            return Math.max(0, Math.min(ttl.toNanos(), monthEndNanos(YearMonth.now(ZoneOffset.UTC))));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, List<String> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, List<String> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * A month that is over no longer changes; the running one keeps growing. Games finished right
+     * at midnight can show up a little late, so a month counts as over one day after it ended.
+     */
+    private record MonthExpiry(Duration current, Duration past) implements Expiry<MonthKey, ArchiveMeta> {
+        @Override
+        public long expireAfterCreate(MonthKey key, ArchiveMeta value, long currentTime) {
+            boolean over = monthEndNanos(key.month()) + Duration.ofDays(1).toNanos() <= 0;
+            return (over ? past : current).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(MonthKey key, ArchiveMeta value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(MonthKey key, ArchiveMeta value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 
     public record ArchiveMeta(int count, Map<String, Integer> timeControlDist) {}
+
+    /** Validators are null when chess.com did not send them. */
+    public record PgnResponse(boolean notModified, @Nullable String etag, @Nullable String lastModified,
+                              Flux<DataBuffer> body) {}
 }
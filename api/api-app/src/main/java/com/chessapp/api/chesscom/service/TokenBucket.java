@@ -0,0 +1,44 @@
+package com.chessapp.api.chesscom.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the only state is the theoretical arrival time of
+ * the next request, advanced with CAS. {@link #reserve(long)} never blocks; it hands out the
+ * earliest slot and callers delay themselves until then, so concurrent callers get distinct,
+ * evenly spaced slots.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong nextFree = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param ratePerSecond sustained requests per second
+     * @param burst requests allowed back to back before spacing applies (at least 1)
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be > 0");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+    }
+
+    /**
+     * Reserve one token at or after {@code atNanos} ({@link System#nanoTime()} scale).
+     *
+     * @return the time the caller may proceed, {@code >= atNanos}
+     */
+    public long reserve(long atNanos) {
+        while (true) {
+            long tat = nextFree.get();
+            long start = Math.max(tat, atNanos);
+            long allowedAt = Math.max(atNanos, start - toleranceNanos);
+            if (nextFree.compareAndSet(tat, start + intervalNanos)) {
+                return allowedAt;
+            }
+        }
+    }
+}
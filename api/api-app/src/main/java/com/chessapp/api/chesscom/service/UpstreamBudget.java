@@ -0,0 +1,118 @@
+package com.chessapp.api.chesscom.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Counting semaphore for upstream requests that never parks a thread: {@link #acquire()} is a
+ * {@link Mono} that emits a {@link Permit} once one is free, and waiters queue in arrival order.
+ * A waiter cancelled while queued gives up its place; a permit granted to a cancelled waiter is
+ * handed on.
+ */
+public class UpstreamBudget {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CANCELLED = 2;
+
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int available;
+
+    public UpstreamBudget(int permits) {
+        this.available = Math.max(1, permits);
+    }
+
+    /** A permit once one is free; release it exactly when the guarded work terminates. */
+    public Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter w = new Waiter(sink);
+            // registered before any grant, so a cancel can never miss a permit it was given
+            sink.onCancel(w::cancel);
+            boolean free;
+            synchronized (this) {
+                free = available > 0;
+                if (free) {
+                    available--;
+                } else {
+                    waiters.add(w);
+                }
+            }
+            if (free) {
+                w.grant();
+            }
+        });
+    }
+
+    /** Permits not held and not promised to a waiter. */
+    public synchronized int available() {
+        return available;
+    }
+
+    public synchronized int waiting() {
+        return waiters.size();
+    }
+
+    /** Hand the permit to the oldest live waiter, or put it back. */
+    private void release() {
+        Waiter next;
+        synchronized (this) {
+            do {
+                next = waiters.poll();
+            } while (next != null && !next.claim());
+            if (next == null) {
+                available++;
+                return;
+            }
+        }
+        next.sink.success(next.permit);
+    }
+
+    private final class Waiter {
+        final MonoSink<Permit> sink;
+        final Permit permit = new Permit();
+        final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+
+        boolean claim() {
+            return state.compareAndSet(WAITING, GRANTED);
+        }
+
+        /** A permit taken for this waiter directly; passed on if it was cancelled meanwhile. */
+        void grant() {
+            if (claim()) {
+                sink.success(permit);
+            } else {
+                release();
+            }
+        }
+
+        void cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                synchronized (UpstreamBudget.this) {
+                    waiters.remove(this);
+                }
+            } else if (state.get() == GRANTED) {
+                permit.release();
+            }
+        }
+    }
+
+    /** One taken permit; {@link #release()} is idempotent, so every exit path may call it. */
+    public final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                UpstreamBudget.this.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.chessapp.api.chesscom.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Global and per-user spacing of chess.com requests. A request first waits for a slot in its
+ * user's bucket and only then, at that moment, takes a global token. A user with a long queue
+ * (a bulk run over many archives) therefore only pushes their own bucket ahead; the global
+ * bucket never runs past real time, and other users keep getting their turn.
+ * <p>
+ * Nothing sleeps: both waits are {@link Mono#delay} signals.
+ */
+public class UpstreamThrottle {
+
+    private final TokenBucket global;
+    /** Idle users are evicted, so the bucket map stays bounded. */
+    private final Cache<String, TokenBucket> users;
+    private final double userRate;
+    private final Timer wait;
+
+    public UpstreamThrottle(double globalRate, double userRate, MeterRegistry meterRegistry) {
+        this.global = new TokenBucket(globalRate, (int) Math.max(1, globalRate));
+        this.users = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(5))
+                .maximumSize(10_000)
+                .build();
+        this.userRate = userRate;
+        this.wait = Timer.builder("chs_chesscom_throttle_wait_seconds")
+                .description("Delay imposed on chess.com requests by the global and per-user rate limits")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+    }
+
+    /** Completes when {@code user} may send the next request. */
+    public Mono<Void> acquire(String user) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            long userSlot = users.get(user.toLowerCase(), k -> new TokenBucket(userRate, 1)).reserve(start);
+            return delayUntil(userSlot).then(Mono.defer(() -> {
+                long globalSlot = global.reserve(System.nanoTime());
+                wait.record(Math.max(0, globalSlot - start), TimeUnit.NANOSECONDS);
+                return delayUntil(globalSlot);
+            }));
+        });
+    }
+
+    private static Mono<Void> delayUntil(long atNanos) {
+        long wait = atNanos - System.nanoTime();
+        return wait <= 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(wait)).then();
+    }
+}
@@ -1,19 +1,58 @@
 package com.chessapp.api.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
+/**
+ * Executors für @Async-Aufgaben; Ingest-Runs selbst laufen über {@code IngestJobWorker}, dessen
+ * Worker-Threads demselben Schalter folgen.
+ * <p>
+ * Mit {@code spring.threads.virtual.enabled=true} laufen Ingest-Runs (und über Spring Boot auch
+ * Tomcat-Requests) auf virtuellen Threads: blockierende {@code .block()}-Aufrufe parken dann
+ * keinen Plattform-Thread mehr. Sonst bleibt der bisherige Pool 4/8/200.
+ */
 @Configuration
 @EnableAsync(proxyTargetClass = true) // erzwingt Klassenbasierte Proxies (CGLIB)
 public class AsyncConfig implements AsyncConfigurer {
 
+    private final boolean virtualThreads;
+
+    public AsyncConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
     @Bean(name = {"ingestExecutor", "taskExecutor"}) // alias 'taskExecutor' als Default
-    public ThreadPoolTaskExecutor ingestExecutor() {
+    public AsyncTaskExecutor ingestExecutor() {
+        return virtualThreads ? virtualExecutor() : platformExecutor();
+    }
+
+    /** Scheduler für blockierende Schritte innerhalb eines Runs (z. B. Monats-Downloads). */
+    @Bean
+    public Scheduler ingestScheduler() {
+        return virtualThreads
+                ? Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "ingest-vt")
+                : Schedulers.boundedElastic();
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        // setzt den Default-Executor für alle @Async-Methoden
+        return ingestExecutor();
+    }
+
+    public static AsyncTaskExecutor platformExecutor() {
         ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
         ex.setCorePoolSize(4);
         ex.setMaxPoolSize(8);
@@ -24,9 +63,11 @@ public class AsyncConfig implements AsyncConfigurer {
         return ex;
     }
 
-    @Override
-    public Executor getAsyncExecutor() {
-        // setzt den Default-Executor für alle @Async-Methoden
-        return ingestExecutor();
+    /** Ein virtueller Thread pro Task, ohne Queue; MDC wird wie beim Pool übertragen. */
+    public static AsyncTaskExecutor virtualExecutor() {
+        SimpleAsyncTaskExecutor ex = new SimpleAsyncTaskExecutor("ingest-vt-");
+        ex.setVirtualThreads(true);
+        ex.setTaskDecorator(new MdcTaskDecorator());
+        return ex;
     }
 }
@@ -2,6 +2,7 @@ package com.chessapp.api.datasets.service;
 
 import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -52,6 +53,16 @@ public class DatasetCatalogService {
 
     @Transactional
     public void addVersion(String datasetName, String version, long rows, long sizeBytes) {
+        addVersion(datasetName, version, rows, sizeBytes, null);
+    }
+
+    /**
+     * Upsert a version; with a {@code checkpoint} the version is also marked complete so later
+     * runs can skip or conditionally re-download it.
+     */
+    @Transactional
+    public void addVersion(String datasetName, String version, long rows, long sizeBytes,
+                           @Nullable Checkpoint checkpoint) {
         Dataset d = datasetRepository.findByNameIgnoreCase(datasetName)
                 .orElseThrow();
         boolean created = false;
@@ -65,6 +76,12 @@ public class DatasetCatalogService {
         }
         dv.setRows(rows);
         dv.setSizeBytes(sizeBytes);
+        if (checkpoint != null) {
+            dv.setContentSha256(checkpoint.sha256());
+            dv.setEtag(checkpoint.etag());
+            dv.setLastModified(checkpoint.lastModified());
+            dv.setCompletedAt(checkpoint.completedAt());
+        }
         versionRepository.save(dv);
 
         d.setVersion(version);
@@ -75,4 +92,18 @@ public class DatasetCatalogService {
 
         log.info("dataset version cataloged dataset={} version={} upserted={}", datasetName, version, created);
     }
+
+    /** Checkpoint of a completed version; empty while the version was never fully ingested. */
+    @Transactional(readOnly = true)
+    public Optional<Checkpoint> checkpoint(String datasetName, String version) {
+        return datasetRepository.findByNameIgnoreCase(datasetName)
+                .flatMap(d -> versionRepository.findByDatasetIdAndVersion(d.getId(), version))
+                .filter(dv -> dv.getCompletedAt() != null)
+                .map(dv -> new Checkpoint(dv.getContentSha256(), dv.getEtag(), dv.getLastModified(),
+                        dv.getSizeBytes() == null ? 0L : dv.getSizeBytes(), dv.getCompletedAt()));
+    }
+
+    /** Content hash and HTTP validators of a stored version. */
+    public record Checkpoint(String sha256, @Nullable String etag, @Nullable String lastModified,
+                             long sizeBytes, Instant completedAt) {}
 }
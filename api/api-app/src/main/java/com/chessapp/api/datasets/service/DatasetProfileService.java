@@ -19,13 +19,8 @@ public class DatasetProfileService {
         this.mapper = mapper;
     }
 
-    public SchemaDto loadSchema(String datasetId, String version) {
-        // Heuristics: try common paths under mlflow bucket
-        String[] candidates = new String[] {
-                "s3://mlflow/reports/dataset/" + datasetId + "/" + version + "/profile.json",
-                "s3://mlflow/datasets/" + datasetId + "/" + version + "/profile.json",
-        };
-        for (String uri : candidates) {
+    public SchemaDto loadSchema(String datasetId, String datasetName, String version) {
+        for (String uri : candidates(datasetId, datasetName, version)) {
             try {
                 byte[] data = storage.readUri(uri);
                 if (data != null && data.length > 0) {
@@ -51,12 +46,8 @@ public class DatasetProfileService {
         return new SchemaDto(List.of());
     }
 
-    public QualityDto loadQuality(String datasetId, String version) {
-        String[] candidates = new String[] {
-                "s3://mlflow/reports/dataset/" + datasetId + "/" + version + "/profile.json",
-                "s3://mlflow/datasets/" + datasetId + "/" + version + "/profile.json",
-        };
-        for (String uri : candidates) {
+    public QualityDto loadQuality(String datasetId, String datasetName, String version) {
+        for (String uri : candidates(datasetId, datasetName, version)) {
             try {
                 byte[] data = storage.readUri(uri);
                 if (data != null && data.length > 0) {
@@ -74,6 +65,18 @@ public class DatasetProfileService {
         return new QualityDto(0.0, 0.0, 0.0);
     }
 
+    /**
+     * Ingest writes profile.json next to raw.pgn under the dataset name; ML jobs may publish
+     * one under the mlflow bucket, keyed by dataset id.
+     */
+    private static String[] candidates(String datasetId, String datasetName, String version) {
+        return new String[] {
+                "s3://datasets/" + datasetName + "/" + version + "/profile.json",
+                "s3://mlflow/reports/dataset/" + datasetId + "/" + version + "/profile.json",
+                "s3://mlflow/datasets/" + datasetId + "/" + version + "/profile.json",
+        };
+    }
+
     private static String text(JsonNode node, String field) {
         JsonNode v = node.get(field);
         return v != null && !v.isNull() ? v.asText() : null;
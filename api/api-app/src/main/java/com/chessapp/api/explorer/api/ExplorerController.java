@@ -0,0 +1,47 @@
+package com.chessapp.api.explorer.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.chessapp.api.domain.entity.TimeControlCategory;
+import com.chessapp.api.explorer.api.dto.ExplorerResponse;
+import com.chessapp.api.explorer.service.ExplorerService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/v1/explorer")
+@Tag(name = "explorer", description = "Opening explorer over ingested games")
+public class ExplorerController {
+
+    private final ExplorerService explorer;
+
+    public ExplorerController(ExplorerService explorer) {
+        this.explorer = explorer;
+    }
+
+    @GetMapping
+    @Operation(summary = "Moves played from a position with results and average opponent rating")
+    public ExplorerResponse explore(@RequestParam String fen,
+                                    @RequestParam(required = false) String username,
+                                    @RequestParam(required = false) String timeCategory) {
+        TimeControlCategory category = null;
+        if (timeCategory != null && !timeCategory.isBlank()) {
+            try {
+                category = TimeControlCategory.valueOf(timeCategory.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unknown timeCategory " + timeCategory);
+            }
+        }
+        try {
+            return explorer.explore(fen, username, category);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
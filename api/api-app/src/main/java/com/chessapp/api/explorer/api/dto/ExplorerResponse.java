@@ -0,0 +1,20 @@
+package com.chessapp.api.explorer.api.dto;
+
+import java.util.List;
+
+/**
+ * Opening explorer node: the moves played from a position and how the games went on.
+ *
+ * @param zobrist hash of the position as 16 hex digits
+ * @param games   games through the position within the filter (sum over {@code moves})
+ */
+public record ExplorerResponse(String fen, String zobrist, long games, long white, long draws, long black,
+                               List<Move> moves) {
+
+    /**
+     * @param averageOpponentRating mean rating of the opponent of the side that played the move;
+     *                              null when no game had one
+     */
+    public record Move(String uci, String san, long games, long white, long draws, long black,
+                       Integer averageOpponentRating) {}
+}
@@ -0,0 +1,109 @@
+package com.chessapp.api.explorer.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import com.chessapp.api.domain.entity.TimeControlCategory;
+import com.chessapp.api.domain.entity.User;
+import com.chessapp.api.domain.repo.ExplorerRepository;
+import com.chessapp.api.domain.repo.ExplorerRepository.MoveStats;
+import com.chessapp.api.domain.repo.UserRepository;
+import com.chessapp.api.explorer.api.dto.ExplorerResponse;
+import com.chessapp.api.service.position.ZobristHash;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Opening explorer over {@code explorer_moves}, which ingest keeps up to date.
+ * <p>
+ * Nodes (position × filter) are held in a size-bounded in-memory cache, so the opening plies
+ * everyone asks for are answered without a query. A cached node older than {@code refresh} is
+ * still served and reloaded in the background, so newly ingested games show up within about
+ * that time; nodes not asked for within {@code expire} are dropped.
+ */
+@Service
+public class ExplorerService {
+
+    private final UserRepository users;
+    private final LoadingCache<Node, List<MoveStats>> nodes;
+    private final Cache<String, UUID> userIds;
+
+    public ExplorerService(ExplorerRepository repository, UserRepository users, MeterRegistry meterRegistry,
+                           @Value("${chess.explorer.cache.max-size:100000}") long maxSize,
+                           @Value("${chess.explorer.cache.refresh:PT10S}") Duration refresh,
+                           @Value("${chess.explorer.cache.expire:PT30M}") Duration expire) {
+        this.users = users;
+        this.nodes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refresh)
+                .expireAfterAccess(expire)
+                .recordStats()
+                .build(n -> repository.findMoves(n.zobrist(), n.userId(), n.timeCategory()));
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nodes, "explorer_nodes");
+    }
+
+    /**
+     * Moves played from {@code fen}, optionally only in games of {@code username} and of one
+     * time control category.
+     *
+     * @throws IllegalArgumentException when {@code fen} is malformed
+     */
+    public ExplorerResponse explore(String fen, @Nullable String username, @Nullable TimeControlCategory timeCategory) {
+        long zobrist = ZobristHash.of(fen);
+        UUID userId = ExplorerRepository.ALL_USERS;
+        if (username != null && !username.isBlank()) {
+            userId = userId(username.trim());
+            if (userId == null) {
+                return new ExplorerResponse(fen, ZobristHash.hex(zobrist), 0, 0, 0, 0, List.of());
+            }
+        }
+        String bucket = timeCategory != null ? timeCategory.name() : ExplorerRepository.ALL_TIME_CATEGORIES;
+        List<MoveStats> stats = nodes.get(new Node(zobrist, userId, bucket));
+
+        List<ExplorerResponse.Move> moves = new ArrayList<>(stats.size());
+        long games = 0;
+        long white = 0;
+        long draws = 0;
+        long black = 0;
+        for (MoveStats s : stats) {
+            Integer avg = s.opponentRatingCount() > 0
+                    ? (int) Math.round((double) s.opponentRatingSum() / s.opponentRatingCount()) : null;
+            moves.add(new ExplorerResponse.Move(s.uci(), s.san(), s.games(), s.whiteWins(), s.draws(),
+                    s.blackWins(), avg));
+            games += s.games();
+            white += s.whiteWins();
+            draws += s.draws();
+            black += s.blackWins();
+        }
+        return new ExplorerResponse(fen, ZobristHash.hex(zobrist), games, white, draws, black, moves);
+    }
+
+    /** Known users are remembered; unknown names are looked up again next time. */
+    @Nullable
+    private UUID userId(String username) {
+        UUID id = userIds.getIfPresent(username);
+        if (id == null) {
+            id = users.findByChessUsername(username).map(User::getId).orElse(null);
+            if (id != null) {
+                userIds.put(username, id);
+            }
+        }
+        return id;
+    }
+
+    private record Node(long zobrist, UUID userId, String timeCategory) {}
+}
@@ -0,0 +1,50 @@
+package com.chessapp.api.games.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.chessapp.api.service.GameService;
+import com.chessapp.api.service.dto.PositionGamesDto;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/v1/positions")
+@Tag(name = "games")
+public class PositionsController {
+
+    private static final String GAMES = "/games";
+
+    private final GameService gameService;
+
+    public PositionsController(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    /**
+     * {@code GET /v1/positions/{fen}/games}. The FEN keeps its own {@code /} separators, so the
+     * whole rest of the path is captured and {@code /games} cut off; spaces may be sent as
+     * {@code %20} or {@code _}.
+     */
+    @GetMapping("/{*path}")
+    @Operation(summary = "Games that reached a position, keyset-paginated via 'after'")
+    public PositionGamesDto games(@PathVariable String path,
+                                  @RequestParam(required = false) String after,
+                                  @RequestParam(defaultValue = "50") int limit) {
+        if (!path.endsWith(GAMES) || path.length() <= GAMES.length() + 1) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        String fen = path.substring(1, path.length() - GAMES.length()).replace('_', ' ');
+        try {
+            return gameService.gamesAtPosition(fen, after, Math.max(1, Math.min(500, limit)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.chessapp.api.ingest.api;
+
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.chessapp.api.chesscom.api.ChessComController;
+import com.chessapp.api.ingest.service.IngestSaturatedException;
+import com.chessapp.api.lichess.api.LichessController;
+
+/** Maps a refused ingest start to {@code 429} with {@code Retry-After} in whole seconds. */
+@ControllerAdvice(assignableTypes = {IngestController.class, ChessComController.class, LichessController.class})
+public class IngestAdmissionHandler {
+
+    @ExceptionHandler(IngestSaturatedException.class)
+    public ResponseEntity<Map<String, Object>> saturated(IngestSaturatedException ex) {
+        long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body(Map.of("error", "ingest_saturated", "message", ex.getMessage(),
+                        "retryAfterSeconds", seconds));
+    }
+}
@@ -2,7 +2,11 @@ package com.chessapp.api.ingest.api;
 
 import com.chessapp.api.ingest.api.dto.IngestStartResponse;
 import com.chessapp.api.ingest.api.dto.IngestStatusResponse;
+import com.chessapp.api.datasets.service.DatasetCatalogService;
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.ingest.service.IngestAdmission;
 import com.chessapp.api.ingest.service.IngestService;
+import com.chessapp.api.ingest.service.UploadIngestService;
 import com.chessapp.api.data.ingest.IngestRunEntity;
 import com.chessapp.api.data.ingest.IngestRunRepository;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,14 +14,25 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,39 +45,100 @@ import java.util.UUID;
 public class IngestController {
 
     private static final Logger log = LoggerFactory.getLogger(IngestController.class);
+    private static final DateTimeFormatter UPLOAD_VERSION =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
 
     private final IngestService ingestService;
     private final IngestRunRepository repository;
+    private final IngestEventStream eventStream;
+    private final UploadIngestService uploadIngest;
+    private final DatasetCatalogService datasetCatalog;
+    private final IngestAdmission admission;
 
-    public IngestController(IngestService ingestService, IngestRunRepository repository) {
+    public IngestController(IngestService ingestService, IngestRunRepository repository,
+                            IngestEventStream eventStream, UploadIngestService uploadIngest,
+                            DatasetCatalogService datasetCatalog, IngestAdmission admission) {
         this.ingestService = ingestService;
         this.repository = repository;
+        this.eventStream = eventStream;
+        this.uploadIngest = uploadIngest;
+        this.datasetCatalog = datasetCatalog;
+        this.admission = admission;
     }
 
     @PostMapping(consumes = org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE)
-    @Operation(summary = "Start ingest run")
+    @Operation(summary = "Ingest an uploaded PGN file (multipart); the file is stored and parsed before the response")
     public ResponseEntity<IngestStartResponse> start(
             @RequestPart("file") MultipartFile file,
             @RequestPart(value = "datasetId", required = false) String datasetId,
             @RequestPart(value = "note", required = false) String note,
-            @RequestPart(value = "version", required = false) String version
-    ) {
-        UUID runId = ingestService.start(datasetId, version);
-        log.info("ingest run {} started", runId);
+            @RequestPart(value = "version", required = false) String version,
+            @RequestPart(value = "username", required = false) String username,
+            @RequestPart(value = "platform", required = false) String platform
+    ) throws IOException {
+        // the container spooled the part to disk once; it is read from there as a stream
+        try (InputStream body = file.getInputStream()) {
+            return upload(body, datasetId, version, username, platform);
+        }
+    }
+
+    @PostMapping(consumes = {"application/x-chess-pgn", "application/vnd.chess-pgn",
+            org.springframework.http.MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Ingest a raw PGN request body, streamed without spooling; the body is stored and parsed before the response")
+    public ResponseEntity<IngestStartResponse> startRaw(
+            HttpServletRequest request,
+            @RequestParam(value = "datasetId", required = false) String datasetId,
+            @RequestParam(value = "version", required = false) String version,
+            @RequestParam(value = "username", required = false) String username,
+            @RequestParam(value = "platform", required = false) String platform
+    ) throws IOException {
+        return upload(request.getInputStream(), datasetId, version, username, platform);
+    }
+
+    private ResponseEntity<IngestStartResponse> upload(InputStream body, String datasetId, String version,
+                                                       String username, String platform) {
+        Platform p = parsePlatform(platform);
+        String status;
+        UUID runId;
+        // the body is parsed on this thread: the permit is held until it is done
+        try (IngestAdmission.UploadPermit permit = admission.admitUpload()) {
+            if (datasetId != null) {
+                datasetCatalog.registerIfAbsent(datasetId, datasetId);
+                if (version == null) {
+                    version = "upload-" + UPLOAD_VERSION.format(Instant.now());
+                }
+            }
+            String owner = username != null && !username.isBlank() ? username : IngestService.currentUsername();
+            runId = ingestService.startUpload(datasetId, version, owner);
+            log.info("ingest run {} started upload", runId);
+            status = uploadIngest.ingest(runId, body, datasetId, version, owner, p);
+        }
         URI location = URI.create("/v1/ingest/" + runId);
+        return ResponseEntity.created(location)
+                .body(new IngestStartResponse(runId, status.toLowerCase()));
+    }
+
+    @PostMapping("/{runId}/resume")
+    @Operation(summary = "Resume a failed or partial ingest run; completed months are skipped")
+    public ResponseEntity<IngestStartResponse> resume(@PathVariable String runId) {
+        UUID id = parseRunId(runId);
+        if (id == null || repository.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        admission.admitRun("resume");
+        if (!ingestService.resume(id)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "run is not FAILED or PARTIAL");
+        }
         return ResponseEntity.accepted()
-                .header(HttpHeaders.LOCATION, location.toString())
-                .body(new IngestStartResponse(runId, "queued"));
+                .header(HttpHeaders.LOCATION, "/v1/ingest/" + id)
+                .body(new IngestStartResponse(id, "queued"));
     }
 
     @GetMapping("/{runId}")
     @Operation(summary = "Get ingest run status", responses = @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = IngestStatusResponse.class))))
     public ResponseEntity<IngestStatusResponse> status(@PathVariable String runId) {
-        UUID id;
-        try {
-            String cleaned = runId != null && runId.startsWith("ing_") ? runId.substring(4) : runId;
-            id = UUID.fromString(cleaned);
-        } catch (Exception e) {
+        UUID id = parseRunId(runId);
+        if (id == null) {
             return ResponseEntity.notFound().build();
         }
         Optional<IngestRunEntity> opt = repository.findById(id);
@@ -70,6 +146,7 @@ public class IngestController {
             return ResponseEntity.notFound().build();
         }
         IngestRunEntity run = opt.get();
+        double secs = elapsedSeconds(run);
         return ResponseEntity.ok(
                 new IngestStatusResponse(
                         runId,
@@ -77,8 +154,63 @@ public class IngestController {
                         run.getDatasetId(),
                         run.getVersions() != null ? run.getVersions() : java.util.List.of(),
                         run.getReportUri(),
-                        run.getFilesWritten()
+                        run.getFilesWritten(),
+                        run.getError(),
+                        run.getGamesCount(),
+                        run.getMovesCount(),
+                        run.getPositionsCount(),
+                        rate(run.getGamesCount(), secs),
+                        rate(run.getMovesCount(), secs),
+                        rate(run.getPositionsCount(), secs),
+                        run.getBytesRead(),
+                        rate(run.getBytesRead(), secs)
                 )
         );
     }
+
+    @GetMapping(path = "/{runId}/events", produces = org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream ingest run progress (SSE): status snapshot, status transitions and per-month progress")
+    public SseEmitter events(@PathVariable String runId) {
+        UUID id = parseRunId(runId);
+        if (id == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        try {
+            return eventStream.open(id);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    private static Platform parsePlatform(String platform) {
+        if (platform == null || platform.isBlank()) {
+            return Platform.CHESS_COM;
+        }
+        try {
+            return Platform.valueOf(platform.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unknown platform " + platform);
+        }
+    }
+
+    /** Accepts raw UUIDs and the {@code ing_} prefixed form; null when malformed. */
+    private static UUID parseRunId(String runId) {
+        try {
+            String cleaned = runId != null && runId.startsWith("ing_") ? runId.substring(4) : runId;
+            return UUID.fromString(cleaned);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static double elapsedSeconds(IngestRunEntity run) {
+        if (run.getStartedAt() == null) return 0;
+        Instant end = run.getFinishedAt() != null ? run.getFinishedAt() : Instant.now();
+        return Math.max(0, Duration.between(run.getStartedAt(), end).toMillis() / 1000.0);
+    }
+
+    private static Double rate(Long count, double secs) {
+        if (count == null || secs <= 0) return null;
+        return Math.round(count / secs * 10) / 10.0;
+    }
 }
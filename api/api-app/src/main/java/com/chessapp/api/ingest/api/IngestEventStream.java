@@ -0,0 +1,238 @@
+package com.chessapp.api.ingest.api;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.chessapp.api.data.ingest.IngestRunEntity;
+import com.chessapp.api.data.ingest.IngestRunRepository;
+import com.chessapp.api.ingest.service.IngestEvent;
+import com.chessapp.api.ingest.service.IngestEventBus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * SSE streams of ingest run progress, fed by the {@link IngestEventBus}.
+ * <p>
+ * A stream starts with one status snapshot from the database and then only forwards bus events,
+ * closing after the final status. Idle streams get a keep-alive comment. Only when the run is
+ * not executing on this node (another replica claimed it) and nothing arrived for
+ * {@code chess.ingest.events.resync} is the row re-read, so such clients still see the outcome.
+ * <p>
+ * Bus listeners run on the ingest thread, so they only queue the event in the stream's
+ * {@link Outbox}; a virtual thread writes it to the client. A stalled client thus holds up
+ * neither the run nor the other streams. Each outbox keeps at most
+ * {@code chess.ingest.events.buffer} events: a {@code progress} event replaces one still queued
+ * behind everything else and is dropped when the outbox is full (totals are cumulative, the next
+ * one catches up), while a client too slow to take a {@code status} or {@code month} event is
+ * disconnected and can reconnect for a fresh snapshot.
+ */
+@Component
+public class IngestEventStream {
+
+    private final IngestEventBus bus;
+    private final IngestRunRepository repository;
+    private final Duration timeout;
+    private final Duration keepAlive;
+    private final Duration resync;
+    private final int buffer;
+    private final LongFunction<SseEmitter> emitters;
+    private final Counter dropped;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("ingest-sse").factory());
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ingest-sse-send-", 0).factory());
+
+    @Autowired
+    public IngestEventStream(IngestEventBus bus, IngestRunRepository repository, MeterRegistry meterRegistry,
+                             @Value("${chess.ingest.events.timeout:PT30M}") Duration timeout,
+                             @Value("${chess.ingest.events.keep-alive:PT15S}") Duration keepAlive,
+                             @Value("${chess.ingest.events.resync:PT30S}") Duration resync,
+                             @Value("${chess.ingest.events.buffer:64}") int buffer) {
+        this(bus, repository, meterRegistry, SseEmitter::new, timeout, keepAlive, resync, buffer);
+    }
+
+    IngestEventStream(IngestEventBus bus, IngestRunRepository repository, MeterRegistry meterRegistry,
+                      LongFunction<SseEmitter> emitters, Duration timeout, Duration keepAlive,
+                      Duration resync, int buffer) {
+        this.bus = bus;
+        this.repository = repository;
+        this.emitters = emitters;
+        this.timeout = timeout;
+        this.keepAlive = keepAlive;
+        this.resync = resync;
+        this.buffer = Math.max(2, buffer);
+        this.dropped = Counter.builder("chs_ingest_events_dropped_total")
+                .description("Ingest SSE progress events dropped for clients that fell behind")
+                .register(meterRegistry);
+    }
+
+    /** @throws NoSuchElementException when the run does not exist */
+    public SseEmitter open(UUID runId) {
+        SseEmitter emitter = emitters.apply(timeout.toMillis());
+        Outbox outbox = new Outbox(emitter);
+        AtomicLong lastEvent = new AtomicLong(System.nanoTime());
+        AtomicReference<String> lastStatus = new AtomicReference<>();
+
+        // subscribe before reading the snapshot so no transition falls in between
+        IngestEventBus.Subscription sub = bus.subscribe(runId, e -> {
+            lastEvent.set(System.nanoTime());
+            if (IngestEvent.STATUS.equals(e.type())) {
+                lastStatus.set(e.status());
+            }
+            outbox.offer(e);
+        });
+        Optional<IngestRunEntity> run = repository.findById(runId);
+        if (run.isEmpty()) {
+            sub.close();
+            throw new NoSuchElementException("ingest run " + runId);
+        }
+        IngestEvent snapshot = IngestEvent.snapshot(run.get());
+        if (lastStatus.compareAndSet(null, snapshot.status())) {
+            outbox.offer(snapshot);
+        }
+        if (snapshot.terminal()) {
+            sub.close();
+            return emitter;
+        }
+
+        ScheduledFuture<?> tick = timer.scheduleWithFixedDelay(() -> {
+            long idle = System.nanoTime() - lastEvent.get();
+            if (!bus.isLocal(runId) && idle >= resync.toNanos()) {
+                lastEvent.set(System.nanoTime());
+                repository.findById(runId)
+                        .filter(r -> !r.getStatus().equals(lastStatus.getAndSet(r.getStatus())))
+                        .ifPresent(r -> outbox.offer(IngestEvent.snapshot(r)));
+            } else {
+                outbox.keepAlive();
+            }
+        }, keepAlive.toMillis(), keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+
+        Runnable cleanup = () -> {
+            sub.close();
+            tick.cancel(false);
+        };
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(e -> cleanup.run());
+        return emitter;
+    }
+
+    /**
+     * Events waiting for one client. The bus and the timer only queue; at most one task on
+     * {@link #sender} drains the queue at a time, so events reach the client in order.
+     */
+    private final class Outbox implements Runnable {
+
+        private record Pending(SseEmitter.SseEventBuilder event, boolean progress, boolean terminal) {}
+
+        private final SseEmitter emitter;
+        /** Guarded by {@code this}, as are the flags below. */
+        private final Deque<Pending> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        Outbox(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(IngestEvent event) {
+            boolean progress = IngestEvent.PROGRESS.equals(event.type());
+            enqueue(new Pending(SseEmitter.event().name(event.type()).data(event), progress, event.terminal()));
+        }
+
+        /** Skipped while anything is queued or being written; that traffic keeps the stream alive. */
+        void keepAlive() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+            }
+            enqueue(new Pending(SseEmitter.event().comment("keep-alive"), false, false));
+        }
+
+        private void enqueue(Pending pending) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.progress() && !queue.isEmpty() && queue.peekLast().progress()) {
+                    queue.pollLast();
+                    dropped.increment();
+                } else if (queue.size() >= buffer) {
+                    if (pending.progress()) {
+                        dropped.increment();
+                        return;
+                    }
+                    // too far behind to be told the outcome: let the client reconnect for a snapshot
+                    closed = true;
+                    queue.clear();
+                    sender.execute(() -> emitter.completeWithError(
+                            new IOException("ingest event client fell behind by " + buffer + " events")));
+                    return;
+                }
+                queue.add(pending);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sender.execute(this);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Pending next;
+                synchronized (this) {
+                    next = queue.poll();
+                    if (next == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                    if (next.terminal()) {
+                        closed = true;
+                    }
+                }
+                try {
+                    emitter.send(next.event());
+                    if (next.terminal()) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // client gone or stream already completed
+                    synchronized (this) {
+                        closed = true;
+                        queue.clear();
+                    }
+                    emitter.completeWithError(e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        sender.shutdownNow();
+    }
+}
@@ -1,7 +1,9 @@
 package com.chessapp.api.ingest.api.dto;
 
 /**
- * DTO representing current status of an ingest run.
+ * DTO representing current status of an ingest run. Rates are rows per second over the run's
+ * wall-clock time so far (until {@code finishedAt} once done). {@code bytesRead} counts the
+ * uploaded body or the downloaded months.
  */
 public record IngestStatusResponse(
         String runId,
@@ -9,5 +11,14 @@ public record IngestStatusResponse(
         String datasetId,
         java.util.List<String> versions,
         String reportUri,
-        Long filesWritten
+        Long filesWritten,
+        String error,
+        Long gamesCount,
+        Long movesCount,
+        Long positionsCount,
+        Double gamesPerSecond,
+        Double movesPerSecond,
+        Double positionsPerSecond,
+        Long bytesRead,
+        Double bytesPerSecond
 ) {}
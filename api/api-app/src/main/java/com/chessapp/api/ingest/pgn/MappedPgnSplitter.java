@@ -0,0 +1,170 @@
+package com.chessapp.api.ingest.pgn;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+/**
+ * Splitter for PGN files on local disk that works on the memory-mapped file instead of a byte
+ * stream, so a big file can be split by several threads at once.
+ * <p>
+ * {@link #regions} cuts a byte range into regions of about {@code regionBytes} that each start at
+ * a game: every cut point is moved forward to the next line starting with {@code [Event "}, and
+ * the cut points are searched in parallel. {@link #games} then decodes the games of one region
+ * straight from its mapping, so regions can be parsed by independent workers. Game boundaries are
+ * the same as {@link PgnGameSplitter}'s.
+ */
+public final class MappedPgnSplitter {
+
+    private static final byte[] EVENT = {'[', 'E', 'v', 'e', 'n', 't', ' ', '"'};
+    /** Bytes mapped at a time while searching for the next game after a cut point. */
+    private static final int PROBE_BYTES = 256 * 1024;
+
+    private MappedPgnSplitter() {
+    }
+
+    /** Byte range {@code [start, end)} of a file holding whole games. */
+    public record Region(long start, long end) {
+        public long length() {
+            return end - start;
+        }
+    }
+
+    /**
+     * Cut {@code [from, to)} of {@code file} into regions that start at a game (the first one at
+     * {@code from}). Regions are about {@code regionBytes} long; a game spanning several cut points
+     * yields one longer region.
+     */
+    public static List<Region> regions(FileChannel file, long from, long to, long regionBytes, ForkJoinPool pool) {
+        long step = Math.max(EVENT.length + 1, regionBytes);
+        int cuts = (int) Math.max(0, (to - from - 1) / step);
+        long[] starts;
+        try {
+            starts = pool.submit(() -> LongStream.rangeClosed(1, cuts)
+                            .parallel()
+                            .map(k -> nextGameStart(file, from + k * step, to))
+                            .toArray())
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while splitting", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+        List<Region> regions = new ArrayList<>(cuts + 1);
+        long start = from;
+        for (long cut : starts) {
+            // cut points inside the same long game collapse onto one start
+            if (cut > start) {
+                regions.add(new Region(start, cut));
+                start = cut;
+            }
+        }
+        if (to > start) {
+            regions.add(new Region(start, to));
+        }
+        return regions;
+    }
+
+    /** Decode the games of {@code region} and pass each, stripped, to {@code onGame}. */
+    public static void games(FileChannel file, Region region, Consumer<String> onGame) {
+        if (region.length() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("region too large: " + region);
+        }
+        MappedByteBuffer buf = map(file, region.start(), region.length());
+        int len = (int) region.length();
+        byte[] game = new byte[16 * 1024];
+        int gameStart = 0;
+        for (int i = 1; i <= len - EVENT.length; i++) {
+            if (buf.get(i) == '[' && buf.get(i - 1) == '\n' && startsWithEvent(buf, i)) {
+                game = emit(buf, gameStart, i, game, onGame);
+                gameStart = i;
+            }
+        }
+        emit(buf, gameStart, len, game, onGame);
+    }
+
+    /**
+     * Offset of the first {@code [Event "} at a line start at or after {@code pos}, or {@code to}
+     * when there is none.
+     */
+    static long nextGameStart(FileChannel file, long pos, long to) {
+        long p = pos;
+        while (p < to) {
+            // one byte of overlap so the previous '\n' is visible, EVENT.length so a tag is never cut
+            long base = Math.max(0, p - 1);
+            int n = (int) Math.min(PROBE_BYTES, to - base);
+            MappedByteBuffer buf = map(file, base, n);
+            for (int i = (int) (p - base); i <= n - EVENT.length; i++) {
+                if (buf.get(i) == '[' && (base + i == 0 || buf.get(i - 1) == '\n') && startsWithEvent(buf, i)) {
+                    return base + i;
+                }
+            }
+            if (base + n >= to) break;
+            p = base + n - EVENT.length + 1;
+        }
+        return to;
+    }
+
+    /**
+     * Offset of the last {@code [Event "} at a line start within {@code [from, to)}, or -1 when
+     * there is none, e.g. to leave a game that is still being appended for later. {@code from}
+     * itself counts as a line start.
+     */
+    public static long lastGameStart(FileChannel file, long from, long to) {
+        long end = to;
+        while (end - from >= EVENT.length) {
+            long base = Math.max(from, end - PROBE_BYTES);
+            // one byte before the window so the previous '\n' is visible
+            int lead = base > from ? 1 : 0;
+            int n = (int) (end - base) + lead;
+            MappedByteBuffer buf = map(file, base - lead, n);
+            for (int i = n - EVENT.length; i >= lead; i--) {
+                if (buf.get(i) == '[' && (base - lead + i == from || buf.get(i - 1) == '\n') && startsWithEvent(buf, i)) {
+                    return base - lead + i;
+                }
+            }
+            if (base == from) break;
+            // keep EVENT.length - 1 bytes so a tag across the window edge is seen whole
+            end = base + EVENT.length - 1;
+        }
+        return -1;
+    }
+
+    private static boolean startsWithEvent(MappedByteBuffer buf, int i) {
+        for (int k = 1; k < EVENT.length; k++) {
+            if (buf.get(i + k) != EVENT[k]) return false;
+        }
+        return true;
+    }
+
+    private static byte[] emit(MappedByteBuffer buf, int from, int to, byte[] scratch, Consumer<String> onGame) {
+        int n = to - from;
+        if (n > scratch.length) {
+            scratch = new byte[Math.max(n, scratch.length * 2)];
+        }
+        buf.get(from, scratch, 0, n);
+        String game = new String(scratch, 0, n, StandardCharsets.UTF_8).strip();
+        if (!game.isEmpty()) {
+            onGame.accept(game);
+        }
+        return scratch;
+    }
+
+    private static MappedByteBuffer map(FileChannel file, long position, long size) {
+        try {
+            return file.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.chessapp.api.ingest.pgn;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Push-style splitter that cuts a PGN byte stream into chunks of whole games.
+ * <p>
+ * Bytes are buffered until at least {@code chunkBytes} are available, then cut before the last
+ * line starting with {@code [Event "}; the tail is kept for the next chunk. Unlike
+ * {@link PgnGameSplitter} nothing is decoded here, so chunks can be handed to parallel parsers
+ * as raw bytes. A single game longer than {@code chunkBytes} only grows the buffer. Call
+ * {@link #finish()} after the last update to flush the trailing games.
+ */
+public class PgnChunker {
+
+    private static final byte[] EVENT = {'[', 'E', 'v', 'e', 'n', 't', ' ', '"'};
+
+    private final int chunkBytes;
+    private final Consumer<byte[]> onChunk;
+    private byte[] buf;
+    private int len;
+    private long chunks;
+
+    public PgnChunker(int chunkBytes, Consumer<byte[]> onChunk) {
+        this.chunkBytes = Math.max(EVENT.length + 1, chunkBytes);
+        this.onChunk = onChunk;
+        this.buf = new byte[this.chunkBytes + this.chunkBytes / 4];
+    }
+
+    public void update(byte[] data, int off, int n) {
+        if (len + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + n));
+        }
+        System.arraycopy(data, off, buf, len, n);
+        len += n;
+        if (len >= chunkBytes) {
+            int cut = lastGameStart(buf, 1, len);
+            if (cut > 0) {
+                emit(cut);
+            }
+        }
+    }
+
+    /** Emit whatever is buffered as the last chunk. */
+    public void finish() {
+        if (len > 0) {
+            emit(len);
+        }
+    }
+
+    public long chunks() {
+        return chunks;
+    }
+
+    /**
+     * Offset of the last {@code [Event "} at the start of a line within {@code [from, to)}, or
+     * -1 when there is none. The tag must be complete, i.e. end before {@code to}.
+     */
+    public static int lastGameStart(byte[] b, int from, int to) {
+        for (int i = to - EVENT.length; i >= from; i--) {
+            if (b[i] == '[' && (i == 0 || b[i - 1] == '\n') && startsWithEvent(b, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWithEvent(byte[] b, int i) {
+        for (int k = 1; k < EVENT.length; k++) {
+            if (b[i + k] != EVENT[k]) return false;
+        }
+        return true;
+    }
+
+    private void emit(int upTo) {
+        byte[] chunk = Arrays.copyOf(buf, upTo);
+        System.arraycopy(buf, upTo, buf, 0, len - upTo);
+        len -= upTo;
+        chunks++;
+        onChunk.accept(chunk);
+    }
+}
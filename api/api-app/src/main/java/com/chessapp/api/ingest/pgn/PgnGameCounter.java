@@ -0,0 +1,45 @@
+package com.chessapp.api.ingest.pgn;
+
+/**
+ * Incremental game counter for PGN byte streams.
+ * <p>
+ * Counts occurrences of the tag prefix {@code [Event "} like the array scan in
+ * {@code ChessComDownloader.downloadMonth}, but keeps its match state between calls so a
+ * tag split across two network chunks is still counted exactly once.
+ */
+public class PgnGameCounter {
+
+    private static final byte[] EVENT = {'[', 'E', 'v', 'e', 'n', 't', ' ', '"'};
+
+    private int matched;
+    private int games;
+    private long bytes;
+
+    public void update(byte[] data, int off, int len) {
+        int m = matched;
+        int g = games;
+        for (int i = off, end = off + len; i < end; i++) {
+            byte b = data[i];
+            if (b == EVENT[m]) {
+                if (++m == EVENT.length) {
+                    g++;
+                    m = 0;
+                }
+            } else {
+                // '[' only occurs at the start of the pattern, so no deeper fallback is needed
+                m = b == '[' ? 1 : 0;
+            }
+        }
+        matched = m;
+        games = g;
+        bytes += len;
+    }
+
+    public int games() {
+        return games;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,85 @@
+package com.chessapp.api.ingest.pgn;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Push-style splitter that cuts a PGN byte stream into single games.
+ * <p>
+ * A game starts at a line beginning with {@code [Event "}. Bytes are fed in arbitrary chunks
+ * (network buffers), so the match state survives chunk boundaries; only the current game is
+ * buffered. Call {@link #finish()} after the last chunk to flush the trailing game.
+ */
+public class PgnGameSplitter {
+
+    private static final byte[] EVENT = {'[', 'E', 'v', 'e', 'n', 't', ' ', '"'};
+
+    private final Consumer<String> onGame;
+    private byte[] buf = new byte[16 * 1024];
+    private int len;
+    private int lineStart;
+    private boolean atLineStart = true;
+    private int matched = -1; // -1: current line cannot be an Event tag
+    private long games;
+
+    public PgnGameSplitter(Consumer<String> onGame) {
+        this.onGame = onGame;
+    }
+
+    public void update(byte[] data, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++) {
+            byte b = data[i];
+            append(b);
+            if (atLineStart) {
+                lineStart = this.len - 1;
+                atLineStart = false;
+                matched = 0;
+            }
+            if (b == '\n') {
+                atLineStart = true;
+                matched = -1;
+            } else if (matched >= 0) {
+                if (b == EVENT[matched]) {
+                    if (++matched == EVENT.length) {
+                        matched = -1;
+                        if (lineStart > 0) {
+                            emit(lineStart);
+                        }
+                    }
+                } else {
+                    matched = -1;
+                }
+            }
+        }
+    }
+
+    /** Emit whatever is buffered as the last game. */
+    public void finish() {
+        emit(len);
+        len = 0;
+    }
+
+    public long games() {
+        return games;
+    }
+
+    private void emit(int upTo) {
+        String game = new String(buf, 0, upTo, StandardCharsets.UTF_8).strip();
+        // keep the bytes after the cut (the new game's "[Event \"" prefix)
+        System.arraycopy(buf, upTo, buf, 0, len - upTo);
+        len -= upTo;
+        lineStart = 0;
+        if (!game.isEmpty()) {
+            games++;
+            onGame.accept(game);
+        }
+    }
+
+    private void append(byte b) {
+        if (len == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        buf[len++] = b;
+    }
+}
@@ -0,0 +1,29 @@
+package com.chessapp.api.ingest.pgn;
+
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Content of a dataset version's {@code profile.json}, as read back by
+ * {@code DatasetProfileService}. Percentages are shares between 0 and 1; unique counts and
+ * quantiles are sketch estimates.
+ */
+public record PgnProfile(long games, long bytes, Schema schema, Quality quality, Ratings ratings) {
+
+    public record Schema(List<Column> columns) {}
+
+    /** {@code min}/{@code max} are null for a column without values. */
+    public record Column(String name, String type, double nullPct, double uniquePct,
+                         @Nullable String min, @Nullable String max) {}
+
+    /**
+     * {@code missingPct}: empty cells over all columns; {@code outlierPct}: ratings outside the
+     * 1.5 IQR fences; {@code duplicatePct}: games whose tag section repeats an earlier game's.
+     */
+    public record Quality(double missingPct, double outlierPct, double duplicatePct) {}
+
+    /** White and black ratings together; quantiles are null when there is no rating. */
+    public record Ratings(long count, @Nullable Double p01, @Nullable Double p25, @Nullable Double p50,
+                          @Nullable Double p75, @Nullable Double p99) {}
+}
@@ -0,0 +1,234 @@
+package com.chessapp.api.ingest.pgn;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chessapp.api.common.notation.PgnLexer;
+import com.chessapp.api.ingest.stats.HyperLogLog;
+import com.chessapp.api.ingest.stats.TDigest;
+
+/**
+ * Incremental column statistics for a PGN byte stream, fed chunk by chunk like
+ * {@link PgnGameCounter} so a month is profiled in the same pass that uploads it.
+ * <p>
+ * Only tag lines ({@code [Name "value"]} at a line start) are looked at, read in place by
+ * {@link PgnLexer}; movetext is skipped byte by byte. Every {@code [Event "} starts a game. Per column it tracks empty values, min/max
+ * and a {@link HyperLogLog} of distinct values; ratings also go into a {@link TDigest}. Memory
+ * is fixed (about 16 KiB per column) whatever the month size. Call {@link #finish()} after the
+ * last update.
+ */
+public class PgnStatsCollector {
+
+    /** Tag lines longer than this are truncated; no value we profile comes close. */
+    private static final int MAX_LINE = 512;
+
+    private enum Type { STRING, INT, DATE }
+
+    /** Profiled columns; the first tag present wins, so UTCDate is preferred over Date. */
+    private enum Col {
+        DATE("date", Type.DATE, "UTCDate", "Date"),
+        TIME_CONTROL("timeControl", Type.STRING, "TimeControl"),
+        RESULT("result", Type.STRING, "Result"),
+        WHITE("white", Type.STRING, "White"),
+        BLACK("black", Type.STRING, "Black"),
+        WHITE_RATING("whiteRating", Type.INT, "WhiteElo"),
+        BLACK_RATING("blackRating", Type.INT, "BlackElo"),
+        ECO("eco", Type.STRING, "ECO"),
+        TERMINATION("termination", Type.STRING, "Termination");
+
+        final String column;
+        final Type type;
+        final String[] tags;
+
+        Col(String column, Type type, String... tags) {
+            this.column = column;
+            this.type = type;
+            this.tags = tags;
+        }
+    }
+
+    private static final Col[] COLS = Col.values();
+
+    private final byte[] line = new byte[MAX_LINE];
+    private final PgnLexer lexer = new PgnLexer();
+    private int lineLen;
+    private boolean lineStart = true;
+    private boolean inTag;
+
+    private boolean inGame;
+    private final String[] values = new String[COLS.length];
+    /** Index of the tag that filled {@code values[i]}, lower is preferred. */
+    private final int[] valueRank = new int[COLS.length];
+    private long gameHash = HyperLogLog.seed();
+
+    private long games;
+    private long bytes;
+    private final long[] nonNull = new long[COLS.length];
+    private final HyperLogLog[] distinct = new HyperLogLog[COLS.length];
+    private final String[] minText = new String[COLS.length];
+    private final String[] maxText = new String[COLS.length];
+    private final long[] minInt = new long[COLS.length];
+    private final long[] maxInt = new long[COLS.length];
+    private final HyperLogLog gameIdentities = new HyperLogLog();
+    private final TDigest ratings = new TDigest(100);
+
+    public PgnStatsCollector() {
+        for (int i = 0; i < COLS.length; i++) {
+            distinct[i] = new HyperLogLog();
+            minInt[i] = Long.MAX_VALUE;
+            maxInt[i] = Long.MIN_VALUE;
+            valueRank[i] = Integer.MAX_VALUE;
+        }
+    }
+
+    public void update(byte[] data, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++) {
+            byte b = data[i];
+            if (b == '\n') {
+                if (inTag) tagLine();
+                inTag = false;
+                lineStart = true;
+            } else {
+                if (lineStart) {
+                    inTag = b == '[';
+                    lineLen = 0;
+                    lineStart = false;
+                }
+                if (inTag && lineLen < MAX_LINE) {
+                    line[lineLen++] = b;
+                }
+            }
+        }
+        bytes += len;
+    }
+
+    /** Close the last game; further updates are not expected. */
+    public void finish() {
+        if (inTag) tagLine();
+        inTag = false;
+        endGame();
+    }
+
+    public long games() {
+        return games;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public PgnProfile profile() {
+        List<PgnProfile.Column> columns = new ArrayList<>(COLS.length);
+        long cells = 0;
+        long empty = 0;
+        for (int i = 0; i < COLS.length; i++) {
+            Col c = COLS[i];
+            long nulls = games - nonNull[i];
+            cells += games;
+            empty += nulls;
+            String min = c.type == Type.INT
+                    ? (nonNull[i] > 0 ? Long.toString(minInt[i]) : null)
+                    : minText[i];
+            String max = c.type == Type.INT
+                    ? (nonNull[i] > 0 ? Long.toString(maxInt[i]) : null)
+                    : maxText[i];
+            columns.add(new PgnProfile.Column(c.column, typeName(c.type), share(nulls, games),
+                    share(Math.min(distinct[i].estimate(), nonNull[i]), games), min, max));
+        }
+        long duplicates = Math.max(0, games - Math.min(gameIdentities.estimate(), games));
+        return new PgnProfile(games, bytes, new PgnProfile.Schema(columns),
+                new PgnProfile.Quality(share(empty, cells), outlierShare(), share(duplicates, games)),
+                new PgnProfile.Ratings(ratings.count(), quantile(0.01), quantile(0.25), quantile(0.5),
+                        quantile(0.75), quantile(0.99)));
+    }
+
+    /** Share of ratings outside {@code [Q1 - 1.5 IQR, Q3 + 1.5 IQR]}, read off the digest. */
+    private double outlierShare() {
+        if (ratings.count() == 0) {
+            return 0;
+        }
+        double q1 = ratings.quantile(0.25);
+        double q3 = ratings.quantile(0.75);
+        double iqr = q3 - q1;
+        return ratings.cdf(q1 - 1.5 * iqr) + (1 - ratings.cdf(q3 + 1.5 * iqr));
+    }
+
+    private Double quantile(double q) {
+        return ratings.count() == 0 ? null : Math.rint(ratings.quantile(q) * 10) / 10;
+    }
+
+    private void tagLine() {
+        boolean tag = lexer.reset(line, 0, lineLen).next() == PgnLexer.Token.TAG;
+        if (tag && lexer.is("Event")) {
+            endGame();
+            inGame = true;
+            gameHash = HyperLogLog.seed();
+        }
+        // a game is identified by its whole tag section
+        for (int i = 0; i < lineLen; i++) {
+            gameHash = HyperLogLog.step(gameHash, line[i]);
+        }
+        if (!inGame || !tag) {
+            return;
+        }
+        for (int c = 0; c < COLS.length; c++) {
+            String[] tags = COLS[c].tags;
+            for (int t = 0; t < tags.length; t++) {
+                if (t < valueRank[c] && lexer.is(tags[t])) {
+                    values[c] = lexer.decode(lexer.valueStart(), lexer.valueEnd());
+                    valueRank[c] = t;
+                }
+            }
+        }
+    }
+
+    private void endGame() {
+        if (!inGame) {
+            return;
+        }
+        games++;
+        gameIdentities.add(HyperLogLog.mix(gameHash));
+        for (int c = 0; c < COLS.length; c++) {
+            String v = values[c];
+            values[c] = null;
+            valueRank[c] = Integer.MAX_VALUE;
+            if (isEmpty(v)) {
+                continue;
+            }
+            if (COLS[c].type == Type.INT) {
+                long n;
+                try {
+                    n = Long.parseLong(v);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                minInt[c] = Math.min(minInt[c], n);
+                maxInt[c] = Math.max(maxInt[c], n);
+                ratings.add(n);
+            } else {
+                if (minText[c] == null || v.compareTo(minText[c]) < 0) minText[c] = v;
+                if (maxText[c] == null || v.compareTo(maxText[c]) > 0) maxText[c] = v;
+            }
+            nonNull[c]++;
+            distinct[c].add(HyperLogLog.hash(v));
+        }
+        inGame = false;
+    }
+
+    /** PGN's placeholders for unknown values: {@code ?}, {@code -}, {@code ????.??.??}. */
+    private static boolean isEmpty(String v) {
+        return v == null || v.isEmpty() || v.equals("-") || v.charAt(0) == '?';
+    }
+
+    private static String typeName(Type type) {
+        return switch (type) {
+            case STRING -> "string";
+            case INT -> "int";
+            case DATE -> "date";
+        };
+    }
+
+    private static double share(long part, long whole) {
+        return whole == 0 ? 0.0 : (double) part / whole;
+    }
+}
@@ -0,0 +1,62 @@
+package com.chessapp.api.ingest.pgn;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Passes everything to {@code out} and adds up the time spent inside it, e.g. to tell the S3
+ * upload and the parse stage of a teed body apart. Not thread-safe.
+ */
+public class TimedOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private long nanos;
+
+    public TimedOutputStream(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        long t0 = System.nanoTime();
+        try {
+            out.write(b);
+        } finally {
+            nanos += System.nanoTime() - t0;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        long t0 = System.nanoTime();
+        try {
+            out.write(b, off, len);
+        } finally {
+            nanos += System.nanoTime() - t0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        long t0 = System.nanoTime();
+        try {
+            out.flush();
+        } finally {
+            nanos += System.nanoTime() - t0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long t0 = System.nanoTime();
+        try {
+            out.close();
+        } finally {
+            nanos += System.nanoTime() - t0;
+        }
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+}
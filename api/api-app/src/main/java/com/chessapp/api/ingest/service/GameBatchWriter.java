@@ -0,0 +1,86 @@
+package com.chessapp.api.ingest.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.chessapp.api.domain.bulk.ExplorerMove;
+import com.chessapp.api.domain.bulk.GameBulkLoader;
+import com.chessapp.api.domain.entity.Game;
+import com.chessapp.api.domain.entity.Move;
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.domain.entity.Position;
+import com.chessapp.api.domain.entity.User;
+import com.chessapp.api.domain.repo.UserRepository;
+import com.chessapp.api.service.pgn.ParsedGame;
+import com.chessapp.api.service.pgn.PgnGameMapper;
+
+/**
+ * Writes parsed games with their moves and positions, one transaction per batch, through the
+ * COPY-based {@link GameBulkLoader}. Games already stored for the platform are skipped. The
+ * first {@code chess.explorer.max-ply} moves of each game also go to the opening explorer.
+ * Games are stored in the compact move format; the PGN text is only kept with
+ * {@code chess.ingest.storage.keep-pgn}.
+ */
+@Service
+public class GameBatchWriter {
+
+    private final GameBulkLoader bulkLoader;
+    private final UserRepository userRepository;
+    private final int explorerMaxPly;
+    private final boolean keepPgn;
+
+    public GameBatchWriter(GameBulkLoader bulkLoader, UserRepository userRepository,
+                           @Value("${chess.explorer.max-ply:30}") int explorerMaxPly,
+                           @Value("${chess.ingest.storage.keep-pgn:false}") boolean keepPgn) {
+        this.bulkLoader = bulkLoader;
+        this.userRepository = userRepository;
+        this.explorerMaxPly = Math.max(0, explorerMaxPly);
+        this.keepPgn = keepPgn;
+    }
+
+    /** Id of the {@code users} row for a chess username, created on first ingest. */
+    public UUID resolveUser(String chessUsername) {
+        return userRepository.findByChessUsername(chessUsername)
+                .map(User::getId)
+                .orElseGet(() -> {
+                    User user = new User();
+                    user.setId(UUID.randomUUID());
+                    user.setChessUsername(chessUsername);
+                    try {
+                        return userRepository.saveAndFlush(user).getId();
+                    } catch (DataIntegrityViolationException e) {
+                        // concurrent run created it first
+                        return userRepository.findByChessUsername(chessUsername).orElseThrow().getId();
+                    }
+                });
+    }
+
+    @Transactional
+    public BatchResult write(UUID userId, String username, Platform platform, List<ParsedGame> batch) {
+        List<Game> games = new ArrayList<>(batch.size());
+        List<Move> moves = new ArrayList<>();
+        List<Position> positions = new ArrayList<>();
+        List<ExplorerMove> explorerMoves = new ArrayList<>();
+        for (ParsedGame parsed : batch) {
+            Game game = PgnGameMapper.toGame(parsed, userId, username, platform, keepPgn);
+            games.add(game);
+            for (var m : parsed.moves()) {
+                moves.add(PgnGameMapper.toMove(m, game.getId()));
+            }
+            for (var p : parsed.positions()) {
+                positions.add(PgnGameMapper.toPosition(p, game.getId()));
+            }
+            explorerMoves.addAll(PgnGameMapper.toExplorerMoves(parsed, game.getId(), explorerMaxPly));
+        }
+        var r = bulkLoader.load(games, moves, positions, explorerMoves);
+        return new BatchResult(r.games(), batch.size() - r.games(), r.moves(), r.positions());
+    }
+
+    public record BatchResult(int games, int duplicates, long moves, long positions) {}
+}
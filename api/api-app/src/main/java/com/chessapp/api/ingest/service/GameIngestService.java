@@ -0,0 +1,148 @@
+package com.chessapp.api.ingest.service;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.ingest.pgn.PgnGameSplitter;
+import com.chessapp.api.service.pgn.ParsedGame;
+import com.chessapp.api.service.pgn.PgnGameParser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Parse stage of an ingest run: PGN bytes in, {@code games}/{@code moves}/{@code positions} rows out.
+ * <p>
+ * {@link #open} returns an {@link OutputStream} that can be teed with the raw upload, so a month is
+ * split, replayed and written while it is still downloading. Rows are written every
+ * {@code chess.ingest.parse.batch-size} games; a game that fails to replay is skipped and counted.
+ */
+@Service
+public class GameIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameIngestService.class);
+
+    private final PgnGameParser parser;
+    private final GameBatchWriter writer;
+    private final int batchSize;
+    private final Counter gamesCounter;
+    private final Counter movesCounter;
+    private final Counter positionsCounter;
+    private final Counter parseErrors;
+
+    public GameIngestService(PgnGameParser parser,
+                             GameBatchWriter writer,
+                             MeterRegistry meterRegistry,
+                             @Value("${chess.ingest.parse.batch-size:500}") int batchSize) {
+        this.parser = parser;
+        this.writer = writer;
+        this.batchSize = Math.max(1, batchSize);
+        this.gamesCounter = meterRegistry.counter("chs_ingest_games_written_total");
+        this.movesCounter = meterRegistry.counter("chs_ingest_moves_total");
+        this.positionsCounter = meterRegistry.counter("chs_ingest_positions_total");
+        this.parseErrors = meterRegistry.counter("chs_ingest_parse_errors_total");
+    }
+
+    /** Open a parse session for games of {@code username} on {@code platform}. */
+    public Session open(String username, Platform platform) {
+        return new Session(writer.resolveUser(username), username, platform);
+    }
+
+    /** Not thread-safe: one session per stream. */
+    public class Session extends OutputStream {
+
+        private final UUID userId;
+        private final String username;
+        private final Platform platform;
+        private final PgnGameSplitter splitter = new PgnGameSplitter(this::onGame);
+        private final List<ParsedGame> pending = new ArrayList<>();
+        private final long startedNanos = System.nanoTime();
+        private long games;
+        private long moves;
+        private long positions;
+        private long duplicates;
+        private long skipped;
+        private long writeNanos;
+        private boolean closed;
+
+        Session(UUID userId, String username, Platform platform) {
+            this.userId = userId;
+            this.username = username;
+            this.platform = platform;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            splitter.update(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            splitter.finish();
+            flushBatch();
+            double secs = Math.max(1e-3, (System.nanoTime() - startedNanos) / 1e9);
+            log.info("parse done games={} moves={} positions={} duplicates={} skipped={} games_per_s={} moves_per_s={} positions_per_s={}",
+                    games, moves, positions, duplicates, skipped,
+                    Math.round(games / secs), Math.round(moves / secs), Math.round(positions / secs));
+        }
+
+        public Stats stats() {
+            return new Stats(games, moves, positions, duplicates, skipped);
+        }
+
+        /** Time spent in row writes so far, as opposed to splitting and replaying. */
+        public long writeNanos() {
+            return writeNanos;
+        }
+
+        private void onGame(String pgn) {
+            try {
+                pending.add(parser.parse(pgn));
+            } catch (RuntimeException e) {
+                // PgnParseException or a chesslib error on a malformed FEN/move
+                skipped++;
+                parseErrors.increment();
+                log.debug("parse skipped game error={}", e.toString());
+                return;
+            }
+            if (pending.size() >= batchSize) {
+                flushBatch();
+            }
+        }
+
+        private void flushBatch() {
+            if (pending.isEmpty()) return;
+            long t0 = System.nanoTime();
+            var r = writer.write(userId, username, platform, pending);
+            writeNanos += System.nanoTime() - t0;
+            pending.clear();
+            games += r.games();
+            moves += r.moves();
+            positions += r.positions();
+            duplicates += r.duplicates();
+            gamesCounter.increment(r.games());
+            movesCounter.increment(r.moves());
+            positionsCounter.increment(r.positions());
+        }
+    }
+
+    /** Rows written by one session; duplicates/skipped were not written. */
+    public record Stats(long games, long moves, long positions, long duplicates, long skipped) {
+        public static final Stats EMPTY = new Stats(0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,216 @@
+package com.chessapp.api.ingest.service;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.chessapp.api.data.ingest.IngestJobRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admission control for the ingest start endpoints, checked before anything of a run is created.
+ * <p>
+ * Queued runs ({@code /v1/ingest/chesscom}, bulk, Lichess dumps) are admitted while fewer than
+ * {@code max-queued} jobs wait in {@code ingest_jobs}. The depth is read from the database at most
+ * every {@code depth-refresh} and counted up locally for runs admitted in between, so a burst
+ * cannot overshoot the limit by more than what other replicas admit in the same window. Uploads
+ * parse on the request thread and are capped at {@code max-uploads} per replica instead.
+ * <p>
+ * A rejection carries a {@code Retry-After}: for the queue, the jobs above the limit divided by
+ * the drain rate seen by this replica's workers; for uploads, the mean upload duration. Both are
+ * clamped to {@code [min-retry-after, max-retry-after]}, and {@code default-retry-after} is used
+ * until there is something to measure.
+ */
+@Component
+public class IngestAdmission {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestAdmission.class);
+    /** Completions remembered for the drain rate. */
+    private static final int DRAIN_WINDOW = 32;
+    /** Weight of the newest upload in the mean upload duration. */
+    private static final double UPLOAD_ALPHA = 0.2;
+
+    private final IngestJobRepository jobs;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final long maxQueued;
+    private final int maxUploads;
+    private final long depthRefreshNanos;
+    private final Duration minRetryAfter;
+    private final Duration maxRetryAfter;
+    private final Duration defaultRetryAfter;
+    private final Semaphore uploads;
+
+    private final AtomicLong depth = new AtomicLong();
+    private volatile long depthReadAt;
+    private boolean depthRead;
+    /** Ring of completion times (nanos); guarded by {@code this}. */
+    private final long[] completions = new long[DRAIN_WINDOW];
+    private int completionCount;
+    private int completionNext;
+    private volatile double uploadSeconds = -1;
+
+    @Autowired
+    public IngestAdmission(IngestJobRepository jobs, MeterRegistry meterRegistry,
+                           @Value("${chess.ingest.admission.max-queued:200}") long maxQueued,
+                           @Value("${chess.ingest.admission.max-uploads:4}") int maxUploads,
+                           @Value("${chess.ingest.admission.depth-refresh:PT1S}") Duration depthRefresh,
+                           @Value("${chess.ingest.admission.min-retry-after:PT5S}") Duration minRetryAfter,
+                           @Value("${chess.ingest.admission.max-retry-after:PT10M}") Duration maxRetryAfter,
+                           @Value("${chess.ingest.admission.default-retry-after:PT30S}") Duration defaultRetryAfter) {
+        this(jobs, meterRegistry, System::nanoTime, maxQueued, maxUploads, depthRefresh,
+                minRetryAfter, maxRetryAfter, defaultRetryAfter);
+    }
+
+    IngestAdmission(IngestJobRepository jobs, MeterRegistry meterRegistry, LongSupplier clock,
+                    long maxQueued, int maxUploads, Duration depthRefresh,
+                    Duration minRetryAfter, Duration maxRetryAfter, Duration defaultRetryAfter) {
+        this.jobs = jobs;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.maxQueued = Math.max(1, maxQueued);
+        this.maxUploads = Math.max(1, maxUploads);
+        this.depthRefreshNanos = depthRefresh.toNanos();
+        this.minRetryAfter = minRetryAfter;
+        this.maxRetryAfter = maxRetryAfter;
+        this.defaultRetryAfter = defaultRetryAfter;
+        this.uploads = new Semaphore(this.maxUploads);
+        Gauge.builder("chs_ingest_queue_depth", this, IngestAdmission::queueDepth)
+                .description("Ingest jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("chs_ingest_uploads_in_flight", uploads, s -> this.maxUploads - s.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admit one queued run.
+     *
+     * @param endpoint tag of {@code chs_ingest_rejected_total}, e.g. {@code chesscom}
+     * @throws IngestSaturatedException when {@code max-queued} jobs are already waiting
+     */
+    public void admitRun(String endpoint) {
+        long waiting;
+        synchronized (this) {
+            waiting = refreshedDepth();
+            if (waiting < maxQueued) {
+                // counts until the next refresh reads the job row itself
+                depth.incrementAndGet();
+                return;
+            }
+        }
+        Duration retryAfter = drainRetryAfter(waiting - maxQueued + 1);
+        reject(endpoint, "queue_full");
+        log.warn("ingest run rejected endpoint={} queued={} max_queued={} retry_after_s={}",
+                endpoint, waiting, maxQueued, retryAfter.toSeconds());
+        throw new IngestSaturatedException("ingest queue full (" + waiting + " runs waiting)", retryAfter);
+    }
+
+    /**
+     * Admit one upload; close the returned permit when the upload finished.
+     *
+     * @throws IngestSaturatedException when {@code max-uploads} uploads are already parsing
+     */
+    public UploadPermit admitUpload() {
+        if (!uploads.tryAcquire()) {
+            double mean = uploadSeconds;
+            Duration retryAfter = clamp(mean < 0 ? defaultRetryAfter : Duration.ofMillis((long) (mean * 1000)));
+            reject("upload", "uploads_busy");
+            log.warn("ingest upload rejected in_flight={} retry_after_s={}", maxUploads, retryAfter.toSeconds());
+            throw new IngestSaturatedException("too many uploads in progress (" + maxUploads + ")", retryAfter);
+        }
+        return new UploadPermit(clock.getAsLong());
+    }
+
+    /** A job left the queue on this replica; feeds the drain rate. */
+    public void jobCompleted() {
+        long now = clock.getAsLong();
+        synchronized (this) {
+            completions[completionNext] = now;
+            completionNext = (completionNext + 1) % DRAIN_WINDOW;
+            completionCount = Math.min(DRAIN_WINDOW, completionCount + 1);
+        }
+    }
+
+    /** Jobs waiting for a worker, as of the last refresh. */
+    public long queueDepth() {
+        synchronized (this) {
+            try {
+                return refreshedDepth();
+            } catch (RuntimeException e) {
+                // scrape must not fail on a DB hiccup; keep the last value
+                return depth.get();
+            }
+        }
+    }
+
+    /** Runs per second drained by this replica over the last completions, or 0 when unknown. */
+    synchronized double drainRate() {
+        if (completionCount < 2) {
+            return 0;
+        }
+        long newest = completions[(completionNext - 1 + DRAIN_WINDOW) % DRAIN_WINDOW];
+        long oldest = completions[(completionNext - completionCount + DRAIN_WINDOW) % DRAIN_WINDOW];
+        // an idle gap until now also counts, so a stalled queue does not keep an old, fast rate
+        long span = Math.max(newest - oldest, clock.getAsLong() - oldest);
+        return span <= 0 ? 0 : (completionCount - 1) * 1e9 / span;
+    }
+
+    Duration drainRetryAfter(long excess) {
+        double rate = drainRate();
+        if (rate <= 0) {
+            return clamp(defaultRetryAfter);
+        }
+        return clamp(Duration.ofMillis((long) Math.ceil(excess / rate * 1000)));
+    }
+
+    private long refreshedDepth() {
+        long now = clock.getAsLong();
+        if (!depthRead || now - depthReadAt >= depthRefreshNanos) {
+            depth.set(jobs.countQueued());
+            depthReadAt = now;
+            depthRead = true;
+        }
+        return depth.get();
+    }
+
+    private Duration clamp(Duration d) {
+        Duration c = d.compareTo(minRetryAfter) < 0 ? minRetryAfter : d;
+        return c.compareTo(maxRetryAfter) > 0 ? maxRetryAfter : c;
+    }
+
+    private void reject(String endpoint, String reason) {
+        meterRegistry.counter("chs_ingest_rejected_total", "endpoint", endpoint, "reason", reason).increment();
+    }
+
+    /** Slot of one running upload. */
+    public final class UploadPermit implements AutoCloseable {
+
+        private final long startedAt;
+        private boolean closed;
+
+        private UploadPermit(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            double secs = (clock.getAsLong() - startedAt) / 1e9;
+            double mean = uploadSeconds;
+            uploadSeconds = mean < 0 ? secs : mean + UPLOAD_ALPHA * (secs - mean);
+            uploads.release();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.chessapp.api.ingest.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.chessapp.api.chesscom.service.ChessComIngestService;
+import com.chessapp.api.data.ingest.IngestRunEntity;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Progress of an ingest run as pushed to {@code GET /v1/ingest/{runId}/events}.
+ * <p>
+ * {@code type} is {@code status} for state transitions (and the initial snapshot, which also
+ * carries the run totals), {@code month} for a finished month of chess.com player {@code user},
+ * where the counts are that month's, or {@code progress} for the running totals of an upload.
+ * Fields that do not apply are omitted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IngestEvent(String type, UUID runId, String status, String user, String month, Long bytes,
+                          Integer games, Long gamesWritten, Long moves, Long positions,
+                          Long filesWritten, Boolean skipped, String error, String reportUri, Instant at) {
+
+    public static final String STATUS = "status";
+    public static final String MONTH = "month";
+    public static final String PROGRESS = "progress";
+
+    public static IngestEvent status(UUID runId, String status, String error, String reportUri) {
+        return new IngestEvent(STATUS, runId, status, null, null, null, null, null, null, null, null, null,
+                error, reportUri, Instant.now());
+    }
+
+    public static IngestEvent snapshot(IngestRunEntity run) {
+        return new IngestEvent(STATUS, run.getRunId(), run.getStatus(), null, null, run.getBytesRead(), null,
+                run.getGamesCount(), run.getMovesCount(), run.getPositionsCount(), run.getFilesWritten(), null,
+                run.getError(), run.getReportUri(), Instant.now());
+    }
+
+    public static IngestEvent month(UUID runId, ChessComIngestService.MonthResult r) {
+        return new IngestEvent(MONTH, runId, null, r.user(), r.month().toString(), r.bytes(), r.games(),
+                r.parsed().games(), r.parsed().moves(), r.parsed().positions(), null, r.skipped(),
+                r.error(), null, Instant.now());
+    }
+
+    public static IngestEvent progress(UUID runId, long bytes, GameIngestService.Stats parsed) {
+        return new IngestEvent(PROGRESS, runId, null, null, null, bytes, null, parsed.games(), parsed.moves(),
+                parsed.positions(), null, null, null, null, Instant.now());
+    }
+
+    public boolean terminal() {
+        return STATUS.equals(type) && isTerminal(status);
+    }
+
+    static boolean isTerminal(String status) {
+        return "SUCCEEDED".equals(status) || "FAILED".equals(status) || "PARTIAL".equals(status);
+    }
+}
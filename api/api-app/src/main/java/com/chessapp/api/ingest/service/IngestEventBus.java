@@ -0,0 +1,79 @@
+package com.chessapp.api.ingest.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-process fan-out of {@link IngestEvent}s to subscribers of a run.
+ * <p>
+ * Listeners are called on the publishing thread and must not block for long; a throwing
+ * listener is logged and skipped, publishing never fails. The bus also tracks which runs are
+ * executing on this node, because events of runs claimed by another replica never reach it.
+ */
+@Component
+public class IngestEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestEventBus.class);
+
+    private final Map<UUID, Set<Consumer<IngestEvent>>> listeners = new ConcurrentHashMap<>();
+    private final Set<UUID> local = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers;
+
+    public IngestEventBus(MeterRegistry meterRegistry) {
+        this.subscribers = meterRegistry.gauge("chs_ingest_event_subscribers", new AtomicInteger());
+    }
+
+    /** @return handle that removes the listener; closing it twice is harmless */
+    public Subscription subscribe(UUID runId, Consumer<IngestEvent> listener) {
+        listeners.computeIfAbsent(runId, k -> ConcurrentHashMap.newKeySet()).add(listener);
+        subscribers.incrementAndGet();
+        return () -> listeners.computeIfPresent(runId, (k, set) -> {
+            if (set.remove(listener)) {
+                subscribers.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public void publish(IngestEvent event) {
+        if (IngestEvent.STATUS.equals(event.type())) {
+            if ("RUNNING".equals(event.status())) {
+                local.add(event.runId());
+            } else if (event.terminal()) {
+                local.remove(event.runId());
+            }
+        }
+        Set<Consumer<IngestEvent>> set = listeners.get(event.runId());
+        if (set == null) {
+            return;
+        }
+        for (Consumer<IngestEvent> listener : set) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.debug("ingest event listener failed run_id={}: {}", event.runId(), e.toString());
+            }
+        }
+    }
+
+    /** Whether the run is currently executing on this node, i.e. its events are published here. */
+    public boolean isLocal(UUID runId) {
+        return local.contains(runId);
+    }
+
+    @FunctionalInterface
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
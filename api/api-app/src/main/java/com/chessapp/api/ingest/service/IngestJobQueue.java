@@ -0,0 +1,53 @@
+package com.chessapp.api.ingest.service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.chessapp.api.data.ingest.IngestJobRepository;
+
+/**
+ * Entry point for queuing ingest runs. The job row is the source of truth; the local signal only
+ * lets a worker on this node pick the run up without waiting for its next poll. Workers on
+ * other nodes find it by polling. Inside a transaction the signal waits for the commit, so a
+ * woken worker can already see the job.
+ */
+@Component
+public class IngestJobQueue {
+
+    private final IngestJobRepository jobs;
+    private final Semaphore signal = new Semaphore(0);
+
+    public IngestJobQueue(IngestJobRepository jobs) {
+        this.jobs = jobs;
+    }
+
+    public void enqueue(UUID runId) {
+        jobs.enqueue(runId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    signal.release();
+                }
+            });
+        } else {
+            signal.release();
+        }
+    }
+
+    /** Block until something was enqueued on this node or {@code timeout} passed; one enqueue wakes one worker. */
+    void awaitWork(Duration timeout) throws InterruptedException {
+        signal.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Wake waiting workers, e.g. on shutdown. */
+    void wakeAll(int workers) {
+        signal.release(workers);
+    }
+}
@@ -0,0 +1,197 @@
+package com.chessapp.api.ingest.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.chessapp.api.data.ingest.IngestJobRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs queued ingest jobs on this node.
+ * <p>
+ * {@code chess.ingest.queue.workers} threads claim jobs from {@code ingest_jobs} and execute them
+ * one at a time, so each API replica adds that many concurrent runs. A heartbeat thread extends
+ * the leases of held jobs and drops jobs that expired on their last allowed attempt, failing
+ * their runs. Jobs of a crashed node are re-claimed once their lease expires; months finished
+ * before the crash are skipped via their checkpoints.
+ */
+@Component
+public class IngestJobWorker implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestJobWorker.class);
+
+    private final IngestJobRepository jobs;
+    private final IngestJobQueue queue;
+    private final IngestService ingestService;
+    private final IngestAdmission admission;
+    private final int workers;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Duration heartbeatInterval;
+    private final int maxAttempts;
+    private final boolean virtualThreads;
+    private final String workerId;
+    private final Set<UUID> held = ConcurrentHashMap.newKeySet();
+    private final Counter claimed;
+    private final Counter reclaimed;
+    private final Counter abandoned;
+
+    private volatile boolean running;
+    private final List<Thread> threads = new ArrayList<>();
+    private ScheduledExecutorService heartbeat;
+
+    public IngestJobWorker(IngestJobRepository jobs, IngestJobQueue queue, IngestService ingestService,
+                           IngestAdmission admission,
+                           @Value("${chess.ingest.queue.workers:2}") int workers,
+                           @Value("${chess.ingest.queue.poll-interval:PT2S}") Duration pollInterval,
+                           @Value("${chess.ingest.queue.lease:PT60S}") Duration lease,
+                           @Value("${chess.ingest.queue.heartbeat:PT15S}") Duration heartbeatInterval,
+                           @Value("${chess.ingest.queue.max-attempts:3}") int maxAttempts,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           MeterRegistry meterRegistry) {
+        this.jobs = jobs;
+        this.queue = queue;
+        this.ingestService = ingestService;
+        this.admission = admission;
+        this.workers = Math.max(0, workers);
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.heartbeatInterval = heartbeatInterval;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.virtualThreads = virtualThreads;
+        this.workerId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+        this.claimed = meterRegistry.counter("chs_ingest_jobs_claimed_total");
+        this.reclaimed = meterRegistry.counter("chs_ingest_jobs_reclaimed_total");
+        this.abandoned = meterRegistry.counter("chs_ingest_jobs_abandoned_total");
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running || workers == 0) {
+            return;
+        }
+        running = true;
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("ingest-worker-", 0)
+                : Thread.ofPlatform().daemon().name("ingest-worker-", 0);
+        for (int i = 0; i < workers; i++) {
+            threads.add(builder.start(this::loop));
+        }
+        heartbeat = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("ingest-heartbeat").factory());
+        heartbeat.scheduleWithFixedDelay(this::beat, heartbeatInterval.toMillis(),
+                heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("ingest workers started worker_id={} workers={} lease={} heartbeat={}",
+                workerId, workers, lease, heartbeatInterval);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        queue.wakeAll(workers);
+        // in-flight runs are not interrupted; if the JVM exits first their leases expire and
+        // another node re-claims them
+        for (Thread t : threads) {
+            try {
+                t.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+        heartbeat.shutdownNow();
+        log.info("ingest workers stopped worker_id={} held={}", workerId, held.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                var claim = jobs.claim(workerId, lease, maxAttempts);
+                if (claim.isEmpty()) {
+                    queue.awaitWork(pollInterval);
+                    continue;
+                }
+                run(claim.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // DB unavailable etc.: back off, the job (if any) stays leased and expires
+                log.warn("ingest worker error worker_id={}: {}", workerId, e.getMessage());
+                sleepQuietly(pollInterval);
+            }
+        }
+    }
+
+    private void run(IngestJobRepository.Claim claim) {
+        UUID runId = claim.runId();
+        held.add(runId);
+        claimed.increment();
+        if (claim.attempts() > 1) {
+            reclaimed.increment();
+            MDC.put("run_id", runId.toString());
+            log.warn("ingest job reclaimed after expired lease attempt={} worker_id={}", claim.attempts(), workerId);
+            MDC.remove("run_id");
+        }
+        try {
+            ingestService.execute(runId);
+        } finally {
+            held.remove(runId);
+            admission.jobCompleted();
+            if (!jobs.complete(runId, workerId)) {
+                log.warn("ingest job {} lease lost before completion worker_id={}", runId, workerId);
+            }
+        }
+    }
+
+    private void beat() {
+        try {
+            if (!held.isEmpty()) {
+                int extended = jobs.heartbeat(workerId, Set.copyOf(held), lease);
+                if (extended < held.size()) {
+                    log.warn("ingest heartbeat extended {} of {} leases worker_id={}", extended, held.size(), workerId);
+                }
+            }
+            for (UUID runId : jobs.removeExhausted(maxAttempts)) {
+                abandoned.increment();
+                ingestService.abandon(runId, "lease expired after " + maxAttempts + " attempts");
+            }
+        } catch (Exception e) {
+            log.warn("ingest heartbeat failed worker_id={}: {}", workerId, e.getMessage());
+        }
+    }
+
+    private static void sleepQuietly(Duration d) {
+        try {
+            Thread.sleep(d.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.chessapp.api.ingest.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Content of {@code s3://reports/ingest/<runId>/report.json}: per-unit stage durations, bytes,
+ * games and throughput, the run totals and the critical path. Seconds are wall-clock and
+ * rounded to milliseconds; stage totals add up the units, so with months in flight
+ * concurrently they can exceed the run's wall time.
+ */
+public record IngestReport(UUID runId, String kind, String status, Instant startedAt, Instant finishedAt,
+                           double wallSeconds, Totals totals, List<UnitReport> units,
+                           @Nullable CriticalPath criticalPath) {
+
+    /** Gap below which one unit counts as waiting for another. */
+    private static final long SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final IngestStage[] FETCH = {
+            IngestStage.DOWNLOAD, IngestStage.PARSE, IngestStage.S3_WRITE, IngestStage.DB_LOAD};
+
+    /**
+     * One unit as handed in by the ingest services; {@code timings} is null for units that were
+     * skipped or failed before they were measured.
+     */
+    public record Unit(String name, long bytes, long games, long gamesWritten, boolean skipped,
+                       @Nullable String error, @Nullable StageTimings timings) {}
+
+    public record Totals(long bytes, long games, long gamesWritten, double bytesPerSecond, double gamesPerSecond,
+                         Map<String, Double> stageSeconds) {}
+
+    /** {@code seconds} and {@code stages} are null without timings. */
+    public record UnitReport(String name, long bytes, long games, long gamesWritten, boolean skipped,
+                             @Nullable String error, @Nullable Double seconds, @Nullable Double gamesPerSecond,
+                             @Nullable Map<String, Double> stages) {}
+
+    /**
+     * The chain of stages the run's end waited on, walking back from the unit done last: a
+     * catalog step that started late waited for the previous unit's catalog step, a fetch that
+     * started late waited for an earlier fetch to free its slot. {@code bottleneck} is the stage
+     * with most time on the path.
+     */
+    public record CriticalPath(double seconds, double wallShare, String bottleneck, Map<String, Double> stages,
+                               List<String> units) {}
+
+    public static IngestReport of(UUID runId, String kind, String status, Instant startedAt, Instant finishedAt,
+                                  List<Unit> units) {
+        double wall = Math.max(1e-3, Duration.between(startedAt, finishedAt).toNanos() / 1e9);
+        long bytes = 0;
+        long games = 0;
+        long written = 0;
+        long[] stageNanos = new long[IngestStage.values().length];
+        List<UnitReport> reports = new ArrayList<>(units.size());
+        for (Unit u : units) {
+            bytes += u.bytes();
+            games += u.games();
+            written += u.gamesWritten();
+            StageTimings t = u.timings();
+            if (t == null || !t.isDone()) {
+                reports.add(new UnitReport(u.name(), u.bytes(), u.games(), u.gamesWritten(), u.skipped(), u.error(),
+                        null, null, null));
+                continue;
+            }
+            for (IngestStage s : IngestStage.values()) {
+                stageNanos[s.ordinal()] += t.nanos(s);
+            }
+            double secs = Math.max(1e-3, (t.doneNanos() - t.startNanos()) / 1e9);
+            reports.add(new UnitReport(u.name(), u.bytes(), u.games(), u.gamesWritten(), u.skipped(), u.error(),
+                    round(secs), round(u.games() / secs), stages(t)));
+        }
+        Map<String, Double> totalStages = new LinkedHashMap<>();
+        for (IngestStage s : IngestStage.values()) {
+            totalStages.put(s.tag(), round(stageNanos[s.ordinal()] / 1e9));
+        }
+        return new IngestReport(runId, kind, status, startedAt, finishedAt, round(wall),
+                new Totals(bytes, games, written, round(bytes / wall), round(games / wall), totalStages),
+                reports, criticalPath(units, wall));
+    }
+
+    @Nullable
+    static CriticalPath criticalPath(List<Unit> units, double wallSeconds) {
+        List<Unit> timed = units.stream()
+                .filter(u -> u.timings() != null && u.timings().isDone())
+                .toList();
+        if (timed.isEmpty()) {
+            return null;
+        }
+        long runStart = timed.stream().mapToLong(u -> u.timings().startNanos()).min().orElseThrow();
+        long[] onPath = new long[IngestStage.values().length];
+        List<String> names = new ArrayList<>();
+        Set<Unit> visited = new HashSet<>();
+
+        Unit cursor = timed.stream().max(Comparator.comparingLong(u -> u.timings().doneNanos())).orElseThrow();
+        boolean atCatalog = true;
+        while (cursor != null && visited.add(cursor)) {
+            StageTimings t = cursor.timings();
+            names.add(cursor.name());
+            if (atCatalog) {
+                onPath[IngestStage.CATALOG.ordinal()] += t.nanos(IngestStage.CATALOG);
+                // waited for the catalog step of the unit before?
+                Unit before = t.commitNanos() - t.readyNanos() > SLACK_NANOS
+                        ? latest(timed, cursor, t.commitNanos(), StageTimings::doneNanos)
+                        : null;
+                if (before != null) {
+                    cursor = before;
+                    continue;
+                }
+            }
+            for (IngestStage s : FETCH) {
+                onPath[s.ordinal()] += t.nanos(s);
+            }
+            if (t.startNanos() - runStart <= SLACK_NANOS) {
+                break;
+            }
+            // started when an earlier fetch freed its slot
+            cursor = latest(timed, cursor, t.startNanos(), StageTimings::readyNanos);
+            atCatalog = false;
+        }
+        Collections.reverse(names);
+
+        Map<String, Double> stages = new LinkedHashMap<>();
+        long total = 0;
+        IngestStage bottleneck = IngestStage.DOWNLOAD;
+        for (IngestStage s : IngestStage.values()) {
+            long n = onPath[s.ordinal()];
+            stages.put(s.tag(), round(n / 1e9));
+            total += n;
+            if (n > onPath[bottleneck.ordinal()]) bottleneck = s;
+        }
+        double seconds = total / 1e9;
+        return new CriticalPath(round(seconds), round(Math.min(1, seconds / wallSeconds)), bottleneck.tag(),
+                stages, names);
+    }
+
+    /** The other unit whose {@code at} is latest but no later than {@code before}, within the slack. */
+    @Nullable
+    private static Unit latest(List<Unit> units, Unit self, long before,
+                               ToLongFunction<StageTimings> at) {
+        Unit best = null;
+        long bestAt = Long.MIN_VALUE;
+        for (Unit u : units) {
+            long a = at.applyAsLong(u.timings());
+            if (u != self && a <= before + SLACK_NANOS && a > bestAt) {
+                best = u;
+                bestAt = a;
+            }
+        }
+        return best != null && before - bestAt <= SLACK_NANOS ? best : null;
+    }
+
+    private static Map<String, Double> stages(StageTimings t) {
+        Map<String, Double> m = new LinkedHashMap<>();
+        for (IngestStage s : IngestStage.values()) {
+            m.put(s.tag(), round(t.seconds(s)));
+        }
+        return m;
+    }
+
+    private static double round(double v) {
+        return Math.rint(v * 1000) / 1000;
+    }
+}
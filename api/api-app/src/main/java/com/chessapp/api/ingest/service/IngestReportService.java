@@ -0,0 +1,84 @@
+package com.chessapp.api.ingest.service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import com.chessapp.api.storage.MinioStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Stage timers and the {@code report.json} of a run.
+ * <p>
+ * Ingest services {@link #record} each unit when it is done, so {@code chs_ingest_stage_seconds}
+ * follows a long backfill as it goes; {@link #write} stores the report once the run ends.
+ */
+@Service
+public class IngestReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestReportService.class);
+    static final String BUCKET = "reports";
+
+    private final MinioStorageService storage;
+    private final ObjectMapper mapper;
+    private final Map<IngestStage, Timer> stageTimers = new EnumMap<>(IngestStage.class);
+
+    public IngestReportService(MinioStorageService storage, ObjectMapper mapper, MeterRegistry meterRegistry) {
+        this.storage = storage;
+        this.mapper = mapper;
+        for (IngestStage stage : IngestStage.values()) {
+            stageTimers.put(stage, Timer.builder("chs_ingest_stage_seconds")
+                    .description("Time one month or upload spent per ingest stage")
+                    .tag("stage", stage.tag())
+                    .publishPercentiles(0.5, 0.95)
+                    .register(meterRegistry));
+        }
+    }
+
+    public static String uri(UUID runId) {
+        return "s3://" + BUCKET + "/" + key(runId);
+    }
+
+    /** Add a finished unit's stages to the timers. */
+    public void record(StageTimings timings) {
+        for (IngestStage stage : IngestStage.values()) {
+            stageTimers.get(stage).record(timings.nanos(stage), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Build and store the run's report.
+     *
+     * @return its URI, or null when it could not be written; the run itself is not affected
+     */
+    @Nullable
+    public String write(UUID runId, String kind, String status, Instant startedAt, List<IngestReport.Unit> units) {
+        IngestReport report = IngestReport.of(runId, kind, status, startedAt, Instant.now(), units);
+        try {
+            storage.write(BUCKET, key(runId), mapper.writeValueAsBytes(report), "application/json");
+        } catch (Exception e) {
+            log.warn("ingest report not written run_id={} error={}", runId, e.toString());
+            return null;
+        }
+        var path = report.criticalPath();
+        log.info("ingest report run_id={} units={} wall_s={} games_per_s={} critical_path_s={} bottleneck={}",
+                runId, units.size(), report.wallSeconds(), report.totals().gamesPerSecond(),
+                path != null ? path.seconds() : null, path != null ? path.bottleneck() : null);
+        return uri(runId);
+    }
+
+    private static String key(UUID runId) {
+        return "ingest/" + runId + "/report.json";
+    }
+}
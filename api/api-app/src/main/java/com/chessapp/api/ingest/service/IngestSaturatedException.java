@@ -0,0 +1,19 @@
+package com.chessapp.api.ingest.service;
+
+import java.time.Duration;
+
+/** An ingest start was refused by {@link IngestAdmission}; nothing of the run was created. */
+public class IngestSaturatedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public IngestSaturatedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /** When the client should try again. */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
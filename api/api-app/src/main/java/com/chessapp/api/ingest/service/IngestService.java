@@ -8,10 +8,10 @@ import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.YearMonth;
@@ -27,26 +27,35 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class IngestService {
 
     private static final Logger log = LoggerFactory.getLogger(IngestService.class);
+    private static final List<String> ACTIVE = List.of("PENDING", "RUNNING");
 
     private final IngestRunRepository repository;
     private final MeterRegistry meterRegistry;
     private final Counter starts;
     private final Counter success;
     private final Counter failed;
+    private final Counter partial;
+    private final Counter resumes;
     private final Timer durationSuccess;
     private final Timer durationFailed;
     private final AtomicInteger activeGauge;
-    private final IngestService self;
+    private final IngestJobQueue jobQueue;
+    private final IngestEventBus events;
+    private final IngestReportService reports;
     private final com.chessapp.api.chesscom.service.ChessComIngestService chessComIngestService;
+    private final com.chessapp.api.lichess.service.LichessIngestService lichessIngestService;
 
     public IngestService(IngestRunRepository repository, MeterRegistry meterRegistry,
-                         @Lazy IngestService self,
-                         com.chessapp.api.chesscom.service.ChessComIngestService chessComIngestService) {
+                         IngestJobQueue jobQueue, IngestEventBus events, IngestReportService reports,
+                         com.chessapp.api.chesscom.service.ChessComIngestService chessComIngestService,
+                         com.chessapp.api.lichess.service.LichessIngestService lichessIngestService) {
         this.repository = repository;
         this.meterRegistry = meterRegistry;
         this.starts = meterRegistry.counter("chs_ingest_starts_total");
         this.success = meterRegistry.counter("chs_ingest_success_total");
         this.failed = meterRegistry.counter("chs_ingest_failed_total");
+        this.partial = meterRegistry.counter("chs_ingest_partial_total");
+        this.resumes = meterRegistry.counter("chs_ingest_resumed_total");
         this.durationSuccess = Timer.builder("chs_ingest_duration_seconds")
             .publishPercentileHistogram()
             .publishPercentiles(0.5, 0.95)
@@ -58,12 +67,15 @@ public class IngestService {
             .tags("outcome","failed")
             .register(meterRegistry);
         this.activeGauge = meterRegistry.gauge("chs_ingest_active", new AtomicInteger());
-        this.self = self;
+        this.jobQueue = jobQueue;
+        this.events = events;
+        this.reports = reports;
         this.chessComIngestService = chessComIngestService;
+        this.lichessIngestService = lichessIngestService;
     }
 
     /** Resolve current username from SecurityContext, fallback to CHESS_USERNAME env or "system". */
-    private static String currentUsername() {
+    public static String currentUsername() {
         var ctx = SecurityContextHolder.getContext();
         var auth = (ctx != null) ? ctx.getAuthentication() : null;
         if (auth != null && auth.isAuthenticated() && auth.getName() != null) {
@@ -96,11 +108,13 @@ public class IngestService {
     }
 
     /**
-     * Starts a new ingest run and schedules async execution.
+     * Registers a run for an uploaded PGN file. The upload request streams and parses the body
+     * itself (see {@link UploadIngestService}), so the run is not queued and starts RUNNING.
      *
+     * @param username owner of the uploaded games; defaults to the authenticated user
      * @return run identifier
      */
-    public UUID start(String datasetId, String version) {
+    public UUID startUpload(String datasetId, String version, String username) {
         UUID runId = UUID.randomUUID();
 
         // Resolve required NOT NULLs
@@ -110,19 +124,74 @@ public class IngestService {
 
         IngestRunEntity run = new IngestRunEntity();
         run.setRunId(runId);
-        run.setUsername(currentUsername());     // NOT NULL
+        run.setUsername(username != null ? username : currentUsername());     // NOT NULL
         run.setFromMonth(fromMonth);            // NOT NULL in DB
         run.setToMonth(toMonth);                // likely NOT NULL as well (safe to set)
-        run.setStatus("PENDING");
+        run.setStatus("RUNNING");
         run.setStartedAt(Instant.now());
         run.setDatasetId(datasetId);
         run.setVersion(version);
-        if (version != null) {
-            run.setVersions(java.util.List.of(version));
+        // no months: upload runs are never fetched by the queue workers
+        run.setVersions(java.util.List.of());
+        run.setFilesWritten(0L);
+        run.setBytesRead(0L);
+        run.setGamesCount(0L);
+        run.setMovesCount(0L);
+        run.setPositionsCount(0L);
+        repository.save(run);
+
+        starts.increment();
+        activeGauge.incrementAndGet();
+        events.publish(IngestEvent.status(runId, "RUNNING", null, null));
+        return runId;
+    }
+
+    /**
+     * Final status of an upload run started by {@link #startUpload}.
+     *
+     * @param error null when the upload was stored and parsed completely
+     * @param unit  the upload's entry in the run report
+     */
+    public void finishUpload(UUID runId, Duration elapsed, String error, IngestReport.Unit unit) {
+        activeGauge.decrementAndGet();
+        if (error == null) {
+            String reportUri = reports.write(runId, "upload", "SUCCEEDED", Instant.now().minus(elapsed), List.of(unit));
+            finish(runId, ACTIVE, "SUCCEEDED", reportUri, null);
+            success.increment();
+            durationSuccess.record(elapsed);
         } else {
-            run.setVersions(java.util.List.of());
+            finish(runId, ACTIVE, "FAILED", null, error);
+            failed.increment();
+            durationFailed.record(elapsed);
         }
+    }
+
+    /**
+     * Start a new ingest run with dataset + versions context already populated to avoid race conditions.
+     * The run row and its job are written in one transaction, so a failed enqueue leaves no PENDING run.
+     *
+     * @param chessUser chess.com player whose archives are ingested; stored as the run's username
+     */
+    @Transactional
+    public UUID startWithContext(String datasetId, String chessUser, java.util.List<String> versions) {
+        UUID runId = UUID.randomUUID();
+
+        IngestRunEntity run = new IngestRunEntity();
+        run.setRunId(runId);
+        run.setUsername(chessUser != null ? chessUser : currentUsername());
+        // We keep from/to month defaults for NOT NULL constraints but they are not used here
+        int defaultMonth = defaultMonthValue();
+        run.setFromMonth(defaultMonth);
+        run.setToMonth(defaultMonth);
+        run.setStatus("PENDING");
+        run.setStartedAt(java.time.Instant.now());
+        run.setDatasetId(datasetId);
+        run.setVersions(versions != null ? versions : java.util.List.of());
         run.setFilesWritten(0L);
+        run.setBytesRead(0L);
+        run.setGamesCount(0L);
+        run.setMovesCount(0L);
+        run.setPositionsCount(0L);
         repository.save(run);
 
         starts.increment();
@@ -132,7 +201,7 @@ public class IngestService {
         MDC.put("username", run.getUsername());
         MDC.put("component", "ingest-start");
         try {
-            self.execute(runId);                // trigger async
+            jobQueue.enqueue(runId);
         } finally {
             MDC.clear();
         }
@@ -140,23 +209,74 @@ public class IngestService {
     }
 
     /**
-     * Start a new ingest run with dataset + versions context already populated to avoid race conditions.
+     * Start one run over many chess.com players; the months each player actually has within
+     * {@code versions} are discovered when the run executes. The run has no dataset of its own,
+     * each player's months go to {@code chesscom_<player>}.
+     *
+     * @param versions the requested month range as {@code vYYYY-MM}, oldest first
      */
-    public UUID startWithContext(String datasetId, java.util.List<String> versions) {
+    @Transactional
+    public UUID startBulk(List<String> players, List<String> versions) {
         UUID runId = UUID.randomUUID();
 
         IngestRunEntity run = new IngestRunEntity();
         run.setRunId(runId);
         run.setUsername(currentUsername());
-        // We keep from/to month defaults for NOT NULL constraints but they are not used here
         int defaultMonth = defaultMonthValue();
         run.setFromMonth(defaultMonth);
         run.setToMonth(defaultMonth);
         run.setStatus("PENDING");
-        run.setStartedAt(java.time.Instant.now());
+        run.setStartedAt(Instant.now());
+        run.setVersions(versions);
+        run.setPlayers(players);
+        run.setFilesWritten(0L);
+        run.setBytesRead(0L);
+        run.setGamesCount(0L);
+        run.setMovesCount(0L);
+        run.setPositionsCount(0L);
+        repository.save(run);
+
+        starts.increment();
+
+        MDC.put("run_id", runId.toString());
+        MDC.put("username", run.getUsername());
+        MDC.put("component", "ingest-start");
+        try {
+            log.info("ingest bulk run {} players={} versions={}..{}", runId, players.size(),
+                    versions.get(0), versions.get(versions.size() - 1));
+            jobQueue.enqueue(runId);
+        } finally {
+            MDC.clear();
+        }
+        return runId;
+    }
+
+    /**
+     * Start a run over a Lichess database dump, ingested as one version of {@code datasetId}.
+     *
+     * @param source file below {@code chess.ingest.lichess.local-root} or http(s) URL
+     */
+    @Transactional
+    public UUID startDump(String datasetId, String version, String source) {
+        UUID runId = UUID.randomUUID();
+
+        IngestRunEntity run = new IngestRunEntity();
+        run.setRunId(runId);
+        run.setUsername(lichessIngestService.owner());
+        int defaultMonth = defaultMonthValue();
+        run.setFromMonth(defaultMonth);
+        run.setToMonth(defaultMonth);
+        run.setStatus("PENDING");
+        run.setStartedAt(Instant.now());
         run.setDatasetId(datasetId);
-        run.setVersions(versions != null ? versions : java.util.List.of());
+        run.setVersion(version);
+        run.setVersions(List.of(version));
+        run.setSource(source);
         run.setFilesWritten(0L);
+        run.setBytesRead(0L);
+        run.setGamesCount(0L);
+        run.setMovesCount(0L);
+        run.setPositionsCount(0L);
         repository.save(run);
 
         starts.increment();
@@ -166,7 +286,8 @@ public class IngestService {
         MDC.put("username", run.getUsername());
         MDC.put("component", "ingest-start");
         try {
-            self.execute(runId);
+            log.info("ingest dump run {} source={} version={}", runId, source, version);
+            jobQueue.enqueue(runId);
         } finally {
             MDC.clear();
         }
@@ -174,39 +295,114 @@ public class IngestService {
     }
 
     /**
-     * Asynchronous execution of an ingest run.
+     * Re-executes a FAILED or PARTIAL run under the same id. Months completed by earlier attempts
+     * are skipped via their dataset version checkpoints, so the run continues where it stopped.
+     *
+     * @return false when the run is still active, already succeeded or was an upload (the
+     *         body is gone, it has to be uploaded again)
+     * @throws java.util.NoSuchElementException when the run does not exist
+     */
+    @Transactional
+    public boolean resume(UUID runId) {
+        IngestRunEntity run = repository.findById(runId).orElseThrow();
+        if (run.getVersions() == null || run.getVersions().isEmpty() || repository.requeue(runId) == 0) {
+            return false;
+        }
+        resumes.increment();
+        events.publish(IngestEvent.status(runId, "PENDING", null, null));
+
+        MDC.put("run_id", runId.toString());
+        if (run.getDatasetId() != null) MDC.put("dataset_id", run.getDatasetId());
+        MDC.put("username", run.getUsername());
+        MDC.put("component", "ingest-resume");
+        try {
+            log.info("ingest run {} resumed", runId);
+            jobQueue.enqueue(runId);
+        } finally {
+            MDC.clear();
+        }
+        return true;
+    }
+
+    /**
+     * Executes an ingest run on the calling thread; invoked by {@link IngestJobWorker} for a claimed job.
+     * Safe to call again for a run that was interrupted, e.g. after a re-claim.
      */
-    @Async("ingestExecutor")
     public void execute(UUID runId) {
-        activeGauge.incrementAndGet();
-        Timer.Sample sample = Timer.start(meterRegistry);
         IngestRunEntity run = repository.findById(runId).orElseThrow();
         MDC.put("run_id", runId.toString());
         if (run.getDatasetId() != null) MDC.put("dataset_id", run.getDatasetId());
         if (run.getUsername() != null) MDC.put("username", run.getUsername());
         MDC.put("component", "ingest-execute");
+        // RUNNING as well: a re-claimed run was interrupted mid-way
+        if (repository.transition(runId, ACTIVE, "RUNNING") == 0) {
+            log.warn("ingest run {} not executed, status={}", runId, run.getStatus());
+            MDC.clear();
+            return;
+        }
+        events.publish(IngestEvent.status(runId, "RUNNING", null, null));
+        activeGauge.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Instant started = Instant.now();
         try {
-            update(runId, "RUNNING", null);
             log.info("ingest run {} running", runId);
 
-            if (run.getDatasetId() != null && run.getUsername() != null
+            String kind;
+            List<IngestReport.Unit> units;
+            if (run.getSource() != null) {
+                // games already written by an earlier attempt are skipped as duplicates
+                var result = lichessIngestService.ingest(runId, run.getSource(), run.getDatasetId(), run.getVersion());
+                // parallel dump parsing has no per-stage split
+                kind = "lichess";
+                var parsed = result.parsed();
+                units = List.of(new IngestReport.Unit(run.getSource(), result.bytes(),
+                        parsed.games() + parsed.duplicates() + parsed.skipped(), parsed.games(), false, null, null));
+            } else if (run.getPlayers() != null && !run.getPlayers().isEmpty()
+                    && run.getVersions() != null && !run.getVersions().isEmpty()) {
+                List<YearMonth> range = run.getVersions().stream()
+                        .map(v -> YearMonth.parse(v.substring(1)))
+                        .toList();
+                var result = chessComIngestService.ingestBulk(runId, run.getPlayers(),
+                        range.get(0), range.get(range.size() - 1));
+                kind = "chesscom-bulk";
+                units = result.months().stream().map(r -> unit(r.user() + " " + r.month(), r)).toList();
+                List<String> failures = new java.util.ArrayList<>();
+                result.discoveryErrors().forEach((player, error) -> failures.add(player + ": " + error));
+                result.months().stream()
+                        .filter(r -> !r.ok())
+                        .forEach(r -> failures.add(r.user() + " " + r.month() + ": " + r.error()));
+                if (!failures.isEmpty()) {
+                    int total = result.months().size() + result.discoveryErrors().size();
+                    finishWithFailures(runId, sample, failures, failures.size() == total, kind, started, units);
+                    return;
+                }
+            } else if (run.getDatasetId() != null && run.getUsername() != null
                     && run.getVersions() != null && !run.getVersions().isEmpty()) {
                 List<YearMonth> months = run.getVersions().stream()
                         .map(v -> YearMonth.parse(v.substring(1)))
                         .toList();
-                chessComIngestService.ingest(runId, run.getDatasetId(), run.getUsername(), months);
+                var results = chessComIngestService.ingest(runId, run.getDatasetId(), run.getUsername(), months);
+                kind = "chesscom";
+                units = results.stream().map(r -> unit(r.month().toString(), r)).toList();
+                List<String> failures = results.stream()
+                        .filter(r -> !r.ok())
+                        .map(r -> r.month() + ": " + r.error())
+                        .toList();
+                if (!failures.isEmpty()) {
+                    finishWithFailures(runId, sample, failures, failures.size() == results.size(), kind, started, units);
+                    return;
+                }
             } else {
-                // simulate work when no dataset context
-                Thread.sleep(1000);
+                // uploads are ingested by their request; without months there is nothing to fetch
+                throw new IllegalStateException("run has no months to fetch");
             }
 
-            String report = "s3://reports/ingest/" + runId + "/report.json";
-            update(runId, "SUCCEEDED", report);
+            finish(runId, ACTIVE, "SUCCEEDED", reports.write(runId, kind, "SUCCEEDED", started, units), null);
             success.increment();
             sample.stop(durationSuccess);
             log.info("ingest run {} succeeded", runId);
         } catch (Exception e) {
-            update(runId, "FAILED", null);
+            finish(runId, ACTIVE, "FAILED", null, e.getClass().getSimpleName() + ": " + e.getMessage());
             failed.increment();
             sample.stop(durationFailed);
             log.error("ingest run {} failed: {}", runId, e.getMessage());
@@ -216,15 +412,46 @@ public class IngestService {
         }
     }
 
-    private void update(UUID runId, String status, String reportUri) {
-        IngestRunEntity run = repository.findById(runId).orElseThrow();
-        run.setStatus(status);
-        if (reportUri != null) {
-            run.setReportUri(reportUri);
+    private static IngestReport.Unit unit(String name, com.chessapp.api.chesscom.service.ChessComIngestService.MonthResult r) {
+        return new IngestReport.Unit(name, r.bytes(), r.games(), r.parsed().games(), r.skipped(), r.error(), r.timings());
+    }
+
+    /**
+     * Fails a run whose job was given up by the queue (lease expired on its last attempt).
+     */
+    public void abandon(UUID runId, String reason) {
+        if (finish(runId, ACTIVE, "FAILED", null, reason)) {
+            failed.increment();
+            log.warn("ingest run {} abandoned: {}", runId, reason);
         }
-        if ("SUCCEEDED".equals(status) || "FAILED".equals(status)) {
-            run.setFinishedAt(Instant.now());
+    }
+
+    /**
+     * Months are independent, so a run only FAILS when every month failed; otherwise it ends
+     * PARTIAL with the per-month errors recorded on the run.
+     */
+    private void finishWithFailures(UUID runId, Timer.Sample sample, List<String> failures, boolean all,
+                                    String kind, Instant started, List<IngestReport.Unit> units) {
+        String status = all ? "FAILED" : "PARTIAL";
+        finish(runId, ACTIVE, status, all ? null : reports.write(runId, kind, status, started, units),
+                String.join("\n", failures));
+        if (all) {
+            failed.increment();
+            sample.stop(durationFailed);
+        } else {
+            partial.increment();
+            sample.stop(durationSuccess);
         }
-        repository.save(run);
+        log.warn("ingest run {} {} failedMonths={}", runId, status.toLowerCase(), failures.size());
+    }
+
+    /** Final status in one guarded UPDATE; false when the run already left {@code expected}. */
+    private boolean finish(UUID runId, List<String> expected, String status, String reportUri, String error) {
+        if (repository.finish(runId, expected, status, reportUri, error, Instant.now()) == 0) {
+            log.warn("ingest run {} not finished as {}: no longer in {}", runId, status, expected);
+            return false;
+        }
+        events.publish(IngestEvent.status(runId, status, error, reportUri));
+        return true;
     }
 }
@@ -0,0 +1,19 @@
+package com.chessapp.api.ingest.service;
+
+/** Stages of ingesting one unit (a month, an upload); {@link #tag()} is the metric tag value. */
+public enum IngestStage {
+    /** Waiting for the body: throttle, network, hashing and counting. */
+    DOWNLOAD,
+    /** Splitting and replaying games, without the row writes. */
+    PARSE,
+    /** Raw upload and profile to S3. */
+    S3_WRITE,
+    /** games/moves/positions batch writes. */
+    DB_LOAD,
+    /** Dataset version upsert and run progress. */
+    CATALOG;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,91 @@
+package com.chessapp.api.ingest.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time one unit of a run spent per {@link IngestStage}, plus the moments it started,
+ * finished fetching ({@code ready}), entered the catalog stage and was done. Stages of one unit
+ * run one after another or interleaved on one thread, so their durations add up to the unit's
+ * time. Handed from the fetch thread to the catalog thread, never used by two at once.
+ */
+public final class StageTimings {
+
+    private static final IngestStage[] STAGES = IngestStage.values();
+
+    private final long[] nanos = new long[STAGES.length];
+    private final long startNanos;
+    private long readyNanos;
+    private long commitNanos;
+    private long doneNanos;
+
+    private StageTimings(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /** Recorded timings, e.g. to replay a schedule. */
+    StageTimings(long startNanos, long readyNanos, long commitNanos, long doneNanos, long... stageNanos) {
+        this.startNanos = startNanos;
+        this.readyNanos = readyNanos;
+        this.commitNanos = commitNanos;
+        this.doneNanos = doneNanos;
+        System.arraycopy(stageNanos, 0, nanos, 0, Math.min(stageNanos.length, nanos.length));
+    }
+
+    public static StageTimings start() {
+        return new StageTimings(System.nanoTime());
+    }
+
+    public void add(IngestStage stage, long n) {
+        nanos[stage.ordinal()] += Math.max(0, n);
+    }
+
+    public long nanos(IngestStage stage) {
+        return nanos[stage.ordinal()];
+    }
+
+    public double seconds(IngestStage stage) {
+        return nanos(stage) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Fetching is over: the download stage gets whatever part of the time since the start the
+     * other stages did not account for.
+     */
+    public void ready() {
+        readyNanos = System.nanoTime();
+        long other = 0;
+        for (IngestStage s : STAGES) {
+            if (s != IngestStage.DOWNLOAD) other += nanos[s.ordinal()];
+        }
+        nanos[IngestStage.DOWNLOAD.ordinal()] = Math.max(0, readyNanos - startNanos - other);
+    }
+
+    public void committing() {
+        commitNanos = System.nanoTime();
+    }
+
+    public void done() {
+        doneNanos = System.nanoTime();
+        add(IngestStage.CATALOG, doneNanos - commitNanos);
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public long readyNanos() {
+        return readyNanos;
+    }
+
+    public long commitNanos() {
+        return commitNanos;
+    }
+
+    public long doneNanos() {
+        return doneNanos;
+    }
+
+    public boolean isDone() {
+        return doneNanos != 0;
+    }
+}
@@ -0,0 +1,184 @@
+package com.chessapp.api.ingest.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.chessapp.api.data.ingest.IngestRunRepository;
+import com.chessapp.api.datasets.service.DatasetCatalogService;
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.ingest.pgn.PgnGameCounter;
+import com.chessapp.api.ingest.pgn.TeeOutputStream;
+import com.chessapp.api.ingest.pgn.TimedOutputStream;
+import com.chessapp.api.storage.MinioStorageService;
+import com.chessapp.api.storage.S3MultipartOutputStream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Ingest of an uploaded PGN file within the upload request.
+ * <p>
+ * The body is read once in fixed-size chunks and teed into the raw upload in S3 and the
+ * {@link GameIngestService} parse stage, so heap usage is one chunk plus one S3 part and one
+ * parse batch, whatever the file size. Bytes and rows are added to the run every
+ * {@code chess.ingest.upload.progress-bytes} and pushed as {@code progress} events.
+ * <p>
+ * With a dataset the file becomes {@code datasets/<datasetId>/<version>/raw.pgn} and is cataloged
+ * with its SHA-256 like a chess.com month; otherwise it is kept under {@code uploads/<runId>/}.
+ * Reading the request body counts as the download stage of the run's report.
+ */
+@Service
+public class UploadIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadIngestService.class);
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final IngestService ingestService;
+    private final IngestRunRepository runs;
+    private final GameIngestService gameIngest;
+    private final MinioStorageService storage;
+    private final DatasetCatalogService catalog;
+    private final IngestEventBus events;
+    private final IngestReportService reports;
+    private final long progressBytes;
+    private final Counter bytesCounter;
+
+    public UploadIngestService(IngestService ingestService, IngestRunRepository runs,
+                               GameIngestService gameIngest, MinioStorageService storage,
+                               DatasetCatalogService catalog, IngestEventBus events, IngestReportService reports,
+                               MeterRegistry meterRegistry,
+                               @Value("${chess.ingest.upload.progress-bytes:8388608}") long progressBytes) {
+        this.ingestService = ingestService;
+        this.runs = runs;
+        this.gameIngest = gameIngest;
+        this.storage = storage;
+        this.catalog = catalog;
+        this.events = events;
+        this.reports = reports;
+        this.progressBytes = Math.max(CHUNK_SIZE, progressBytes);
+        this.bytesCounter = meterRegistry.counter("chs_ingest_upload_bytes_total");
+    }
+
+    /**
+     * Stream {@code body} into storage and the parse stage as run {@code runId} (see
+     * {@link IngestService#startUpload}) and finish the run. The body is not closed.
+     *
+     * @return the run's final status
+     */
+    public String ingest(UUID runId, InputStream body, String datasetId, String version,
+                         String username, Platform platform) {
+        long t0 = System.nanoTime();
+        MDC.put("run_id", runId.toString());
+        if (datasetId != null) MDC.put("dataset_id", datasetId);
+        MDC.put("username", username);
+        MDC.put("component", "upload");
+        String error = null;
+        String key = datasetId != null
+                ? datasetId + "/" + version + "/raw.pgn"
+                : "uploads/" + runId + "/raw.pgn";
+        IngestReport.Unit unit = new IngestReport.Unit(key, 0, 0, 0, false, null, null);
+        try {
+            var stored = store(runId, body, key, username, platform);
+            stored.timings().committing();
+            if (datasetId != null) {
+                MDC.put("component", "catalog");
+                catalog.addVersion(datasetId, version, stored.games(), stored.bytes(), new DatasetCatalogService.Checkpoint(
+                        stored.sha256(), null, null, stored.bytes(), Instant.now()));
+            }
+            stored.timings().done();
+            reports.record(stored.timings());
+            unit = new IngestReport.Unit(key, stored.bytes(), stored.games(), stored.parsed().games(), false, null,
+                    stored.timings());
+            log.info("upload ingested key={} bytes={} games={} gamesWritten={} moves={} positions={}",
+                    key, stored.bytes(), stored.games(), stored.parsed().games(), stored.parsed().moves(),
+                    stored.parsed().positions());
+        } catch (RuntimeException e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.error("upload ingest failed: {}", error);
+        } finally {
+            ingestService.finishUpload(runId, Duration.ofNanos(System.nanoTime() - t0), error, unit);
+            MDC.clear();
+        }
+        return error == null ? "SUCCEEDED" : "FAILED";
+    }
+
+    private Stored store(UUID runId, InputStream body, String key, String username, Platform platform) {
+        StageTimings timings = StageTimings.start();
+        S3MultipartOutputStream out = storage.openStream("datasets", key, "application/x-chess-pgn");
+        try {
+            GameIngestService.Session parse = gameIngest.open(username, platform);
+            TimedOutputStream s3 = new TimedOutputStream(out);
+            TimedOutputStream parser = new TimedOutputStream(parse);
+            var sink = new TeeOutputStream(s3, parser);
+            PgnGameCounter counter = new PgnGameCounter();
+            MessageDigest sha256 = sha256();
+            Progress reported = new Progress();
+            byte[] chunk = new byte[CHUNK_SIZE];
+            int n;
+            while ((n = body.read(chunk)) != -1) {
+                counter.update(chunk, 0, n);
+                sha256.update(chunk, 0, n);
+                sink.write(chunk, 0, n);
+                if (counter.bytes() - reported.bytes >= progressBytes) {
+                    reported.report(runId, 0, counter.bytes(), parse.stats());
+                }
+            }
+            // rows first: if the last batch fails, the raw upload is aborted as well
+            MDC.put("component", "parse");
+            parser.close();
+            MDC.put("component", "storage");
+            s3.close();
+            reported.report(runId, 1, counter.bytes(), parse.stats());
+            timings.add(IngestStage.S3_WRITE, s3.nanos());
+            timings.add(IngestStage.DB_LOAD, parse.writeNanos());
+            timings.add(IngestStage.PARSE, parser.nanos() - parse.writeNanos());
+            timings.ready();
+            return new Stored(counter.bytes(), counter.games(), HexFormat.of().formatHex(sha256.digest()), parse.stats(),
+                    timings);
+        } catch (IOException e) {
+            out.abort();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            out.abort();
+            throw e;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** What has been added to the run so far; each report adds only the difference. */
+    private final class Progress {
+        long bytes;
+        GameIngestService.Stats parsed = GameIngestService.Stats.EMPTY;
+
+        void report(UUID runId, int files, long totalBytes, GameIngestService.Stats total) {
+            runs.addProgress(runId, files, totalBytes - bytes, total.games() - parsed.games(),
+                    total.moves() - parsed.moves(), total.positions() - parsed.positions());
+            bytesCounter.increment(totalBytes - bytes);
+            bytes = totalBytes;
+            parsed = total;
+            events.publish(IngestEvent.progress(runId, totalBytes, total));
+        }
+    }
+
+    private record Stored(long bytes, int games, String sha256, GameIngestService.Stats parsed, StageTimings timings) {}
+}
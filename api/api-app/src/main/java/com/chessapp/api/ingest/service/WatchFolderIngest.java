@@ -0,0 +1,315 @@
+package com.chessapp.api.ingest.service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.chessapp.api.data.ingest.WatchFileRepository;
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.ingest.pgn.MappedPgnSplitter;
+import com.chessapp.api.service.pgn.ParsedGame;
+import com.chessapp.api.service.pgn.PgnGameParser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Continuous ingest of PGN files dropped into {@code chess.ingest.watch.dir}, e.g. by the
+ * self-play runners.
+ * <p>
+ * A {@link WatchService} reports new and growing {@code *.pgn} files; the directory is also
+ * rescanned every {@code rescan} in case events were lost (overflow, network shares). For every
+ * file only the bytes after its offset in {@code ingest_watch_files} are read. A game counts as
+ * complete once the next {@code [Event "} follows it, or once the file has not grown for
+ * {@code settle}; the game still being written stays for the next round.
+ * <p>
+ * Parsed games are written together every {@code batch-games} games or {@code max-delay} after
+ * the oldest waiting game, whichever comes first, and the offsets move only after their games are
+ * written. Games re-read after a crash are skipped as duplicates. Run it on one replica only.
+ */
+@Component
+public class WatchFolderIngest implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchFolderIngest.class);
+    private static final long REGION_BYTES = 4L * 1024 * 1024;
+
+    private final PgnGameParser parser;
+    private final GameBatchWriter writer;
+    private final WatchFileRepository offsets;
+    private final Path dir;
+    private final String username;
+    private final Platform platform;
+    private final int batchGames;
+    private final Duration maxDelay;
+    private final Duration settle;
+    private final Duration rescan;
+    private final Counter bytesCounter;
+    private final Counter gamesCounter;
+    private final Counter movesCounter;
+    private final Counter positionsCounter;
+    private final Counter parseErrors;
+
+    /** Watch thread only. */
+    private final Map<Path, FileState> files = new HashMap<>();
+    private final List<ParsedGame> pending = new ArrayList<>();
+    private long pendingSince;
+    private UUID userId;
+
+    private volatile boolean running;
+    private Thread thread;
+    private WatchService watcher;
+
+    public WatchFolderIngest(PgnGameParser parser, GameBatchWriter writer, WatchFileRepository offsets,
+                             MeterRegistry meterRegistry,
+                             @Value("${chess.ingest.watch.dir:}") String dir,
+                             @Value("${chess.ingest.watch.username:selfplay}") String username,
+                             @Value("${chess.ingest.watch.platform:SELFPLAY}") Platform platform,
+                             @Value("${chess.ingest.watch.batch-games:200}") int batchGames,
+                             @Value("${chess.ingest.watch.max-delay:PT1S}") Duration maxDelay,
+                             @Value("${chess.ingest.watch.settle:PT5S}") Duration settle,
+                             @Value("${chess.ingest.watch.rescan:PT30S}") Duration rescan) {
+        this.parser = parser;
+        this.writer = writer;
+        this.offsets = offsets;
+        this.dir = dir == null || dir.isBlank() ? null : Path.of(dir).toAbsolutePath().normalize();
+        this.username = username;
+        this.platform = platform;
+        this.batchGames = Math.max(1, batchGames);
+        this.maxDelay = maxDelay;
+        this.settle = settle;
+        this.rescan = rescan;
+        this.bytesCounter = meterRegistry.counter("chs_ingest_watch_bytes_total");
+        this.gamesCounter = meterRegistry.counter("chs_ingest_games_written_total");
+        this.movesCounter = meterRegistry.counter("chs_ingest_moves_total");
+        this.positionsCounter = meterRegistry.counter("chs_ingest_positions_total");
+        this.parseErrors = meterRegistry.counter("chs_ingest_parse_errors_total");
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running || dir == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            watcher = dir.getFileSystem().newWatchService();
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.error("watch folder not started dir={}: {}", dir, e.getMessage());
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("ingest-watch").start(this::loop);
+        log.info("watch folder started dir={} batch_games={} max_delay={} settle={}", dir, batchGames, maxDelay, settle);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            watcher.close();
+            thread.join(5_000);
+        } catch (IOException e) {
+            log.warn("watch service close failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("watch folder stopped dir={}", dir);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void loop() {
+        MDC.put("component", "watch");
+        MDC.put("username", username);
+        long tick = Math.max(50, Math.min(maxDelay.toMillis(), Math.min(settle.toMillis(), rescan.toMillis())) / 2);
+        long lastScan = System.nanoTime() - rescan.toNanos();
+        while (running) {
+            try {
+                if (userId == null) {
+                    userId = writer.resolveUser(username);
+                    offsets.offsets(dir.toString()).forEach((path, offset) ->
+                            files.put(Path.of(path), new FileState(offset)));
+                }
+                if (System.nanoTime() - lastScan >= rescan.toNanos()) {
+                    scanDirectory();
+                    lastScan = System.nanoTime();
+                }
+                WatchKey key = watcher.poll(tick, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            lastScan = System.nanoTime() - rescan.toNanos();
+                        } else if (event.context() instanceof Path name && isPgn(name)) {
+                            files.computeIfAbsent(dir.resolve(name), p -> new FileState(0)).dirty = true;
+                        }
+                    }
+                    key.reset();
+                }
+                readChangedFiles();
+                if (!pending.isEmpty() && System.nanoTime() - pendingSince >= maxDelay.toNanos()) {
+                    flush();
+                }
+            } catch (ClosedWatchServiceException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // DB unavailable etc.: keep the offsets, retry on the next round
+                log.warn("watch folder round failed dir={}: {}", dir, e.getMessage());
+                sleepQuietly(Duration.ofMillis(tick * 4));
+            }
+        }
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("watch folder final flush failed, games are re-read on restart: {}", e.getMessage());
+        }
+        MDC.clear();
+    }
+
+    private void scanDirectory() throws IOException {
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.pgn")) {
+            for (Path p : ds) {
+                files.computeIfAbsent(p.toAbsolutePath().normalize(), k -> new FileState(0)).dirty = true;
+            }
+        }
+    }
+
+    /** Files with an event, new bytes or an unfinished trailing game. */
+    private void readChangedFiles() throws IOException {
+        long now = System.nanoTime();
+        for (var e : files.entrySet()) {
+            FileState state = e.getValue();
+            if (state.dirty || state.read < state.size) {
+                state.dirty = false;
+                read(e.getKey(), state, now);
+            }
+        }
+    }
+
+    private void read(Path path, FileState state, long now) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < state.read) {
+                log.warn("watch file shrank, reading from the start path={} size={} offset={}", path, size, state.read);
+                state.read = 0;
+                state.committed = 0;
+            }
+            if (size != state.size) {
+                state.size = size;
+                state.changedAt = now;
+            }
+            long end = size;
+            if (now - state.changedAt < settle.toNanos()) {
+                // the last game may still be being appended: stop before it
+                long last = MappedPgnSplitter.lastGameStart(ch, state.read, size);
+                end = last < 0 ? state.read : last;
+            }
+            if (end <= state.read) {
+                return;
+            }
+            for (var region : MappedPgnSplitter.regions(ch, state.read, end, REGION_BYTES, ForkJoinPool.commonPool())) {
+                MappedPgnSplitter.games(ch, region, this::onGame);
+                state.read = region.end();
+                bytesCounter.increment(region.length());
+                if (pending.size() >= batchGames) {
+                    flush();
+                }
+            }
+        }
+    }
+
+    private void onGame(String pgn) {
+        try {
+            if (pending.isEmpty()) {
+                pendingSince = System.nanoTime();
+            }
+            pending.add(parser.parse(pgn));
+        } catch (RuntimeException e) {
+            parseErrors.increment();
+            log.debug("parse skipped game error={}", e.toString());
+        }
+    }
+
+    /** Write the pending games, then move the offsets of every file read so far. */
+    private void flush() {
+        if (!pending.isEmpty()) {
+            var r = writer.write(userId, username, platform, pending);
+            gamesCounter.increment(r.games());
+            movesCounter.increment(r.moves());
+            positionsCounter.increment(r.positions());
+            log.info("watch batch written games={} duplicates={} moves={} positions={} delay_ms={}",
+                    r.games(), r.duplicates(), r.moves(), r.positions(),
+                    (System.nanoTime() - pendingSince) / 1_000_000);
+            pending.clear();
+        }
+        Map<String, Long> moved = new HashMap<>();
+        files.forEach((path, state) -> {
+            if (state.read != state.committed) {
+                moved.put(path.toString(), state.read);
+            }
+        });
+        offsets.save(moved);
+        files.values().forEach(state -> state.committed = state.read);
+    }
+
+    private static boolean isPgn(Path name) {
+        return name.toString().endsWith(".pgn");
+    }
+
+    private static void sleepQuietly(Duration d) {
+        try {
+            Thread.sleep(d.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** {@code read}: bytes parsed; {@code committed}: bytes whose games are written. */
+    private static final class FileState {
+        long read;
+        long committed;
+        long size = -1;
+        long changedAt;
+        boolean dirty;
+
+        FileState(long offset) {
+            this.read = offset;
+            this.committed = offset;
+        }
+    }
+}
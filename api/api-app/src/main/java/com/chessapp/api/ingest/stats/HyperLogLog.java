@@ -0,0 +1,68 @@
+package com.chessapp.api.ingest.stats;
+
+/**
+ * HyperLogLog distinct-count sketch with 2^14 one-byte registers (16 KiB, about 0.8 % standard
+ * error). Small cardinalities are estimated by linear counting, so they are close to exact.
+ * Callers pass 64-bit hashes, see {@link #hash(CharSequence)} and {@link #mix(long)}.
+ */
+public final class HyperLogLog {
+
+    private static final int P = 14;
+    private static final int M = 1 << P;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / M);
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final byte[] registers = new byte[M];
+
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - P));
+        // the guard bit caps the rank at 64 - P + 1
+        int rank = Long.numberOfLeadingZeros((hash << P) | (1L << (P - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double e = ALPHA * M * M / sum;
+        if (e <= 2.5 * M && zeros > 0) {
+            e = M * Math.log((double) M / zeros);
+        }
+        return Math.round(e);
+    }
+
+    /** 64-bit hash of the characters of {@code s}. */
+    public static long hash(CharSequence s) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < s.length(); i++) {
+            h = step(h, s.charAt(i));
+        }
+        return mix(h);
+    }
+
+    /** One FNV-1a step, for hashing a value incrementally; finish with {@link #mix(long)}. */
+    public static long step(long h, int b) {
+        return (h ^ b) * FNV_PRIME;
+    }
+
+    public static long seed() {
+        return FNV_OFFSET;
+    }
+
+    /** Murmur3 finalizer: spreads FNV's weak high bits over the register index. */
+    public static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
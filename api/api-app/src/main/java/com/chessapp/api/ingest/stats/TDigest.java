@@ -0,0 +1,172 @@
+package com.chessapp.api.ingest.stats;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest (Dunning) for quantiles of a value stream in bounded memory.
+ * <p>
+ * Values are buffered and periodically merged into at most about {@code compression} centroids,
+ * sized by the arcsine scale function so centroids near the tails stay small: extreme quantiles
+ * are accurate to a fraction of a percent, the median to about 1 %. Not thread-safe.
+ */
+public final class TDigest {
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroids;
+    private final double[] buffer;
+    private int buffered;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public TDigest(double compression) {
+        this.compression = Math.max(20, compression);
+        int capacity = (int) Math.ceil(this.compression) * 2 + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.buffer = new double[capacity * 5];
+    }
+
+    public void add(double x) {
+        if (Double.isNaN(x)) {
+            return;
+        }
+        if (buffered == buffer.length) {
+            merge();
+        }
+        buffer[buffered++] = x;
+        count++;
+        min = count == 1 ? x : Math.min(min, x);
+        max = count == 1 ? x : Math.max(max, x);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /** Value below which a share {@code q} of the values lies; NaN when empty. */
+    public double quantile(double q) {
+        merge();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1 || q <= 0) {
+            return q <= 0 ? min : means[0];
+        }
+        if (q >= 1) {
+            return max;
+        }
+        double index = q * count;
+        // centroid i covers [cum, cum + w) with its mean at the middle
+        double left = weights[0] / 2;
+        if (index < left) {
+            return min + (means[0] - min) * index / left;
+        }
+        double cum = 0;
+        for (int i = 0; i < centroids - 1; i++) {
+            double mid = cum + weights[i] / 2;
+            double next = cum + weights[i] + weights[i + 1] / 2;
+            if (index < next) {
+                return means[i] + (means[i + 1] - means[i]) * (index - mid) / (next - mid);
+            }
+            cum += weights[i];
+        }
+        double last = count - weights[centroids - 1] / 2;
+        return means[centroids - 1] + (max - means[centroids - 1]) * (index - last) / (count - last);
+    }
+
+    /** Approximate share of the values below {@code x}, interpolated between centroids; NaN when empty. */
+    public double cdf(double x) {
+        merge();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (x < min) return 0;
+        if (x >= max) return 1;
+        if (centroids == 1) {
+            return (x - min) / (max - min);
+        }
+        if (x < means[0]) {
+            return weights[0] / 2 * (x - min) / (means[0] - min) / count;
+        }
+        double cum = 0;
+        for (int i = 0; i < centroids - 1; i++) {
+            if (x < means[i + 1]) {
+                double mid = cum + weights[i] / 2;
+                double next = cum + weights[i] + weights[i + 1] / 2;
+                double f = means[i + 1] == means[i] ? 1 : (x - means[i]) / (means[i + 1] - means[i]);
+                return (mid + f * (next - mid)) / count;
+            }
+            cum += weights[i];
+        }
+        double last = count - weights[centroids - 1] / 2;
+        return (last + (count - last) * (x - means[centroids - 1]) / (max - means[centroids - 1])) / count;
+    }
+
+    private void merge() {
+        if (buffered == 0) {
+            return;
+        }
+        // centroids are sorted already: sort the buffer and merge the two runs
+        Arrays.sort(buffer, 0, buffered);
+        int n = centroids + buffered;
+        double[] m = new double[n];
+        double[] w = new double[n];
+        for (int i = 0, a = 0, b = 0; i < n; i++) {
+            if (b == buffered || (a < centroids && means[a] <= buffer[b])) {
+                m[i] = means[a];
+                w[i] = weights[a++];
+            } else {
+                m[i] = buffer[b++];
+                w[i] = 1;
+            }
+        }
+        buffered = 0;
+
+        double total = count;
+        int out = 0;
+        double cum = 0;
+        double kLeft = k(0);
+        double curMean = m[0];
+        double curWeight = w[0];
+        for (int i = 1; i < n; i++) {
+            double proposed = curWeight + w[i];
+            if (k((cum + proposed) / total) - kLeft <= 1) {
+                curMean += (m[i] - curMean) * w[i] / proposed;
+                curWeight = proposed;
+            } else {
+                out = emit(out, curMean, curWeight);
+                cum += curWeight;
+                kLeft = k(cum / total);
+                curMean = m[i];
+                curWeight = w[i];
+            }
+        }
+        centroids = emit(out, curMean, curWeight);
+    }
+
+    private int emit(int at, double mean, double weight) {
+        if (at == means.length) {
+            means = Arrays.copyOf(means, at * 2);
+            weights = Arrays.copyOf(weights, at * 2);
+        }
+        means[at] = mean;
+        weights[at] = weight;
+        return at + 1;
+    }
+
+    /** Arcsine scale function k1: one unit of k is the size limit of a centroid. */
+    private double k(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.chessapp.api.lichess.api;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.chessapp.api.datasets.service.DatasetCatalogService;
+import com.chessapp.api.ingest.service.IngestAdmission;
+import com.chessapp.api.ingest.service.IngestService;
+import com.chessapp.api.lichess.api.dto.LichessIngestRequest;
+import com.chessapp.api.lichess.api.dto.LichessIngestResponse;
+import com.chessapp.api.lichess.service.LichessIngestService;
+
+@RestController
+@RequestMapping("/v1/ingest/lichess")
+public class LichessController {
+
+    private static final Logger log = LoggerFactory.getLogger(LichessController.class);
+    /** lichess_db_standard_rated_2024-01.pgn.zst */
+    private static final Pattern DUMP_MONTH = Pattern.compile("(\\d{4}-\\d{2})\\.pgn(\\.zst)?$");
+    private static final DateTimeFormatter DUMP_VERSION = DateTimeFormatter.ofPattern("'dump-'yyyyMMdd-HHmmss");
+
+    private final IngestService ingestService;
+    private final LichessIngestService lichess;
+    private final DatasetCatalogService datasetCatalog;
+    private final IngestAdmission admission;
+
+    public LichessController(IngestService ingestService, LichessIngestService lichess,
+                             DatasetCatalogService datasetCatalog, IngestAdmission admission) {
+        this.ingestService = ingestService;
+        this.lichess = lichess;
+        this.datasetCatalog = datasetCatalog;
+        this.admission = admission;
+    }
+
+    @PostMapping
+    public ResponseEntity<LichessIngestResponse> ingest(@RequestBody LichessIngestRequest req) {
+        String source = req.source() == null ? null : req.source().trim();
+        try {
+            lichess.validate(source);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        String dsId = req.datasetId() != null ? req.datasetId() : "lichess";
+        String version = req.version() != null ? req.version() : version(source);
+        admission.admitRun("lichess");
+        datasetCatalog.registerIfAbsent(dsId, dsId);
+        log.info("lichess ingest requester={}, source={}, datasetId={}, version={}",
+                IngestService.currentUsername(), source, dsId, version);
+        UUID rid = ingestService.startDump(dsId, version, source);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new LichessIngestResponse("ing_" + rid, "queued"));
+    }
+
+    private static String version(String source) {
+        Matcher m = DUMP_MONTH.matcher(source);
+        return m.find() ? "v" + m.group(1) : LocalDateTime.now(ZoneOffset.UTC).format(DUMP_VERSION);
+    }
+}
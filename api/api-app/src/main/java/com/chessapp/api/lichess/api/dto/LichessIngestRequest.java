@@ -0,0 +1,9 @@
+package com.chessapp.api.lichess.api.dto;
+
+/**
+ * Ingest of one Lichess database dump. {@code source} is a path below
+ * {@code chess.ingest.lichess.local-root} or an http(s) URL, e.g.
+ * {@code https://database.lichess.org/standard/lichess_db_standard_rated_2024-01.pgn.zst}; the version
+ * defaults to the dump month ({@code v2024-01}).
+ */
+public record LichessIngestRequest(String source, String datasetId, String version, String note) {}
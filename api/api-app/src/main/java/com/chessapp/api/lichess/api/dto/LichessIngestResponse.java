@@ -0,0 +1,3 @@
+package com.chessapp.api.lichess.api.dto;
+
+public record LichessIngestResponse(String runId, String status) {}
@@ -0,0 +1,439 @@
+package com.chessapp.api.lichess.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.chessapp.api.data.ingest.IngestRunRepository;
+import com.chessapp.api.datasets.service.DatasetCatalogService;
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.ingest.pgn.MappedPgnSplitter;
+import com.chessapp.api.ingest.pgn.PgnChunker;
+import com.chessapp.api.ingest.pgn.PgnGameSplitter;
+import com.chessapp.api.ingest.service.GameBatchWriter;
+import com.chessapp.api.ingest.service.GameIngestService;
+import com.chessapp.api.ingest.service.IngestEvent;
+import com.chessapp.api.ingest.service.IngestEventBus;
+import com.chessapp.api.service.pgn.ParsedGame;
+import com.chessapp.api.service.pgn.PgnGameParser;
+import com.github.luben.zstd.ZstdInputStream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ingest of a Lichess database dump ({@code lichess_db_standard_rated_YYYY-MM.pgn.zst}).
+ * <p>
+ * The source is a file below {@code chess.ingest.lichess.local-root} or an https URL on one of
+ * {@code chess.ingest.lichess.allowed-hosts}; {@code .zst} sources are decompressed while reading. The reader thread only cuts the stream into chunks of
+ * whole games ({@link PgnChunker}); an uncompressed local file is memory-mapped and cut into
+ * regions in parallel instead ({@link MappedPgnSplitter}). Splitting, UTF-8 decoding and replay
+ * of each chunk run on a fork-join pool of {@code chess.ingest.lichess.parallelism} threads, and
+ * each chunk is written in batches of {@code chess.ingest.lichess.batch-size} games by at most
+ * {@code chess.ingest.lichess.writers} concurrent COPY transactions. Chunks in flight are bounded, so memory stays at a few chunks
+ * per thread however large the dump is.
+ * <p>
+ * Games belong to the {@code chess.ingest.lichess.owner} user; both players stay in the PGN tags.
+ * Games already stored are skipped, so a resumed run simply reads the dump again.
+ */
+@Service
+public class LichessIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(LichessIngestService.class);
+    private static final int READ_SIZE = 1024 * 1024;
+    private static final int MAX_REDIRECTS = 5;
+
+    private final PgnGameParser parser;
+    private final GameBatchWriter writer;
+    private final IngestRunRepository runs;
+    private final DatasetCatalogService catalog;
+    private final IngestEventBus events;
+    // redirects are followed by hand, so every target is checked against the allowed hosts
+    private final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    private final Set<String> allowedHosts;
+    private final ForkJoinPool pool;
+    private final Path localRoot;
+    private final String owner;
+    private final int chunkBytes;
+    private final int batchSize;
+    private final int maxChunksInFlight;
+    private final Semaphore writers;
+    private final long progressBytes;
+    private final Counter bytesCounter;
+    private final Counter gamesCounter;
+    private final Counter movesCounter;
+    private final Counter positionsCounter;
+    private final Counter parseErrors;
+    private final AtomicLong gamesPerSecond = new AtomicLong();
+
+    public LichessIngestService(PgnGameParser parser, GameBatchWriter writer, IngestRunRepository runs,
+                                DatasetCatalogService catalog, IngestEventBus events, MeterRegistry meterRegistry,
+                                @Value("${chess.ingest.lichess.local-root:/data/lichess}") String localRoot,
+                                @Value("${chess.ingest.lichess.owner:lichess}") String owner,
+                                @Value("${chess.ingest.lichess.parallelism:0}") int parallelism,
+                                @Value("${chess.ingest.lichess.chunk-bytes:4194304}") int chunkBytes,
+                                @Value("${chess.ingest.lichess.batch-size:5000}") int batchSize,
+                                @Value("${chess.ingest.lichess.writers:4}") int writers,
+                                @Value("${chess.ingest.lichess.progress-bytes:268435456}") long progressBytes,
+                                @Value("${chess.ingest.lichess.allowed-hosts:database.lichess.org}") List<String> allowedHosts) {
+        this.parser = parser;
+        this.writer = writer;
+        this.runs = runs;
+        this.catalog = catalog;
+        this.events = events;
+        this.localRoot = Path.of(localRoot).toAbsolutePath().normalize();
+        this.allowedHosts = allowedHosts.stream()
+                .map(h -> h.trim().toLowerCase(Locale.ROOT))
+                .filter(h -> !h.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.owner = owner;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.chunkBytes = Math.max(64 * 1024, chunkBytes);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxChunksInFlight = threads * 2;
+        this.writers = new Semaphore(Math.max(1, writers));
+        this.progressBytes = Math.max(READ_SIZE, progressBytes);
+        this.bytesCounter = meterRegistry.counter("chs_ingest_lichess_bytes_total");
+        this.gamesCounter = meterRegistry.counter("chs_ingest_games_written_total");
+        this.movesCounter = meterRegistry.counter("chs_ingest_moves_total");
+        this.positionsCounter = meterRegistry.counter("chs_ingest_positions_total");
+        this.parseErrors = meterRegistry.counter("chs_ingest_parse_errors_total");
+        meterRegistry.gauge("chs_ingest_lichess_games_per_second", gamesPerSecond);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * Fail fast on a source that {@link #ingest} could not open: a local path outside
+     * {@code local-root}, or a URL that is not https on one of {@code allowed-hosts}.
+     *
+     * @throws IllegalArgumentException when the source is not allowed
+     */
+    public void validate(String source) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("source required");
+        }
+        if (isUrl(source)) {
+            allowedUrl(source);
+        } else {
+            resolveLocal(source);
+        }
+    }
+
+    /**
+     * Read, parse and write the dump at {@code source} as run {@code runId}, adding progress to the
+     * run as it goes, and catalog it as {@code datasetId}/{@code version}.
+     */
+    public Result ingest(UUID runId, String source, String datasetId, String version) {
+        MDC.put("component", "lichess");
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        UUID userId = writer.resolveUser(owner);
+        long t0 = System.nanoTime();
+        Dump dump = new Dump(runId, userId, mdc);
+        try {
+            if (isUrl(source) || source.endsWith(".zst")) {
+                readStream(source, dump, t0);
+            } else {
+                readMapped(resolveLocal(source), dump, t0);
+            }
+        } catch (IOException e) {
+            dump.drain();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            dump.drain();
+            throw e;
+        }
+        dump.report(t0, true);
+        if (datasetId != null) {
+            MDC.put("component", "catalog");
+            catalog.addVersion(datasetId, version, dump.games.get(), dump.bytes);
+        }
+        double secs = Math.max(1e-3, (System.nanoTime() - t0) / 1e9);
+        Result result = new Result(dump.bytes, dump.snapshot(), secs);
+        log.info("lichess dump ingested source={} bytes={} games={} moves={} positions={} duplicates={} skipped={} seconds={} games_per_s={}",
+                source, result.bytes(), result.parsed().games(), result.parsed().moves(), result.parsed().positions(),
+                result.parsed().duplicates(), result.parsed().skipped(), Math.round(secs), Math.round(result.gamesPerSecond()));
+        return result;
+    }
+
+    /** Decompress/download on this thread and cut the stream into chunks for the pool. */
+    private void readStream(String source, Dump dump, long t0) throws IOException {
+        try (InputStream in = open(source)) {
+            PgnChunker chunker = new PgnChunker(chunkBytes, chunk -> dump.submit(onGame -> {
+                PgnGameSplitter splitter = new PgnGameSplitter(onGame);
+                splitter.update(chunk, 0, chunk.length);
+                splitter.finish();
+            }));
+            byte[] buf = new byte[READ_SIZE];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                dump.bytes += n;
+                chunker.update(buf, 0, n);
+                dump.progress(t0);
+            }
+            chunker.finish();
+            dump.drain();
+            dump.failIfBroken();
+        }
+    }
+
+    /**
+     * A plain local file is not read at all on this thread: the file is mapped, cut into regions
+     * at game boundaries in parallel and each region is split and parsed by a pool worker.
+     */
+    private void readMapped(Path path, Dump dump, long t0) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            try {
+                for (MappedPgnSplitter.Region region : MappedPgnSplitter.regions(file, 0, file.size(), chunkBytes, pool)) {
+                    dump.bytes += region.length();
+                    dump.submit(onGame -> MappedPgnSplitter.games(file, region, onGame));
+                    dump.progress(t0);
+                }
+            } finally {
+                // workers read the mapping until they are done
+                dump.drain();
+            }
+            dump.failIfBroken();
+        }
+    }
+
+    private InputStream open(String source) throws IOException {
+        InputStream raw;
+        if (isUrl(source)) {
+            try {
+                raw = get(allowedUrl(source));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted opening " + source, e);
+            }
+        } else {
+            raw = Files.newInputStream(resolveLocal(source));
+        }
+        InputStream in = new BufferedInputStream(raw, READ_SIZE);
+        return source.endsWith(".zst") ? new ZstdInputStream(in) : in;
+    }
+
+    /** Body of a 200 response to {@code uri}, following up to {@value #MAX_REDIRECTS} allowed redirects. */
+    private InputStream get(URI uri) throws IOException, InterruptedException {
+        for (int redirects = 0; ; redirects++) {
+            HttpResponse<InputStream> res = http.send(HttpRequest.newBuilder(uri).GET().build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            int status = res.statusCode();
+            if (status == 200) {
+                return res.body();
+            }
+            res.body().close();
+            String location = res.headers().firstValue("Location").orElse(null);
+            if (status / 100 != 3 || location == null || redirects == MAX_REDIRECTS) {
+                throw new IOException("GET " + uri + " returned " + status);
+            }
+            uri = allowedUrl(uri.resolve(location).toString());
+        }
+    }
+
+    /**
+     * {@code url} when the server may fetch it: https on the default port, no user info, and a
+     * host from {@code allowed-hosts}, so a source cannot point the server at internal services.
+     *
+     * @throws IllegalArgumentException otherwise
+     */
+    private URI allowedUrl(String url) {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("malformed source URL: " + e.getMessage());
+        }
+        String host = uri.getHost();
+        if (!"https".equalsIgnoreCase(uri.getScheme()) || host == null || uri.getRawUserInfo() != null
+                || (uri.getPort() != -1 && uri.getPort() != 443)
+                || !allowedHosts.contains(host.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("source URL must be https on one of " + allowedHosts);
+        }
+        return uri;
+    }
+
+    private Path resolveLocal(String source) {
+        Path path = localRoot.resolve(source).normalize();
+        if (!path.startsWith(localRoot)) {
+            throw new IllegalArgumentException("source must be below " + localRoot);
+        }
+        return path;
+    }
+
+    private static boolean isUrl(String source) {
+        return source.startsWith("https://") || source.startsWith("http://");
+    }
+
+    /** State of one dump: chunks in flight, running totals and what has been reported so far. */
+    private final class Dump {
+        final UUID runId;
+        final UUID userId;
+        final Map<String, String> mdc;
+        final Semaphore inFlight = new Semaphore(maxChunksInFlight);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicLong games = new AtomicLong();
+        final AtomicLong moves = new AtomicLong();
+        final AtomicLong positions = new AtomicLong();
+        final AtomicLong duplicates = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        long bytes;
+        Reported reported = new Reported(0, 0, GameIngestService.Stats.EMPTY);
+
+        Dump(UUID runId, UUID userId, Map<String, String> mdc) {
+            this.runId = runId;
+            this.userId = userId;
+            this.mdc = mdc;
+        }
+
+        /** Reader thread: hand a chunk to the pool, blocking while too many are in flight. */
+        void submit(Consumer<Consumer<String>> chunk) {
+            inFlight.acquireUninterruptibly();
+            if (failure.get() != null) {
+                inFlight.release();
+                return;
+            }
+            pool.execute(() -> {
+                if (mdc != null) MDC.setContextMap(mdc);
+                try {
+                    parseAndWrite(chunk);
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    MDC.clear();
+                    inFlight.release();
+                }
+            });
+        }
+
+        /** Pool worker: parse the games of a chunk and write them in batches. */
+        void parseAndWrite(Consumer<Consumer<String>> chunk) {
+            List<ParsedGame> batch = new ArrayList<>(Math.min(batchSize, 4096));
+            chunk.accept(pgn -> {
+                try {
+                    batch.add(parser.parse(pgn));
+                } catch (RuntimeException e) {
+                    skipped.incrementAndGet();
+                    parseErrors.increment();
+                    log.debug("parse skipped game error={}", e.toString());
+                    return;
+                }
+                if (batch.size() >= batchSize) {
+                    write(batch);
+                }
+            });
+            write(batch);
+        }
+
+        void write(List<ParsedGame> batch) {
+            if (batch.isEmpty()) return;
+            writers.acquireUninterruptibly();
+            GameBatchWriter.BatchResult r;
+            try {
+                r = writer.write(userId, owner, Platform.LICHESS, batch);
+            } finally {
+                writers.release();
+            }
+            batch.clear();
+            games.addAndGet(r.games());
+            moves.addAndGet(r.moves());
+            positions.addAndGet(r.positions());
+            duplicates.addAndGet(r.duplicates());
+            gamesCounter.increment(r.games());
+            movesCounter.increment(r.moves());
+            positionsCounter.increment(r.positions());
+        }
+
+        /** Wait for every submitted chunk. */
+        void drain() {
+            inFlight.acquireUninterruptibly(maxChunksInFlight);
+            inFlight.release(maxChunksInFlight);
+        }
+
+        /** Reader thread: stop on a failed chunk, report every {@code progress-bytes}. */
+        void progress(long t0) {
+            failIfBroken();
+            if (bytes - reported.bytes() >= progressBytes) {
+                report(t0, false);
+            }
+        }
+
+        void failIfBroken() {
+            Throwable t = failure.get();
+            if (t instanceof RuntimeException re) throw re;
+            if (t instanceof Error e) throw e;
+            if (t != null) throw new IllegalStateException(t);
+        }
+
+        GameIngestService.Stats snapshot() {
+            return new GameIngestService.Stats(games.get(), moves.get(), positions.get(), duplicates.get(), skipped.get());
+        }
+
+        /** Add what was written since the last report to the run and log the sustained rate. */
+        void report(long t0, boolean last) {
+            long now = System.nanoTime();
+            GameIngestService.Stats total = snapshot();
+            GameIngestService.Stats prev = reported.parsed();
+            runs.addProgress(runId, last ? 1 : 0, bytes - reported.bytes(), total.games() - prev.games(),
+                    total.moves() - prev.moves(), total.positions() - prev.positions());
+            bytesCounter.increment(bytes - reported.bytes());
+            double window = Math.max(1e-3, (now - (reported.nanos() == 0 ? t0 : reported.nanos())) / 1e9);
+            long rate = Math.round((total.games() - prev.games()) / window);
+            gamesPerSecond.set(last ? 0 : rate);
+            if (!last) {
+                log.info("lichess progress bytes={} games={} games_per_s={} avg_games_per_s={}", bytes, total.games(),
+                        rate, Math.round(total.games() / Math.max(1e-3, (now - t0) / 1e9)));
+            }
+            reported = new Reported(now, bytes, total);
+            events.publish(IngestEvent.progress(runId, bytes, total));
+        }
+    }
+
+    private record Reported(long nanos, long bytes, GameIngestService.Stats parsed) {}
+
+    /** Totals of a dump; {@code bytes} are decompressed PGN bytes. */
+    public record Result(long bytes, GameIngestService.Stats parsed, double seconds) {
+        public double gamesPerSecond() {
+            return parsed.games() / Math.max(1e-3, seconds);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.chessapp.api.serving;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -20,6 +21,7 @@ import org.springframework.web.reactive.function.client.WebClientRequestExceptio
 import com.chessapp.api.serving.dto.ModelsLoadRequest;
 import com.chessapp.api.serving.dto.PredictRequest;
 import com.chessapp.api.serving.dto.PredictResponse;
+import com.chessapp.api.service.position.LegalMoveService;
 import com.chessapp.api.storage.MinioStorageService;
 
 import io.micrometer.core.instrument.Counter;
@@ -37,20 +39,28 @@ public class ServingController {
     private final MeterRegistry registry;
     private final String defaultUsername;
     private final MinioStorageService storage;
+    private final LegalMoveService legalMoves;
 
     public ServingController(ServingClient client, MeterRegistry registry,
                              @Value("${chs.default-username:M3NG00S3}") String defaultUsername,
-                             MinioStorageService storage) {
+                             MinioStorageService storage, LegalMoveService legalMoves) {
         this.client = client;
         this.registry = registry;
         this.defaultUsername = defaultUsername;
         this.storage = storage;
+        this.legalMoves = legalMoves;
     }
 
     @PostMapping("/predict")
     public ResponseEntity<?> predict(@Valid @RequestBody PredictRequest body,
                                      @RequestHeader(value = "X-Run-Id", required = false) String runId,
                                      @RequestHeader(value = "X-Username", required = false) String username) {
+        List<String> legal;
+        try {
+            legal = body.fen() != null ? legalMoves.of(body.fen()) : List.of();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
         String rid = runId != null ? runId : UUID.randomUUID().toString();
         String user = username != null ? username : defaultUsername;
         MDC.put("run_id", rid);
@@ -59,7 +69,10 @@ public class ServingController {
         log.info("event=predict.requested");
         Timer.Sample sample = Timer.start(registry);
         try {
-            PredictResponse resp = client.predict(body, rid, user);
+            PredictResponse upstream = client.predict(body, rid, user);
+            // legal moves come from our move generator, not from whatever the model server sends
+            PredictResponse resp = new PredictResponse(upstream.move(), legal, upstream.modelId(),
+                    upstream.modelVersion());
             String modelId = resp.modelId() != null ? resp.modelId() : "unknown";
             String modelVersion = resp.modelVersion() != null ? resp.modelVersion() : "0";
             sample.stop(Timer.builder("chs_predict_latency_seconds")
@@ -51,6 +51,15 @@ public class MinioStorageService {
         writes.increment();
     }
 
+    /**
+     * Open a streaming multipart upload to an explicit bucket. Heap usage is bounded by one
+     * part regardless of the object size.
+     */
+    public S3MultipartOutputStream openStream(String bucket, String key, String contentType) {
+        return new S3MultipartOutputStream(s3, bucket, key, contentType,
+                S3MultipartOutputStream.DEFAULT_PART_SIZE, writes::increment);
+    }
+
     public byte[] read(String bucket, String key) {
         try {
             var obj = s3.getObject(b -> b.bucket(bucket).key(key));
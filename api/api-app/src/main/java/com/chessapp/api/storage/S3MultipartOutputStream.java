@@ -0,0 +1,167 @@
+package com.chessapp.api.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+/**
+ * OutputStream that uploads to S3/Minio as a multipart upload.
+ * <p>
+ * At most one part is held in memory; objects smaller than a single part are written
+ * with a plain PUT on {@link #close()}. Call {@link #abort()} instead of {@code close()}
+ * when the producer failed, otherwise a truncated object would be committed.
+ */
+public class S3MultipartOutputStream extends OutputStream {
+
+    private static final Logger log = LoggerFactory.getLogger(S3MultipartOutputStream.class);
+
+    /** S3 requires at least 5 MiB for every part but the last one. */
+    public static final int DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String key;
+    private final String contentType;
+    private final Runnable onComplete;
+    private final byte[] buf;
+    private int pos;
+
+    private String uploadId;
+    private final List<CompletedPart> parts = new ArrayList<>();
+    private long bytesWritten;
+    private boolean closed;
+
+    S3MultipartOutputStream(S3Client s3, String bucket, String key, String contentType,
+                            int partSize, Runnable onComplete) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.key = key;
+        this.contentType = contentType;
+        this.onComplete = onComplete;
+        this.buf = new byte[partSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (pos == buf.length) {
+            uploadPart();
+        }
+        buf[pos++] = (byte) b;
+        bytesWritten++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (pos == buf.length) {
+                uploadPart();
+            }
+            int n = Math.min(len, buf.length - pos);
+            System.arraycopy(b, off, buf, pos, n);
+            pos += n;
+            off += n;
+            len -= n;
+            bytesWritten += n;
+        }
+    }
+
+    /** Total bytes accepted so far (uploaded or buffered). */
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    /** Number of parts uploaded so far; 0 while the object still fits in the buffer. */
+    public int partsUploaded() {
+        return parts.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (uploadId == null) {
+                PutObjectRequest req = PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .build();
+                s3.putObject(req, body());
+            } else {
+                if (pos > 0) {
+                    uploadPartUnchecked();
+                }
+                s3.completeMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId)
+                        .multipartUpload(m -> m.parts(parts)));
+            }
+        } catch (RuntimeException e) {
+            abortQuietly();
+            throw new IOException("upload failed bucket=" + bucket + " key=" + key, e);
+        }
+        log.info("write bucket={} key={} size={}B parts={} contentType={}",
+                bucket, key, bytesWritten, Math.max(parts.size(), 1), contentType);
+        onComplete.run();
+    }
+
+    /** Discard everything written so far; nothing is committed to the bucket. */
+    public void abort() {
+        if (closed) return;
+        closed = true;
+        abortQuietly();
+    }
+
+    private void abortQuietly() {
+        if (uploadId == null) return;
+        try {
+            s3.abortMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId));
+        } catch (RuntimeException e) {
+            log.warn("abort multipart failed bucket={} key={} error={}", bucket, key, e.toString());
+        }
+    }
+
+    private void uploadPart() throws IOException {
+        try {
+            uploadPartUnchecked();
+        } catch (RuntimeException e) {
+            closed = true;
+            abortQuietly();
+            throw new IOException("upload part failed bucket=" + bucket + " key=" + key, e);
+        }
+    }
+
+    private void uploadPartUnchecked() {
+        if (uploadId == null) {
+            uploadId = s3.createMultipartUpload(b -> b.bucket(bucket).key(key).contentType(contentType))
+                    .uploadId();
+        }
+        int partNumber = parts.size() + 1;
+        String etag = s3.uploadPart(b -> b.bucket(bucket).key(key).uploadId(uploadId)
+                        .partNumber(partNumber).contentLength((long) pos), body())
+                .eTag();
+        parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+        pos = 0;
+    }
+
+    /** Wraps the live buffer without copying it (RequestBody.fromBytes would copy). */
+    private RequestBody body() {
+        return RequestBody.fromInputStream(new ByteArrayInputStream(buf, 0, pos), pos);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("stream closed");
+        }
+    }
+}
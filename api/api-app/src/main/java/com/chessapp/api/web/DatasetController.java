@@ -214,7 +214,8 @@ public class DatasetController {
         } catch (Exception e) { return ResponseEntity.notFound().build(); }
         if (version != null && !version.isBlank()) {
             try {
-                SchemaDto fromProfile = profileService.loadSchema(dataset != null ? dataset.getId().toString() : id, version);
+                SchemaDto fromProfile = profileService.loadSchema(dataset != null ? dataset.getId().toString() : id,
+                        dataset != null ? dataset.getName() : id, version);
                 if (fromProfile != null && fromProfile.columns() != null && !fromProfile.columns().isEmpty()) {
                     return ResponseEntity.ok(fromProfile);
                 }
@@ -254,7 +255,7 @@ public class DatasetController {
             if (dataset == null) return ResponseEntity.notFound().build();
         } catch (Exception e) { return ResponseEntity.notFound().build(); }
         if (version != null && !version.isBlank()) {
-            try { return ResponseEntity.ok(profileService.loadQuality(dataset.getId().toString(), version)); }
+            try { return ResponseEntity.ok(profileService.loadQuality(dataset.getId().toString(), dataset.getName(), version)); }
             catch (Exception ignored) { }
         }
         return ResponseEntity.ok(new QualityDto(0.0, 0.0, 0.0));
@@ -0,0 +1,7 @@
+-- Watch-folder ingest: bytes of each PGN file already parsed and written, so a restart only
+-- reads what was appended since.
+CREATE TABLE IF NOT EXISTS ingest_watch_files (
+  path         text PRIMARY KEY,
+  offset_bytes bigint NOT NULL,
+  updated_at   timestamptz NOT NULL DEFAULT now()
+);
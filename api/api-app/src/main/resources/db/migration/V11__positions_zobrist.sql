@@ -0,0 +1,5 @@
+-- Zobrist hash per position (ZobristHash, computed at ingest), so "which games reached this
+-- position" is an index lookup instead of a scan over fen. Rows written before this migration
+-- keep NULL and are not found; the partial index leaves them out, so it starts out empty.
+ALTER TABLE positions ADD COLUMN IF NOT EXISTS zobrist bigint;
+CREATE INDEX IF NOT EXISTS idx_positions_zobrist_game ON positions (zobrist, game_id) WHERE zobrist IS NOT NULL;
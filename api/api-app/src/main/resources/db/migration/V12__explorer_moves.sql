@@ -0,0 +1,20 @@
+-- Opening explorer: counts per (position before the move, owner bucket, time-control bucket,
+-- move), added to by GameBulkLoader in the same statement that inserts the games, so they match
+-- the stored games without recomputing anything from games.pgn. Buckets: user_id
+-- 00000000-0000-0000-0000-000000000000 = all users, time_category 'ALL' = all time controls
+-- ('UNKNOWN' when the game has none); every game counts in all four combinations. Only the
+-- first chess.explorer.max-ply plies are counted.
+CREATE TABLE IF NOT EXISTS explorer_moves (
+  zobrist               bigint NOT NULL,
+  user_id               uuid   NOT NULL,
+  time_category         text   NOT NULL,
+  uci                   text   NOT NULL,
+  san                   text   NOT NULL,
+  games                 bigint NOT NULL DEFAULT 0,
+  white_wins            bigint NOT NULL DEFAULT 0,
+  draws                 bigint NOT NULL DEFAULT 0,
+  black_wins            bigint NOT NULL DEFAULT 0,
+  opponent_rating_sum   bigint NOT NULL DEFAULT 0,
+  opponent_rating_count bigint NOT NULL DEFAULT 0,
+  PRIMARY KEY (zobrist, user_id, time_category, uci)
+);
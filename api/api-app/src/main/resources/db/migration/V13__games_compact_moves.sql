@@ -0,0 +1,8 @@
+-- Compact move storage (MoveCodec): one byte per ply indexing the legal moves, plus clock deltas
+-- as varints. Ingest fills both for new games and keeps the PGN text only with
+-- chess.ingest.storage.keep-pgn; GET /v1/games/{id} rebuilds it from the columns when it is NULL.
+-- Existing rows keep their text and have no encoding, so every game still has one of the two.
+ALTER TABLE games ADD COLUMN IF NOT EXISTS moves_bin bytea;
+ALTER TABLE games ADD COLUMN IF NOT EXISTS clocks_bin bytea;
+ALTER TABLE games ALTER COLUMN pgn DROP NOT NULL;
+ALTER TABLE games ADD CONSTRAINT games_pgn_or_moves CHECK (pgn IS NOT NULL OR moves_bin IS NOT NULL);
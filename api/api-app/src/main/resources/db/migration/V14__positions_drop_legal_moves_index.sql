@@ -0,0 +1,5 @@
+-- Legal moves are generated on read (LegalMoveService, cached by zobrist) instead of stored per
+-- ply, so ingest no longer writes positions.legal_moves and new rows keep the '[]' default.
+-- Nothing queries the column any more; its GIN index only cost space and insert time.
+-- Existing values are left in place and ignored.
+DROP INDEX IF EXISTS idx_positions_legal_gin;
@@ -0,0 +1,2 @@
+-- Watch-folder self-play games get their own platform instead of mixing with chess.com games.
+ALTER TYPE platform ADD VALUE IF NOT EXISTS 'SELFPLAY';
@@ -0,0 +1,7 @@
+-- Ingest checkpoints per (dataset, version): a version is complete once its raw.pgn is stored
+-- and parsed. Validators allow conditional re-downloads of months that can still change.
+ALTER TABLE dataset_versions
+    ADD COLUMN IF NOT EXISTS content_sha256 text,
+    ADD COLUMN IF NOT EXISTS etag text,
+    ADD COLUMN IF NOT EXISTS last_modified text,
+    ADD COLUMN IF NOT EXISTS completed_at timestamptz;
@@ -0,0 +1,17 @@
+-- Durable ingest queue: one row per run waiting for or held by a worker. Workers claim with
+-- FOR UPDATE SKIP LOCKED and extend lease_until by heartbeat; an expired lease makes the job
+-- claimable again. Rows are deleted once the run reached a final status.
+CREATE TABLE IF NOT EXISTS ingest_jobs (
+  run_id       uuid PRIMARY KEY REFERENCES ingest_runs(id) ON DELETE CASCADE,
+  enqueued_at  timestamptz NOT NULL DEFAULT now(),
+  attempts     integer NOT NULL DEFAULT 0,
+  locked_by    text,
+  lease_until  timestamptz,
+  heartbeat_at timestamptz
+);
+CREATE INDEX IF NOT EXISTS idx_ingest_jobs_enqueued ON ingest_jobs(enqueued_at);
+
+-- Runs left behind by the in-memory executor (lost on restart) go back into the queue.
+INSERT INTO ingest_jobs (run_id, enqueued_at)
+SELECT id, started_at FROM ingest_runs WHERE status IN ('PENDING', 'RUNNING')
+ON CONFLICT (run_id) DO NOTHING;
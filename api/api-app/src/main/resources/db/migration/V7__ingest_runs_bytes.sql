@@ -0,0 +1,2 @@
+-- Bytes read by a run (uploaded body or downloaded months), for progress reporting.
+ALTER TABLE ingest_runs ADD COLUMN IF NOT EXISTS bytes_read bigint DEFAULT 0;
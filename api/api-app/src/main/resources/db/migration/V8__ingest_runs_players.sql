@@ -0,0 +1,2 @@
+-- Bulk chess.com runs cover many players; single-player runs keep using username.
+ALTER TABLE ingest_runs ADD COLUMN IF NOT EXISTS players jsonb;
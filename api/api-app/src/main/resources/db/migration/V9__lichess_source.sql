@@ -0,0 +1,4 @@
+-- Lichess database dumps are ingested as a second platform.
+ALTER TYPE platform ADD VALUE IF NOT EXISTS 'LICHESS';
+-- Dump runs read a file or URL instead of chess.com months.
+ALTER TABLE ingest_runs ADD COLUMN IF NOT EXISTS source text;
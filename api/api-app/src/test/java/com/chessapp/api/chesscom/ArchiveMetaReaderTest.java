@@ -0,0 +1,80 @@
+package com.chessapp.api.chesscom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.chessapp.api.chesscom.service.ArchiveMetaReader;
+import com.chessapp.api.chesscom.service.ChessComService;
+
+class ArchiveMetaReaderTest {
+
+    private static final String ARCHIVE = """
+            {"meta": {"time_class": "outside", "games": [{"time_class": "nested"}]},
+             "games": [
+               {"url": "https://www.chess.com/game/live/1",
+                "pgn": "[Event \\"Live Chess\\"]\\n1. e4 {\\"}]\\"} e5 *",
+                "time_class": "blitz",
+                "white": {"username": "a", "time_class": "not-a-game-field"},
+                "accuracies": [{"white": 90.1}]},
+               {"time_class": "rapid", "rated": true, "fen": null},
+               {"time_class": "blitz"},
+               {}
+             ],
+             "after": {"games": [{}]}}
+            """;
+
+    @Test
+    void counts_games_of_the_top_level_array_across_any_buffer_split() {
+        byte[] bytes = ARCHIVE.getBytes(StandardCharsets.UTF_8);
+        for (int step : new int[] {1, 2, 7, 64, bytes.length}) {
+            ArchiveMetaReader reader = new ArchiveMetaReader();
+            for (int off = 0; off < bytes.length; off += step) {
+                reader.feed(ByteBuffer.wrap(bytes, off, Math.min(step, bytes.length - off)));
+            }
+            ChessComService.ArchiveMeta meta = reader.finish();
+            assertThat(meta.count()).as("step %d", step).isEqualTo(4);
+            assertThat(meta.timeControlDist()).isEqualTo(Map.of("blitz", 2, "rapid", 1));
+        }
+    }
+
+    @Test
+    void reads_data_buffers_and_handles_an_empty_body() {
+        var buffer = DefaultDataBufferFactory.sharedInstance.wrap("{\"games\":[]}".getBytes(StandardCharsets.UTF_8));
+        assertThat(new ArchiveMetaReader().feed(buffer).finish().count()).isZero();
+
+        assertThat(new ArchiveMetaReader().finish()).isEqualTo(new ChessComService.ArchiveMeta(0, Map.of()));
+    }
+
+    @Test
+    void heavy_month_is_read_in_small_buffers() {
+        String pgn = "1. e4 e5 ".repeat(400);
+        StringBuilder json = new StringBuilder("{\"games\":[");
+        for (int i = 0; i < 5_000; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"pgn\":\"").append(pgn).append("\",\"time_class\":\"")
+                    .append(i % 5 == 0 ? "bullet" : "blitz").append("\"}");
+        }
+        byte[] bytes = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+
+        ArchiveMetaReader reader = new ArchiveMetaReader();
+        for (int off = 0; off < bytes.length; off += 8_192) {
+            reader.feed(ByteBuffer.wrap(bytes, off, Math.min(8_192, bytes.length - off)));
+        }
+        assertThat(reader.finish().timeControlDist()).isEqualTo(Map.of("bullet", 1_000, "blitz", 4_000));
+    }
+
+    @Test
+    void malformed_json_fails() {
+        ArchiveMetaReader reader = new ArchiveMetaReader();
+        assertThatThrownBy(() -> reader.feed(ByteBuffer.wrap("{\"games\":[}".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+}
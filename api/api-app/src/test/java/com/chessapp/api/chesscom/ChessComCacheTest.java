@@ -0,0 +1,109 @@
+package com.chessapp.api.chesscom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.chessapp.api.chesscom.service.ChessComService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class ChessComCacheTest {
+
+    private static final String ARCHIVES = """
+            {"archives":["https://api.chess.com/pub/player/alice/games/2024/01",
+                         "https://api.chess.com/pub/player/alice/games/2024/02"]}""";
+    private static final String MONTH = """
+            {"games":[{"time_class":"blitz"},{"time_class":"rapid"}]}""";
+
+    private MockWebServer upstream;
+    private SimpleMeterRegistry registry;
+    private ChessComService service;
+
+    @BeforeEach
+    void start() throws Exception {
+        upstream = new MockWebServer();
+        upstream.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                if (path.startsWith("/pub/player/ghost/")) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                String body = path.endsWith("/archives") ? ARCHIVES : MONTH;
+                return new MockResponse().setBody(body).setHeadersDelay(200, TimeUnit.MILLISECONDS);
+            }
+        });
+        upstream.start();
+        registry = new SimpleMeterRegistry();
+        service = new ChessComService(upstream.url("/").toString(), 4, 1_000, 1_000,
+                Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofDays(30), 100, registry);
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        upstream.shutdown();
+    }
+
+    @Test
+    void concurrent_identical_requests_share_one_upstream_call() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(pool.submit(() -> service.listArchives("alice")));
+            }
+            for (Future<List<String>> call : calls) {
+                assertThat(call.get(10, TimeUnit.SECONDS)).containsExactly("2024-01", "2024-02");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(upstream.getRequestCount()).isEqualTo(1);
+
+        // later calls, also with a different spelling of the name, are hits
+        assertThat(service.listArchives("Alice")).containsExactly("2024-01", "2024-02");
+        assertThat(upstream.getRequestCount()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "chesscom_archives").tag("result", "hit")
+                .functionCounter().count()).isGreaterThanOrEqualTo(1.0);
+    }
+
+    @Test
+    void month_meta_is_cached_per_month() {
+        var expected = new ChessComService.ArchiveMeta(2, Map.of("blitz", 1, "rapid", 1));
+        assertThat(service.meta("alice", 2024, 1)).isEqualTo(expected);
+        assertThat(service.meta("alice", 2024, 1)).isEqualTo(expected);
+        assertThat(upstream.getRequestCount()).isEqualTo(1);
+
+        YearMonth now = YearMonth.now(ZoneOffset.UTC);
+        service.meta("alice", now.getYear(), now.getMonthValue());
+        service.meta("alice", now.getYear(), now.getMonthValue());
+        assertThat(upstream.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void failures_are_not_cached() {
+        assertThatThrownBy(() -> service.listArchives("ghost")).isInstanceOf(WebClientResponseException.NotFound.class);
+        assertThatThrownBy(() -> service.listArchives("ghost")).isInstanceOf(WebClientResponseException.NotFound.class);
+        assertThat(upstream.getRequestCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,188 @@
+package com.chessapp.api.chesscom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.chesscom.service.ChessComDownloader;
+import com.chessapp.api.chesscom.service.ChessComIngestService;
+import com.chessapp.api.chesscom.service.ChessComService;
+import com.chessapp.api.data.ingest.IngestRunRepository;
+import com.chessapp.api.datasets.service.DatasetCatalogService;
+import com.chessapp.api.ingest.pgn.PgnStatsCollector;
+import com.chessapp.api.ingest.service.GameIngestService;
+import com.chessapp.api.ingest.service.IngestEventBus;
+import com.chessapp.api.ingest.service.IngestReportService;
+import com.chessapp.api.storage.MinioStorageService;
+import com.chessapp.api.storage.S3MultipartOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.scheduler.Schedulers;
+
+class ChessComIngestPipelineTest {
+
+    private final ChessComDownloader downloader = mock(ChessComDownloader.class);
+    private final ChessComService chessCom = mock(ChessComService.class);
+    private final MinioStorageService storage = mock(MinioStorageService.class);
+    private final DatasetCatalogService catalog = mock(DatasetCatalogService.class);
+    private final IngestRunRepository runs = mock(IngestRunRepository.class);
+    private final GameIngestService gameIngest = mock(GameIngestService.class);
+    private final IngestReportService reports = mock(IngestReportService.class);
+
+    private ChessComIngestService service(int maxInFlight) {
+        when(storage.openStream(anyString(), anyString(), anyString()))
+                .thenAnswer(inv -> mock(S3MultipartOutputStream.class));
+        when(gameIngest.open(anyString(), any())).thenAnswer(inv -> {
+            var session = mock(GameIngestService.Session.class);
+            when(session.stats()).thenReturn(GameIngestService.Stats.EMPTY);
+            return session;
+        });
+        return new ChessComIngestService(downloader, chessCom, storage, catalog, runs, gameIngest,
+                new IngestEventBus(new SimpleMeterRegistry()), new ObjectMapper(), reports, new SimpleMeterRegistry(),
+                Schedulers.boundedElastic(),
+                maxInFlight, maxInFlight);
+    }
+
+    @Test
+    void catalogs_in_month_order_even_when_later_months_finish_first() throws IOException {
+        YearMonth jan = YearMonth.of(2024, 1);
+        YearMonth feb = YearMonth.of(2024, 2);
+        YearMonth mar = YearMonth.of(2024, 3);
+        // January is the slowest download
+        when(downloader.streamMonth(eq("bob"), eq(jan), any(), any(), any())).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return stream(10, 1);
+        });
+        when(downloader.streamMonth(eq("bob"), eq(feb), any(), any(), any())).thenReturn(stream(20, 2));
+        when(downloader.streamMonth(eq("bob"), eq(mar), any(), any(), any())).thenReturn(stream(30, 3));
+
+        UUID runId = UUID.randomUUID();
+        var results = service(3).ingest(runId, "ds", "bob", List.of(jan, feb, mar));
+
+        assertThat(results).extracting(ChessComIngestService.MonthResult::month).containsExactly(jan, feb, mar);
+        assertThat(results).allMatch(ChessComIngestService.MonthResult::ok);
+        var order = inOrder(catalog);
+        order.verify(catalog).addVersion(eq("ds"), eq("v2024-01"), eq(1L), eq(10L), any());
+        order.verify(catalog).addVersion(eq("ds"), eq("v2024-02"), eq(2L), eq(20L), any());
+        order.verify(catalog).addVersion(eq("ds"), eq("v2024-03"), eq(3L), eq(30L), any());
+        verify(runs, times(3)).addProgress(eq(runId), eq(1L), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(runs, never()).save(any());
+        verify(storage).write(eq("datasets"), eq("ds/v2024-02/profile.json"), any(), eq("application/json"));
+        verify(reports, times(3)).record(any());
+        assertThat(results).allMatch(r -> r.timings().isDone());
+    }
+
+    @Test
+    void failed_month_is_reported_without_stopping_the_others() throws IOException {
+        YearMonth jan = YearMonth.of(2024, 1);
+        YearMonth feb = YearMonth.of(2024, 2);
+        when(downloader.streamMonth(eq("bob"), eq(jan), any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+        when(downloader.streamMonth(eq("bob"), eq(feb), any(), any(), any())).thenReturn(stream(20, 2));
+
+        var results = service(2).ingest(UUID.randomUUID(), "ds", "bob", List.of(jan, feb));
+
+        assertThat(results.get(0).ok()).isFalse();
+        assertThat(results.get(0).error()).contains("boom");
+        assertThat(results.get(1).ok()).isTrue();
+        verify(catalog, never()).addVersion(eq("ds"), eq("v2024-01"), anyLong(), anyLong(), any());
+        verify(catalog).addVersion(eq("ds"), eq("v2024-02"), eq(2L), eq(20L), any());
+    }
+
+    @Test
+    void completed_past_month_is_skipped_and_current_month_is_conditional() throws IOException {
+        YearMonth past = YearMonth.of(2024, 1);
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        Instant afterPast = past.plusMonths(1).atDay(2).atStartOfDay(ZoneOffset.UTC).toInstant();
+        when(catalog.checkpoint("ds", "v" + past)).thenReturn(Optional.of(
+                new DatasetCatalogService.Checkpoint("aa", "\"e1\"", null, 10, afterPast)));
+        when(catalog.checkpoint("ds", "v" + current)).thenReturn(Optional.of(
+                new DatasetCatalogService.Checkpoint("bb", "\"e2\"", "Mon, 01 Jan 2024 00:00:00 GMT", 20,
+                        Instant.now())));
+        when(downloader.streamMonth(eq("bob"), eq(current), any(), eq("\"e2\""), eq("Mon, 01 Jan 2024 00:00:00 GMT")))
+                .thenReturn(new ChessComDownloader.MonthStream(0, 0, null, "\"e2\"", null, true, null));
+
+        var results = service(2).ingest(UUID.randomUUID(), "ds", "bob", List.of(past, current));
+
+        assertThat(results).allMatch(ChessComIngestService.MonthResult::skipped);
+        verify(downloader, never()).streamMonth(eq("bob"), eq(past), any(), any(), any());
+        verify(catalog, never()).addVersion(anyString(), anyString(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void bulk_interleaves_players_round_robin_and_reports_discovery_failures() throws IOException {
+        when(chessCom.listArchives("alice")).thenReturn(List.of("2023-12", "2024-01", "2024-02", "2024-03"));
+        when(chessCom.listArchives("bob")).thenReturn(List.of("2024-02"));
+        when(chessCom.listArchives("carol")).thenThrow(new IllegalStateException("404"));
+        when(downloader.streamMonth(anyString(), any(), any(), any(), any())).thenReturn(stream(10, 1));
+        UUID runId = UUID.randomUUID();
+
+        // one in flight: the download order is exactly the schedule
+        var result = service(1).ingestBulk(runId, List.of("alice", "bob", "carol"),
+                YearMonth.of(2024, 1), YearMonth.of(2024, 3));
+
+        var order = inOrder(downloader);
+        order.verify(downloader).streamMonth(eq("alice"), eq(YearMonth.of(2024, 1)), any(), any(), any());
+        order.verify(downloader).streamMonth(eq("bob"), eq(YearMonth.of(2024, 2)), any(), any(), any());
+        order.verify(downloader).streamMonth(eq("alice"), eq(YearMonth.of(2024, 2)), any(), any(), any());
+        order.verify(downloader).streamMonth(eq("alice"), eq(YearMonth.of(2024, 3)), any(), any(), any());
+        verify(downloader, never()).streamMonth(eq("alice"), eq(YearMonth.of(2023, 12)), any(), any(), any());
+
+        assertThat(result.months()).hasSize(4).allMatch(ChessComIngestService.MonthResult::ok);
+        assertThat(result.discoveryErrors()).containsOnlyKeys("carol");
+        verify(catalog).addVersion(eq("chesscom_bob"), eq("v2024-02"), eq(1L), eq(10L), any());
+        verify(runs, times(4)).addProgress(eq(runId), eq(1L), eq(10L), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void bulk_commits_each_players_months_in_month_order() throws IOException {
+        YearMonth jan = YearMonth.of(2024, 1);
+        YearMonth feb = YearMonth.of(2024, 2);
+        YearMonth mar = YearMonth.of(2024, 3);
+        when(chessCom.listArchives("alice")).thenReturn(List.of("2024-01", "2024-02", "2024-03"));
+        when(chessCom.listArchives("bob")).thenReturn(List.of("2024-01"));
+        // alice's January finishes last
+        when(downloader.streamMonth(eq("alice"), eq(jan), any(), any(), any())).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return stream(10, 1);
+        });
+        when(downloader.streamMonth(eq("alice"), eq(feb), any(), any(), any())).thenReturn(stream(20, 2));
+        when(downloader.streamMonth(eq("alice"), eq(mar), any(), any(), any())).thenReturn(stream(30, 3));
+        when(downloader.streamMonth(eq("bob"), eq(jan), any(), any(), any())).thenReturn(stream(40, 4));
+
+        var result = service(4).ingestBulk(UUID.randomUUID(), List.of("alice", "bob"), jan, mar);
+
+        var order = inOrder(catalog);
+        order.verify(catalog).addVersion(eq("chesscom_alice"), eq("v2024-01"), eq(1L), eq(10L), any());
+        order.verify(catalog).addVersion(eq("chesscom_alice"), eq("v2024-02"), eq(2L), eq(20L), any());
+        order.verify(catalog).addVersion(eq("chesscom_alice"), eq("v2024-03"), eq(3L), eq(30L), any());
+        verify(catalog).addVersion(eq("chesscom_bob"), eq("v2024-01"), eq(4L), eq(40L), any());
+        assertThat(result.months()).filteredOn(r -> r.user().equals("alice"))
+                .extracting(ChessComIngestService.MonthResult::month).containsExactly(jan, feb, mar);
+        // bob did not wait for alice's slow month
+        assertThat(result.months().get(0).user()).isEqualTo("bob");
+    }
+
+    private static ChessComDownloader.MonthStream stream(long bytes, int games) {
+        return new ChessComDownloader.MonthStream(bytes, games, "sha", null, null, false, new PgnStatsCollector().profile());
+    }
+}
@@ -6,12 +6,18 @@ import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import software.amazon.awssdk.services.s3.S3Client;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.YearMonth;
+import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
@@ -46,4 +52,41 @@ class DownloaderTest {
         assertThat(meterRegistry.counter("chs_ingest_games_total").count()).isGreaterThan(0.0);
         assertThat(meterRegistry.counter("chs_ingest_bytes_total").count()).isGreaterThan(0.0);
     }
+
+    @Test
+    void streamMonth_counts_games_across_chunk_boundaries() throws Exception {
+        YearMonth ym = YearMonth.of(2024, 2);
+        String pgn = "[Event \"Game1\"]\n\n1. e4 e5 1-0\n\n[Event \"Game2\"]\n\n1. d4 d5 0-1\n";
+        byte[] bytes = pgn.getBytes(StandardCharsets.UTF_8);
+        int split = pgn.indexOf("[Event", 1) + 3; // cut the second tag in half
+        DefaultDataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+        when(service.streamPgn("carol", ym, null, null)).thenReturn(Mono.just(new ChessComService.PgnResponse(
+                false, "\"abc\"", null, Flux.just(
+                        factory.wrap(Arrays.copyOfRange(bytes, 0, split)),
+                        factory.wrap(Arrays.copyOfRange(bytes, split, bytes.length))))));
+
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        var dl = downloader.streamMonth("carol", ym, sink, null, null);
+
+        assertThat(dl.games()).isEqualTo(2);
+        assertThat(dl.bytes()).isEqualTo(bytes.length);
+        assertThat(sink.toByteArray()).isEqualTo(bytes);
+        assertThat(dl.sha256()).hasSize(64);
+        assertThat(dl.etag()).isEqualTo("\"abc\"");
+        assertThat(dl.notModified()).isFalse();
+        assertThat(dl.profile().games()).isEqualTo(2);
+    }
+
+    @Test
+    void streamMonth_reports_not_modified_for_conditional_request() throws Exception {
+        YearMonth ym = YearMonth.of(2024, 3);
+        when(service.streamPgn("carol", ym, "\"abc\"", null)).thenReturn(Mono.just(
+                new ChessComService.PgnResponse(true, "\"abc\"", null, Flux.empty())));
+
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        var dl = downloader.streamMonth("carol", ym, sink, "\"abc\"", null);
+
+        assertThat(dl.notModified()).isTrue();
+        assertThat(sink.size()).isZero();
+    }
 }
@@ -0,0 +1,60 @@
+package com.chessapp.api.chesscom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.chesscom.service.TokenBucket;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void spaces_requests_at_the_configured_rate() {
+        var bucket = new TokenBucket(1, 1);
+        long t0 = 0;
+        assertThat(bucket.reserve(t0)).isEqualTo(t0);
+        assertThat(bucket.reserve(t0)).isEqualTo(t0 + SECOND);
+        assertThat(bucket.reserve(t0)).isEqualTo(t0 + 2 * SECOND);
+        // after an idle period the next request goes through immediately
+        assertThat(bucket.reserve(t0 + 10 * SECOND)).isEqualTo(t0 + 10 * SECOND);
+    }
+
+    @Test
+    void burst_passes_back_to_back_then_spaces() {
+        var bucket = new TokenBucket(4, 4);
+        long quarter = SECOND / 4;
+        for (int i = 0; i < 4; i++) {
+            assertThat(bucket.reserve(0)).isZero();
+        }
+        assertThat(bucket.reserve(0)).isEqualTo(quarter);
+    }
+
+    @Test
+    void concurrent_callers_get_distinct_slots() throws InterruptedException {
+        var bucket = new TokenBucket(10, 1);
+        Set<Long> slots = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 200; i++) {
+            pool.submit(() -> {
+                start.await();
+                return slots.add(bucket.reserve(0));
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(slots).hasSize(200);
+        assertThat(slots).allMatch(s -> s % (SECOND / 10) == 0);
+    }
+}
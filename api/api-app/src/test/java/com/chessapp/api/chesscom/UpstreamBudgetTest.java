@@ -0,0 +1,65 @@
+package com.chessapp.api.chesscom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.chesscom.service.UpstreamBudget;
+
+import reactor.core.Disposable;
+
+class UpstreamBudgetTest {
+
+    private final UpstreamBudget budget = new UpstreamBudget(1);
+
+    @Test
+    void waiter_is_queued_without_a_thread_and_served_on_release() {
+        AtomicReference<UpstreamBudget.Permit> first = new AtomicReference<>();
+        AtomicReference<UpstreamBudget.Permit> second = new AtomicReference<>();
+        budget.acquire().subscribe(first::set);
+        // returns at once: the waiter is a queued signal, not a parked thread
+        budget.acquire().subscribe(second::set);
+
+        assertThat(first.get()).isNotNull();
+        assertThat(second.get()).isNull();
+        assertThat(budget.waiting()).isEqualTo(1);
+
+        first.get().release();
+        assertThat(second.get()).isNotNull();
+        assertThat(budget.available()).isZero();
+        second.get().release();
+        assertThat(budget.available()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelled_waiter_gives_up_its_place() {
+        AtomicReference<UpstreamBudget.Permit> held = new AtomicReference<>();
+        AtomicReference<UpstreamBudget.Permit> next = new AtomicReference<>();
+        budget.acquire().subscribe(held::set);
+        Disposable gaveUp = budget.acquire().subscribe(p -> {
+            throw new AssertionError("cancelled waiter was served");
+        });
+        budget.acquire().subscribe(next::set);
+
+        gaveUp.dispose();
+        assertThat(budget.waiting()).isEqualTo(1);
+        held.get().release();
+
+        assertThat(next.get()).isNotNull();
+        next.get().release();
+        assertThat(budget.available()).isEqualTo(1);
+    }
+
+    @Test
+    void release_is_idempotent() {
+        AtomicReference<UpstreamBudget.Permit> permit = new AtomicReference<>();
+        budget.acquire().subscribe(permit::set);
+
+        permit.get().release();
+        permit.get().release();
+
+        assertThat(budget.available()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.chessapp.api.chesscom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.chesscom.service.UpstreamThrottle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+
+class UpstreamThrottleTest {
+
+    @Test
+    void one_users_backlog_does_not_delay_other_users() {
+        // 2 per user and second, global budget to spare
+        var throttle = new UpstreamThrottle(100, 2, new SimpleMeterRegistry());
+        List<Disposable> queued = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // user a's slots reach 4.5 s into the future
+            queued.add(throttle.acquire("a").subscribe());
+        }
+
+        long start = System.nanoTime();
+        throttle.acquire("b").block(Duration.ofSeconds(5));
+        Duration waited = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(waited).isLessThan(Duration.ofMillis(250));
+        queued.forEach(Disposable::dispose);
+    }
+
+    @Test
+    void requests_of_one_user_are_spaced() {
+        var throttle = new UpstreamThrottle(100, 2, new SimpleMeterRegistry());
+        throttle.acquire("a").block(Duration.ofSeconds(5));
+
+        long start = System.nanoTime();
+        throttle.acquire("A").block(Duration.ofSeconds(5));
+        Duration waited = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(waited).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+    }
+}
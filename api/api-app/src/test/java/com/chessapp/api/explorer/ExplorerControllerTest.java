@@ -0,0 +1,126 @@
+package com.chessapp.api.explorer;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.chessapp.api.testutil.AbstractIntegrationTest;
+import com.chessapp.api.testutil.TestAuth;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+@SpringBootTest(properties = {"logging.config=classpath:logback-spring.xml"},
+        classes = com.chessapp.api.codex.CodexApplication.class)
+@AutoConfigureMockMvc
+class ExplorerControllerTest extends AbstractIntegrationTest {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String AFTER_E4 = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1";
+
+    private static final String GAME = """
+            [Event "Live Chess"]
+            [White "w"]
+            [Black "b"]
+            [Result "%s"]
+            [WhiteElo "%d"]
+            [BlackElo "%d"]
+            [TimeControl "%s"]
+            [Link "https://www.chess.com/game/live/%s"]
+
+            %s %s
+
+            """;
+
+    @Autowired MockMvc mvc;
+    @MockitoBean S3Client s3;
+
+    /** Owner of this test's games only, so counts are exact whatever else is in the database. */
+    private final String owner = "explorer-" + UUID.randomUUID().toString().substring(0, 8);
+
+    @BeforeEach
+    void ingest() throws Exception {
+        String pgn = game("1-0", 1500, 1600, "180+2", "1. e4 e5 2. Nf3")
+                + game("0-1", 1400, 1700, "60", "1. e4 c5")
+                + game("1/2-1/2", 1550, 1650, "180+2", "1. d4 d5");
+        mvc.perform(post("/v1/ingest").contentType("application/x-chess-pgn")
+                        .param("username", owner)
+                        .content(pgn.getBytes(StandardCharsets.UTF_8)).with(TestAuth.jwtUser()))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void counts_moves_results_and_opponent_rating_per_position() throws Exception {
+        mvc.perform(get("/v1/explorer").param("fen", START).param("username", owner).with(TestAuth.jwtUser()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games").value(3))
+                .andExpect(jsonPath("$.moves[0].uci").value("e2e4"))
+                .andExpect(jsonPath("$.moves[0].san").value("e4"))
+                .andExpect(jsonPath("$.moves[0].games").value(2))
+                .andExpect(jsonPath("$.moves[0].white").value(1))
+                .andExpect(jsonPath("$.moves[0].black").value(1))
+                // white moved: black's ratings 1600 and 1700
+                .andExpect(jsonPath("$.moves[0].averageOpponentRating").value(1650))
+                .andExpect(jsonPath("$.moves[1].uci").value("d2d4"))
+                .andExpect(jsonPath("$.moves[1].draws").value(1));
+
+        mvc.perform(get("/v1/explorer").param("fen", AFTER_E4).param("username", owner).with(TestAuth.jwtUser()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games").value(2))
+                .andExpect(jsonPath("$.moves[?(@.uci == 'e7e5')].averageOpponentRating").value(1500))
+                .andExpect(jsonPath("$.moves[?(@.uci == 'c7c5')].averageOpponentRating").value(1400));
+    }
+
+    @Test
+    void filters_by_time_category_and_unknown_user() throws Exception {
+        mvc.perform(get("/v1/explorer").param("fen", START).param("username", owner)
+                        .param("timeCategory", "blitz").with(TestAuth.jwtUser()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games").value(2))
+                .andExpect(jsonPath("$.moves.length()").value(2));
+
+        mvc.perform(get("/v1/explorer").param("fen", START).param("username", "nobody-" + UUID.randomUUID())
+                        .with(TestAuth.jwtUser()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games").value(0));
+
+        mvc.perform(get("/v1/explorer").param("fen", START).param("timeCategory", "hyper").with(TestAuth.jwtUser()))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/v1/explorer").param("fen", "8/8 w").with(TestAuth.jwtUser()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void repeated_position_counts_the_game_once() throws Exception {
+        String shuffler = "explorer-" + UUID.randomUUID().toString().substring(0, 8);
+        mvc.perform(post("/v1/ingest").contentType("application/x-chess-pgn")
+                        .param("username", shuffler)
+                        .content(game("1-0", 1500, 1600, "180+2", "1. Nf3 Nf6 2. Ng1 Ng8 3. Nf3 Nf6")
+                                .getBytes(StandardCharsets.UTF_8)).with(TestAuth.jwtUser()))
+                .andExpect(status().isCreated());
+
+        mvc.perform(get("/v1/explorer").param("fen", START).param("username", shuffler).with(TestAuth.jwtUser()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games").value(1))
+                .andExpect(jsonPath("$.moves.length()").value(1))
+                .andExpect(jsonPath("$.moves[0].uci").value("g1f3"))
+                .andExpect(jsonPath("$.moves[0].games").value(1))
+                .andExpect(jsonPath("$.moves[0].white").value(1))
+                .andExpect(jsonPath("$.moves[0].averageOpponentRating").value(1600));
+    }
+
+    private static String game(String result, int white, int black, String tc, String moves) {
+        return GAME.formatted(result, white, black, tc, UUID.randomUUID(), moves, result);
+    }
+}
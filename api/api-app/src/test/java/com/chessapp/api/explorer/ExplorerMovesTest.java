@@ -0,0 +1,33 @@
+package com.chessapp.api.explorer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.domain.bulk.ExplorerMove;
+import com.chessapp.api.service.pgn.ParsedGame;
+import com.chessapp.api.service.pgn.PgnGameMapper;
+import com.chessapp.api.service.pgn.PgnGameParser;
+
+class ExplorerMovesTest {
+
+    private final PgnGameParser parser = new PgnGameParser();
+
+    @Test
+    void move_repeated_from_the_same_position_is_listed_once() {
+        ParsedGame game = parser.parse("[Event \"t\"]\n\n1. Nf3 Nf6 2. Ng1 Ng8 3. Nf3 Nf6 4. e4 *\n");
+
+        var moves = PgnGameMapper.toExplorerMoves(game, UUID.randomUUID(), 40);
+
+        assertThat(moves).extracting(ExplorerMove::uci).containsExactly("g1f3", "g8f6", "f3g1", "f6g8", "e2e4");
+    }
+
+    @Test
+    void stops_at_max_ply() {
+        ParsedGame game = parser.parse("[Event \"t\"]\n\n1. e4 e5 2. Nf3 Nc6 *\n");
+
+        assertThat(PgnGameMapper.toExplorerMoves(game, UUID.randomUUID(), 3)).hasSize(3);
+    }
+}
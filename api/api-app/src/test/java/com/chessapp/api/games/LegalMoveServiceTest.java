@@ -0,0 +1,60 @@
+package com.chessapp.api.games;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.service.pgn.ParsedGame;
+import com.chessapp.api.service.pgn.PgnGameParser;
+import com.chessapp.api.service.position.LegalMoveService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LegalMoveServiceTest {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LegalMoveService service = new LegalMoveService(registry, 1_000);
+
+    @Test
+    void moves_are_generated_in_uci() {
+        assertThat(service.of(START)).hasSize(20).contains("e2e4", "g1f3");
+        // counters are optional
+        assertThat(service.of("4k3/P7/8/8/8/8/8/4K3 w - -")).contains("a7a8q", "a7a8n", "e1d2");
+        // fool's mate: white has nothing left
+        assertThat(service.of("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3")).isEmpty();
+    }
+
+    @Test
+    void transpositions_and_move_numbers_share_one_entry() {
+        PgnGameParser parser = new PgnGameParser();
+        ParsedGame a = parser.parse("[Event \"t\"]\n\n1. e4 e5 2. Nf3 Nc6 *\n");
+        ParsedGame b = parser.parse("[Event \"t\"]\n\n1. Nf3 Nc6 2. e4 e5 *\n");
+        var pa = a.positions().get(3);
+        var pb = b.positions().get(3);
+
+        var first = service.of(pa.fen(), pa.zobrist());
+        assertThat(service.of(pb.fen(), pb.zobrist())).isSameAs(first);
+        assertThat(service.of(pa.fen().replaceAll(" \\d+ \\d+$", " 7 23"))).isSameAs(first);
+        assertThat(registry.get("cache.gets").tags("cache", "legal_moves", "result", "hit").functionCounter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void castling_rights_are_part_of_the_key() {
+        String open = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+
+        assertThat(service.of(open)).contains("e1g1", "e1c1");
+        assertThat(service.of(open.replace("KQkq", "kq"))).doesNotContain("e1g1", "e1c1");
+    }
+
+    @Test
+    void malformed_fen_is_rejected() {
+        assertThatThrownBy(() -> service.of("rnbqkbnr/pppppppp/8/8 w KQkq -"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.of(START.replace(" w ", " x ")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.chessapp.api.games;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.chessapp.api.testutil.AbstractIntegrationTest;
+import com.chessapp.api.testutil.TestAuth;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+@SpringBootTest(properties = {"logging.config=classpath:logback-spring.xml"},
+        classes = com.chessapp.api.codex.CodexApplication.class)
+@AutoConfigureMockMvc
+class PositionGamesTest extends AbstractIntegrationTest {
+
+    /** After 1. a3 h6 2. h3 a6 (no other test plays it), with '_' for spaces as in a URL. */
+    private static final String FEN = "rnbqkbnr/1pppppp1/p6p/8/8/P6P/1PPPPPP1/RNBQKBNR_w_KQkq_-_0_3";
+
+    private static final String GAME = """
+            [Event "Live Chess"]
+            [White "%s"]
+            [Black "bob"]
+            [Result "1-0"]
+            [Link "https://www.chess.com/game/live/%s"]
+
+            %s 1-0
+
+            """;
+
+    @Autowired MockMvc mvc;
+    @MockitoBean S3Client s3;
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void games_through_a_position_are_paged_by_keyset() throws Exception {
+        String pgn = GAME.formatted("alice", UUID.randomUUID(), "1. a3 h6 2. h3 a6 3. Nc3")
+                // transposition: same position at ply 4, other move order
+                + GAME.formatted("carol", UUID.randomUUID(), "1. h3 a6 2. a3 h6 3. Nf3")
+                + GAME.formatted("dave", UUID.randomUUID(), "1. d4 d5 2. c4");
+        mvc.perform(post("/v1/ingest").contentType("application/x-chess-pgn")
+                        .content(pgn.getBytes(StandardCharsets.UTF_8)).with(TestAuth.jwtUser()))
+                .andExpect(status().isCreated());
+
+        JsonNode first = page(FEN, null);
+        assertThat(first.get("games")).hasSize(1);
+        assertThat(first.get("games").get(0).get("ply").asInt()).isEqualTo(4);
+        assertThat(first.get("zobrist").asText()).hasSize(16);
+        String next = first.get("next").asText();
+
+        JsonNode second = page(FEN, next);
+        assertThat(second.get("games")).hasSize(1);
+        assertThat(second.get("next").isNull()).isTrue();
+        assertThat(second.get("games").get(0).get("id").asText()).isGreaterThan(next);
+        assertThat(java.util.List.of(first.get("games").get(0).get("white").asText(),
+                second.get("games").get(0).get("white").asText()))
+                .containsExactlyInAnyOrder("alice", "carol");
+    }
+
+    @Test
+    void malformed_fen_is_a_bad_request() throws Exception {
+        mvc.perform(get("/v1/positions/rnbqkbnr/pppppppp/8_w/games").with(TestAuth.jwtUser()))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/v1/positions/" + FEN + "/moves").with(TestAuth.jwtUser()))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode page(String fen, String after) throws Exception {
+        var req = get("/v1/positions/" + fen + "/games").param("limit", "1").with(TestAuth.jwtUser());
+        if (after != null) {
+            req.param("after", after);
+        }
+        String body = mvc.perform(req)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games").isArray())
+                .andReturn().getResponse().getContentAsString();
+        return json.readTree(body);
+    }
+}
@@ -0,0 +1,74 @@
+package com.chessapp.api.games;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.service.pgn.ParsedGame;
+import com.chessapp.api.service.pgn.ParsedPosition;
+import com.chessapp.api.service.pgn.PgnGameParser;
+import com.chessapp.api.service.position.ZobristHash;
+
+class ZobristHashTest {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private final PgnGameParser parser = new PgnGameParser();
+
+    private ParsedPosition last(String movetext) {
+        ParsedGame g = parser.parse("[Event \"t\"]\n\n" + movetext + " *\n");
+        return g.positions().get(g.positions().size() - 1);
+    }
+
+    @Test
+    void transpositions_share_a_hash() {
+        var a = last("1. e4 e5 2. Nf3 Nc6");
+        var b = last("1. Nf3 Nc6 2. e4 e5");
+
+        assertThat(a.zobrist()).isEqualTo(b.zobrist()).isEqualTo(ZobristHash.of(a.fen()));
+        // same position, reached at another move number
+        assertThat(ZobristHash.of(a.fen().replaceAll(" \\d+ \\d+$", " 7 23"))).isEqualTo(a.zobrist());
+    }
+
+    @Test
+    void side_castling_and_placement_change_the_hash() {
+        long start = ZobristHash.of(START);
+
+        assertThat(ZobristHash.of(START.replace(" w ", " b "))).isNotEqualTo(start);
+        assertThat(ZobristHash.of(START.replace("KQkq", "Qkq"))).isNotEqualTo(start);
+        assertThat(ZobristHash.of(START.replace("KQkq", "qkQK"))).isEqualTo(start);
+        assertThat(ZobristHash.of("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1")).isNotEqualTo(start);
+    }
+
+    @Test
+    void en_passant_square_counts_only_when_capturable() {
+        // after 1. e4 nothing can take on e3
+        String e4 = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq ";
+        assertThat(ZobristHash.of(e4 + "e3 0 1")).isEqualTo(ZobristHash.of(e4 + "- 0 1"));
+
+        // white pawn on e5, black just played d7-d5: exd6 is possible
+        String d5 = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq ";
+        assertThat(ZobristHash.of(d5 + "d6 0 3")).isNotEqualTo(ZobristHash.of(d5 + "- 0 3"));
+        assertThat(ZobristHash.of(d5 + "f6 0 3")).isNotEqualTo(ZobristHash.of(d5 + "d6 0 3"));
+    }
+
+    @Test
+    void url_form_and_short_fen_are_accepted() {
+        assertThat(ZobristHash.of(START.replace(' ', '_'))).isEqualTo(ZobristHash.of(START));
+        assertThat(ZobristHash.of("8/8/8/8/8/8/8/K6k w")).isEqualTo(ZobristHash.of("8/8/8/8/8/8/8/K6k w - - 0 1"));
+        assertThat(ZobristHash.hex(ZobristHash.of(START))).hasSize(16);
+    }
+
+    @Test
+    void malformed_fen_is_rejected() {
+        assertThatThrownBy(() -> ZobristHash.of("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ZobristHash.of("rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ZobristHash.of("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ZobristHash.of("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,154 @@
+package com.chessapp.api.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.chessapp.api.codex.CodexApplication;
+import com.chessapp.api.domain.bulk.GameBulkLoader;
+import com.chessapp.api.domain.entity.Color;
+import com.chessapp.api.domain.entity.Game;
+import com.chessapp.api.domain.entity.GameResult;
+import com.chessapp.api.domain.entity.Move;
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.domain.entity.Position;
+import com.chessapp.api.domain.entity.TimeControlCategory;
+import com.chessapp.api.domain.entity.User;
+import com.chessapp.api.domain.repo.UserRepository;
+import com.chessapp.api.testutil.AbstractIntegrationTest;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * Throughput of the COPY bulk loader against the JPA path (persist + JDBC batching) for a
+ * blitz-month sized load. Prints rows/sec for both; run explicitly, it is not part of the unit suite.
+ */
+@SpringBootTest(classes = CodexApplication.class)
+class GameBulkLoaderBenchmarkIT extends AbstractIntegrationTest {
+
+    private static final int GAMES = 3_000;
+    private static final int PLIES = 80;
+
+    @MockitoBean
+    S3Client s3Client;
+
+    @Autowired GameBulkLoader loader;
+    @Autowired UserRepository users;
+    @Autowired EntityManager em;
+    @Autowired TransactionTemplate tx;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void copy_outperforms_jpa_and_skips_existing_games() {
+        UUID userId = user("bench-" + UUID.randomUUID());
+        Batch jpaBatch = batch(userId, "jpa");
+        Batch copyBatch = batch(userId, "copy");
+        long rows = jpaBatch.rows();
+
+        long t0 = System.nanoTime();
+        tx.executeWithoutResult(s -> {
+            int n = 0;
+            for (Object e : jpaBatch.all()) {
+                em.persist(e);
+                if (++n % 1_000 == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+        double jpaSecs = (System.nanoTime() - t0) / 1e9;
+
+        long t1 = System.nanoTime();
+        var result = tx.execute(s -> loader.load(copyBatch.games(), copyBatch.moves(), copyBatch.positions()));
+        double copySecs = (System.nanoTime() - t1) / 1e9;
+
+        System.out.printf("bulk-load games=%d rows=%d jpa=%.2fs (%.0f rows/s) copy=%.2fs (%.0f rows/s) speedup=%.1fx%n",
+                GAMES, rows, jpaSecs, rows / jpaSecs, copySecs, rows / copySecs, jpaSecs / copySecs);
+
+        assertThat(result.games()).isEqualTo(GAMES);
+        assertThat(result.moves()).isEqualTo((long) GAMES * PLIES);
+        assertThat(result.positions()).isEqualTo((long) GAMES * PLIES);
+        assertThat(copySecs).isLessThan(jpaSecs);
+
+        // same external ids again: nothing new, no child rows either
+        Batch again = batch(userId, "copy");
+        var rerun = tx.execute(s -> loader.load(again.games(), again.moves(), again.positions()));
+        assertThat(rerun.games()).isZero();
+        assertThat(rerun.moves()).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from games where user_id = ?", Long.class, userId))
+                .isEqualTo(2L * GAMES);
+    }
+
+    private UUID user(String name) {
+        User u = new User();
+        u.setId(UUID.randomUUID());
+        u.setChessUsername(name);
+        return users.save(u).getId();
+    }
+
+    private static Batch batch(UUID userId, String prefix) {
+        List<Game> games = new ArrayList<>(GAMES);
+        List<Move> moves = new ArrayList<>(GAMES * PLIES);
+        List<Position> positions = new ArrayList<>(GAMES * PLIES);
+        for (int i = 0; i < GAMES; i++) {
+            Game g = new Game();
+            g.setId(UUID.randomUUID());
+            g.setUserId(userId);
+            g.setPlatform(Platform.CHESS_COM);
+            g.setGameIdExt(prefix + "-" + userId + "-" + i);
+            g.setEndTime(Instant.now());
+            g.setTimeControl("180+2");
+            g.setTimeCategory(TimeControlCategory.BLITZ);
+            g.setResult(GameResult.DRAW);
+            g.setPgn("[Event \"bench\"]\n\n1. e4 e5 1/2-1/2");
+            g.setTags(Map.of("Event", "bench"));
+            games.add(g);
+            for (int ply = 1; ply <= PLIES; ply++) {
+                Color color = ply % 2 == 1 ? Color.WHITE : Color.BLACK;
+                Move m = new Move();
+                m.setId(UUID.randomUUID());
+                m.setGameId(g.getId());
+                m.setPly(ply);
+                m.setSan("Nf3");
+                m.setUci("g1f3");
+                m.setColor(color);
+                m.setClockMs(180_000 - ply * 1_000);
+                moves.add(m);
+                Position p = new Position();
+                p.setId(UUID.randomUUID());
+                p.setGameId(g.getId());
+                p.setPly(ply);
+                p.setFen("rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b KQkq - 1 1");
+                p.setSideToMove(color == Color.WHITE ? Color.BLACK : Color.WHITE);
+                positions.add(p);
+            }
+        }
+        return new Batch(games, moves, positions);
+    }
+
+    private record Batch(List<Game> games, List<Move> moves, List<Position> positions) {
+        long rows() {
+            return games.size() + moves.size() + positions.size();
+        }
+
+        List<Object> all() {
+            List<Object> all = new ArrayList<>(games);
+            all.addAll(moves);
+            all.addAll(positions);
+            return all;
+        }
+    }
+}
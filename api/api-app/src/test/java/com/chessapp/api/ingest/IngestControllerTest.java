@@ -6,10 +6,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import software.amazon.awssdk.services.s3.S3Client;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -22,13 +25,56 @@ class IngestControllerTest extends AbstractIntegrationTest {
 
     @Autowired MockMvc mvc;
 
+    private static final String PGN = """
+            [Event "Live Chess"]
+            [Site "Chess.com"]
+            [Date "2024.01.05"]
+            [White "alice"]
+            [Black "bob"]
+            [Result "1-0"]
+            [TimeControl "180+2"]
+            [Link "https://www.chess.com/game/live/%s"]
+
+            1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7# 1-0
+
+            """;
+
+    @MockitoBean S3Client s3;
+
     @Test
     void start_ok() throws Exception {
-        MockMultipartFile file = new MockMultipartFile("file", "data.txt", MediaType.TEXT_PLAIN_VALUE, "hi".getBytes());
-        mvc.perform(multipart("/v1/ingest").file(file).with(TestAuth.jwtUser()))
+        MockMultipartFile file = new MockMultipartFile("file", "games.pgn", "application/x-chess-pgn",
+                PGN.formatted(UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+        String body = mvc.perform(multipart("/v1/ingest").file(file).with(TestAuth.jwtUser()))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.runId").exists())
-                .andExpect(jsonPath("$.status").value("queued"));
+                .andExpect(jsonPath("$.status").value("succeeded"))
+                .andReturn().getResponse().getContentAsString();
+        String runId = new ObjectMapper().readTree(body).get("runId").asText();
+
+        mvc.perform(get("/v1/ingest/{id}", runId).with(TestAuth.jwtUser()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.gamesCount").value(1))
+                .andExpect(jsonPath("$.movesCount").value(7))
+                .andExpect(jsonPath("$.bytesRead").value(file.getSize()));
+    }
+
+    @Test
+    void raw_body_is_streamed() throws Exception {
+        byte[] pgn = (PGN.formatted(UUID.randomUUID()) + PGN.formatted(UUID.randomUUID()))
+                .getBytes(StandardCharsets.UTF_8);
+        mvc.perform(post("/v1/ingest").contentType("application/x-chess-pgn").content(pgn)
+                        .with(TestAuth.jwtUser()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("succeeded"));
+    }
+
+    @Test
+    void unknown_platform_is_rejected() throws Exception {
+        mvc.perform(post("/v1/ingest").contentType("application/x-chess-pgn").content(new byte[0])
+                        .param("platform", "fics").with(TestAuth.jwtUser()))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -0,0 +1,60 @@
+package com.chessapp.api.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.ingest.service.IngestEvent;
+import com.chessapp.api.ingest.service.IngestEventBus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IngestEventBusTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final IngestEventBus bus = new IngestEventBus(registry);
+
+    @Test
+    void delivers_only_the_subscribed_run_until_closed() {
+        UUID run = UUID.randomUUID();
+        List<String> seen = new ArrayList<>();
+        var sub = bus.subscribe(run, e -> seen.add(e.status()));
+
+        bus.publish(IngestEvent.status(run, "RUNNING", null, null));
+        bus.publish(IngestEvent.status(UUID.randomUUID(), "RUNNING", null, null));
+        assertThat(registry.get("chs_ingest_event_subscribers").gauge().value()).isEqualTo(1);
+
+        sub.close();
+        sub.close();
+        bus.publish(IngestEvent.status(run, "SUCCEEDED", null, "s3://reports/x"));
+
+        assertThat(seen).containsExactly("RUNNING");
+        assertThat(registry.get("chs_ingest_event_subscribers").gauge().value()).isZero();
+    }
+
+    @Test
+    void failing_listener_does_not_stop_delivery_or_the_publisher() {
+        UUID run = UUID.randomUUID();
+        List<String> seen = new ArrayList<>();
+        bus.subscribe(run, e -> { throw new IllegalStateException("client gone"); });
+        bus.subscribe(run, e -> seen.add(e.status()));
+
+        bus.publish(IngestEvent.status(run, "FAILED", "boom", null));
+
+        assertThat(seen).containsExactly("FAILED");
+    }
+
+    @Test
+    void tracks_runs_executing_on_this_node() {
+        UUID run = UUID.randomUUID();
+        assertThat(bus.isLocal(run)).isFalse();
+        bus.publish(IngestEvent.status(run, "RUNNING", null, null));
+        assertThat(bus.isLocal(run)).isTrue();
+        bus.publish(IngestEvent.status(run, "PARTIAL", "2024-01: x", null));
+        assertThat(bus.isLocal(run)).isFalse();
+    }
+}
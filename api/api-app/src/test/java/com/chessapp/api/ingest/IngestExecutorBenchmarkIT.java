@@ -0,0 +1,113 @@
+package com.chessapp.api.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import com.chessapp.api.chesscom.service.ChessComDownloader;
+import com.chessapp.api.chesscom.service.ChessComService;
+import com.chessapp.api.config.AsyncConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * 500 concurrent ingest runs, each streaming one month from a stub chess.com that answers after
+ * 100 ms, on the platform pool (4/8/200) and on virtual threads. Prints completed runs, rejections
+ * and runs/sec for both; run explicitly, it is not part of the unit suite.
+ */
+class IngestExecutorBenchmarkIT {
+
+    private static final int RUNS = 500;
+    private static final String PGN = "[Event \"Live Chess\"]\n\n1. e4 e5 1-0\n\n".repeat(50);
+
+    private MockWebServer upstream;
+
+    @BeforeEach
+    void start() throws Exception {
+        upstream = new MockWebServer();
+        upstream.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody(PGN).setHeadersDelay(100, TimeUnit.MILLISECONDS);
+            }
+        });
+        upstream.start();
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        upstream.shutdown();
+    }
+
+    @Test
+    void virtual_threads_absorb_500_concurrent_runs() throws Exception {
+        Result platform = run("platform", AsyncConfig.platformExecutor());
+        Result virtual = run("virtual", AsyncConfig.virtualExecutor());
+
+        assertThat(virtual.rejected()).isZero();
+        assertThat(virtual.completed()).isEqualTo(RUNS);
+        assertThat(virtual.mdcLost()).isZero();
+        assertThat(platform.mdcLost()).isZero();
+        assertThat(virtual.runsPerSecond()).isGreaterThan(platform.runsPerSecond());
+    }
+
+    private Result run(String mode, AsyncTaskExecutor executor) throws InterruptedException {
+        // rate limits out of the way; the upstream budget mirrors a sized connection pool
+        var service = new ChessComService(upstream.url("/").toString(), 64, 100_000, 100_000,
+                Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofDays(30), 10_000, new SimpleMeterRegistry());
+        var downloader = new ChessComDownloader(service, new SimpleMeterRegistry());
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger mdcLost = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(RUNS);
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            String runId = "run-" + i;
+            MDC.put("run_id", runId);
+            try {
+                executor.execute(() -> {
+                    try {
+                        downloader.streamMonth("user" + runId, YearMonth.of(2024, 1), OutputStream.nullOutputStream(), null, null);
+                        if (!runId.equals(MDC.get("run_id"))) mdcLost.incrementAndGet();
+                        completed.incrementAndGet();
+                    } catch (Exception e) {
+                        // counted as not completed
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                rejected.incrementAndGet();
+                done.countDown();
+            } finally {
+                MDC.remove("run_id");
+            }
+        }
+        assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        Result r = new Result(completed.get(), rejected.get(), mdcLost.get(), completed.get() / secs);
+        System.out.printf("ingest-executor mode=%s runs=%d completed=%d rejected=%d mdcLost=%d wall=%.2fs runs_per_s=%.1f%n",
+                mode, RUNS, r.completed(), r.rejected(), r.mdcLost(), secs, r.runsPerSecond());
+        return r;
+    }
+
+    private record Result(int completed, int rejected, int mdcLost, double runsPerSecond) {}
+}
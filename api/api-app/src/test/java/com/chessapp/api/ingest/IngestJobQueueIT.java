@@ -0,0 +1,126 @@
+package com.chessapp.api.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.chessapp.api.codex.CodexApplication;
+import com.chessapp.api.data.ingest.IngestJobRepository;
+import com.chessapp.api.data.ingest.IngestRunEntity;
+import com.chessapp.api.data.ingest.IngestRunRepository;
+import com.chessapp.api.testutil.AbstractIntegrationTest;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+/** Claim semantics of the Postgres ingest queue; the node's own workers are disabled. */
+@SpringBootTest(classes = CodexApplication.class, properties = "chess.ingest.queue.workers=0")
+class IngestJobQueueIT extends AbstractIntegrationTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    @MockitoBean
+    S3Client s3Client;
+
+    @Autowired IngestJobRepository jobs;
+    @Autowired IngestRunRepository runs;
+    @Autowired JdbcTemplate jdbc;
+
+    @BeforeEach
+    void clean() {
+        jdbc.update("DELETE FROM ingest_jobs");
+    }
+
+    @Test
+    void concurrent_workers_claim_each_job_exactly_once() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            jobs.enqueue(run());
+        }
+        Set<UUID> claimed = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int w = 0; w < 8; w++) {
+            String worker = "w" + w;
+            pool.submit(() -> {
+                start.await();
+                Optional<IngestJobRepository.Claim> c;
+                while ((c = jobs.claim(worker, LEASE, 3)).isPresent()) {
+                    assertThat(claimed.add(c.get().runId())).isTrue();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(claimed).hasSize(20);
+        assertThat(jobs.countQueued()).isZero();
+    }
+
+    @Test
+    void expired_lease_is_reclaimed_and_exhausted_jobs_are_removed() {
+        UUID runId = run();
+        jobs.enqueue(runId);
+
+        var first = jobs.claim("crashed", LEASE, 2).orElseThrow();
+        assertThat(first.attempts()).isEqualTo(1);
+        assertThat(jobs.claim("other", LEASE, 2)).isEmpty();
+
+        expireLease(runId);
+        var second = jobs.claim("other", LEASE, 2).orElseThrow();
+        assertThat(second.runId()).isEqualTo(runId);
+        assertThat(second.attempts()).isEqualTo(2);
+        // the crashed holder can neither renew nor complete anymore
+        assertThat(jobs.heartbeat("crashed", List.of(runId), LEASE)).isZero();
+        assertThat(jobs.complete(runId, "crashed")).isFalse();
+
+        expireLease(runId);
+        assertThat(jobs.claim("third", LEASE, 2)).isEmpty();
+        assertThat(jobs.removeExhausted(2)).containsExactly(runId);
+    }
+
+    @Test
+    void heartbeat_keeps_the_lease_and_complete_removes_the_job() {
+        UUID runId = run();
+        jobs.enqueue(runId);
+        jobs.claim("w", Duration.ofMillis(1), 3).orElseThrow();
+
+        assertThat(jobs.heartbeat("w", List.of(runId), LEASE)).isEqualTo(1);
+        assertThat(jobs.claim("other", LEASE, 3)).isEmpty();
+        assertThat(jobs.complete(runId, "w")).isTrue();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM ingest_jobs", Long.class)).isZero();
+    }
+
+    private void expireLease(UUID runId) {
+        jdbc.update("UPDATE ingest_jobs SET lease_until = now() - interval '1 second' WHERE run_id = ?", runId);
+    }
+
+    private UUID run() {
+        IngestRunEntity run = new IngestRunEntity();
+        run.setRunId(UUID.randomUUID());
+        run.setUsername("queue-it");
+        run.setFromMonth(1);
+        run.setToMonth(1);
+        run.setStatus("PENDING");
+        run.setStartedAt(Instant.now());
+        run.setVersions(List.of());
+        return runs.save(run).getRunId();
+    }
+}
@@ -0,0 +1,91 @@
+package com.chessapp.api.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.chessapp.api.codex.CodexApplication;
+import com.chessapp.api.data.ingest.IngestRunEntity;
+import com.chessapp.api.data.ingest.IngestRunRepository;
+import com.chessapp.api.testutil.AbstractIntegrationTest;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+/** Atomic progress counters and guarded status transitions on ingest_runs. */
+@SpringBootTest(classes = CodexApplication.class, properties = "chess.ingest.queue.workers=0")
+class IngestRunRepositoryIT extends AbstractIntegrationTest {
+
+    private static final List<String> ACTIVE = List.of("PENDING", "RUNNING");
+
+    @MockitoBean
+    S3Client s3Client;
+
+    @Autowired IngestRunRepository runs;
+
+    @Test
+    void concurrent_progress_updates_are_not_lost() throws Exception {
+        UUID runId = run();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            pool.submit(() -> runs.addProgress(runId, 1, 4_096, 10, 800, 800));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        IngestRunEntity run = runs.findById(runId).orElseThrow();
+        assertThat(run.getFilesWritten()).isEqualTo(200L);
+        assertThat(run.getBytesRead()).isEqualTo(200L * 4_096);
+        assertThat(run.getGamesCount()).isEqualTo(2_000L);
+        assertThat(run.getMovesCount()).isEqualTo(160_000L);
+        assertThat(run.getPositionsCount()).isEqualTo(160_000L);
+    }
+
+    @Test
+    void transitions_only_apply_from_expected_states() {
+        UUID runId = run();
+        assertThat(runs.transition(runId, ACTIVE, "RUNNING")).isEqualTo(1);
+        assertThat(runs.requeue(runId)).isZero();
+
+        Instant finished = Instant.now();
+        assertThat(runs.finish(runId, ACTIVE, "PARTIAL", "s3://reports/ingest/r.json", "2024-01: boom", finished))
+                .isEqualTo(1);
+        // a late abandon must not overwrite the outcome
+        assertThat(runs.finish(runId, ACTIVE, "FAILED", null, "lease expired", Instant.now())).isZero();
+        assertThat(runs.transition(runId, ACTIVE, "RUNNING")).isZero();
+
+        IngestRunEntity run = runs.findById(runId).orElseThrow();
+        assertThat(run.getStatus()).isEqualTo("PARTIAL");
+        assertThat(run.getError()).isEqualTo("2024-01: boom");
+        assertThat(run.getReportUri()).isEqualTo("s3://reports/ingest/r.json");
+        assertThat(run.getFinishedAt()).isNotNull();
+
+        assertThat(runs.requeue(runId)).isEqualTo(1);
+        run = runs.findById(runId).orElseThrow();
+        assertThat(run.getStatus()).isEqualTo("PENDING");
+        assertThat(run.getError()).isNull();
+        assertThat(run.getFinishedAt()).isNull();
+    }
+
+    private UUID run() {
+        IngestRunEntity run = new IngestRunEntity();
+        run.setRunId(UUID.randomUUID());
+        run.setUsername("repo-it");
+        run.setFromMonth(1);
+        run.setToMonth(1);
+        run.setStatus("PENDING");
+        run.setStartedAt(Instant.now());
+        run.setVersions(List.of());
+        run.setFilesWritten(0L);
+        return runs.save(run).getRunId();
+    }
+}
@@ -0,0 +1,103 @@
+package com.chessapp.api.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.chessapp.api.codex.CodexApplication;
+import com.chessapp.api.testutil.AbstractIntegrationTest;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+/** Games appended to a watched file become rows within seconds; a game still being written waits. */
+@SpringBootTest(classes = CodexApplication.class, properties = {
+        "chess.ingest.queue.workers=0",
+        "chess.ingest.watch.max-delay=PT0.2S",
+        "chess.ingest.watch.rescan=PT1S",
+        // long settle: the trailing game is only taken once the next one starts
+        "chess.ingest.watch.settle=PT60S"
+})
+class WatchFolderIngestIT extends AbstractIntegrationTest {
+
+    private static final Path DIR = tempDir();
+
+    @DynamicPropertySource
+    static void watchDir(DynamicPropertyRegistry registry) {
+        registry.add("chess.ingest.watch.dir", DIR::toString);
+    }
+
+    @MockitoBean
+    S3Client s3Client;
+
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void appended_games_are_written_and_offsets_advance() throws Exception {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        Path file = DIR.resolve("selfplay-" + tag + ".pgn");
+        String g4 = game(tag, 4);
+        int cut = g4.indexOf("1. d4");
+        Files.writeString(file, game(tag, 1) + game(tag, 2) + game(tag, 3) + g4.substring(0, cut));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> stored(tag) == 3);
+        long offset = (game(tag, 1) + game(tag, 2) + game(tag, 3)).getBytes(StandardCharsets.UTF_8).length;
+        await().atMost(Duration.ofSeconds(5)).until(() -> offset(file) == offset);
+
+        Files.writeString(file, g4.substring(cut) + game(tag, 5), StandardOpenOption.APPEND);
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> stored(tag) == 4);
+        Thread.sleep(1_000);
+        assertThat(stored(tag)).isEqualTo(4); // game 5 may still grow
+        assertThat(jdbc.queryForObject("""
+                SELECT count(*) FROM moves m JOIN games g ON g.id = m.game_id
+                 WHERE g.game_id_ext = ?""", Long.class, tag + "-4")).isEqualTo(4L);
+        assertThat(jdbc.queryForList("SELECT DISTINCT platform::text FROM games WHERE game_id_ext LIKE ?",
+                String.class, tag + "-%")).containsExactly("SELFPLAY");
+    }
+
+    private long stored(String tag) {
+        return jdbc.queryForObject("SELECT count(*) FROM games WHERE game_id_ext LIKE ?", Long.class, tag + "-%");
+    }
+
+    private long offset(Path file) {
+        return jdbc.query("SELECT offset_bytes FROM ingest_watch_files WHERE path = ?",
+                rs -> rs.next() ? rs.getLong(1) : -1L, file.toAbsolutePath().normalize().toString());
+    }
+
+    private static String game(String tag, int i) {
+        return """
+                [Event "Self-play"]
+                [Site "https://selfplay.local/game/%s-%d"]
+                [White "engine"]
+                [Black "engine"]
+                [Result "1/2-1/2"]
+
+                1. d4 d5 2. c4 e6 1/2-1/2
+
+                """.formatted(tag, i);
+    }
+
+    private static Path tempDir() {
+        try {
+            return Files.createTempDirectory("watch-it");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.chessapp.api.ingest.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.chessapp.api.data.ingest.IngestRunEntity;
+import com.chessapp.api.data.ingest.IngestRunRepository;
+import com.chessapp.api.ingest.service.GameIngestService;
+import com.chessapp.api.ingest.service.IngestEvent;
+import com.chessapp.api.ingest.service.IngestEventBus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IngestEventStreamTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final IngestEventBus bus = new IngestEventBus(registry);
+    private final IngestRunRepository repository = mock(IngestRunRepository.class);
+    private final StalledEmitter emitter = new StalledEmitter();
+    private final IngestEventStream stream = new IngestEventStream(bus, repository, registry, t -> emitter,
+            NEVER, NEVER, NEVER, 4);
+    private final UUID run = UUID.randomUUID();
+
+    @BeforeEach
+    void runIsExecuting() {
+        IngestRunEntity entity = new IngestRunEntity();
+        entity.setRunId(run);
+        entity.setStatus("RUNNING");
+        when(repository.findById(run)).thenReturn(Optional.of(entity));
+    }
+
+    @AfterEach
+    void shutdown() {
+        emitter.release.countDown();
+        stream.shutdown();
+    }
+
+    @Test
+    void stalled_client_does_not_block_the_publisher_and_progress_is_coalesced() throws Exception {
+        stream.open(run);
+        assertThat(emitter.writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        for (long bytes = 1; bytes <= 1_000; bytes++) {
+            bus.publish(IngestEvent.progress(run, bytes, new GameIngestService.Stats(bytes, 0, 0, 0, 0)));
+        }
+        bus.publish(IngestEvent.status(run, "SUCCEEDED", null, "s3://reports/x"));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+
+        emitter.release.countDown();
+        assertThat(emitter.closed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(emitter.sent).extracting(IngestEvent::type)
+                .containsExactly(IngestEvent.STATUS, IngestEvent.PROGRESS, IngestEvent.STATUS);
+        assertThat(emitter.sent.get(1).bytes()).isEqualTo(1_000L);
+        assertThat(emitter.sent.get(2).status()).isEqualTo("SUCCEEDED");
+        assertThat(emitter.failure).isNull();
+        assertThat(registry.get("chs_ingest_events_dropped_total").counter().count()).isEqualTo(999);
+    }
+
+    @Test
+    void client_too_slow_for_status_events_is_disconnected() throws Exception {
+        stream.open(run);
+        assertThat(emitter.writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatCode(() -> {
+            for (int i = 0; i < 10; i++) {
+                bus.publish(IngestEvent.status(run, "RUNNING", null, null));
+            }
+        }).doesNotThrowAnyException();
+        assertThat(emitter.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.failure).isInstanceOf(IOException.class);
+
+        emitter.release.countDown();
+        bus.publish(IngestEvent.status(run, "SUCCEEDED", null, null));
+        assertThat(emitter.sent).extracting(IngestEvent::type).containsExactly(IngestEvent.STATUS);
+    }
+
+    /** Records each event, then blocks until released, like a client that stopped reading. */
+    private static final class StalledEmitter extends SseEmitter {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        final List<IngestEvent> sent = new CopyOnWriteArrayList<>();
+        volatile Throwable failure;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            Iterator<ResponseBodyEmitter.DataWithMediaType> parts = builder.build().iterator();
+            parts.next();
+            if (parts.hasNext() && parts.next().getData() instanceof IngestEvent event) {
+                sent.add(event);
+            }
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            closed.countDown();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failure = ex;
+            closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.chessapp.api.ingest.pgn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MappedPgnSplitterTest {
+
+    @TempDir
+    Path dir;
+
+    private static String game(int i) {
+        // the comment mentions a tag mid-line, which must not start a game
+        return """
+                [Event "Rated Blitz game"]
+                [Site "https://lichess.org/g%07d"]
+                [Result "1-0"]
+
+                1. e4 { see [Event "x"] } e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7# 1-0
+
+                """.formatted(i);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {10, 1_000, 65_536, 1L << 30})
+    void regions_split_into_the_same_games_as_the_stream_splitter(long regionBytes) throws Exception {
+        StringBuilder sb = new StringBuilder("\n");
+        for (int i = 0; i < 2_000; i++) sb.append(game(i));
+        Path file = Files.writeString(dir.resolve("games.pgn"), sb);
+        byte[] data = Files.readAllBytes(file);
+
+        List<String> expected = new ArrayList<>();
+        PgnGameSplitter splitter = new PgnGameSplitter(expected::add);
+        splitter.update(data, 0, data.length);
+        splitter.finish();
+
+        List<String> games = Collections.synchronizedList(new ArrayList<>());
+        try (FileChannel ch = FileChannel.open(file)) {
+            var regions = MappedPgnSplitter.regions(ch, 0, ch.size(), regionBytes, ForkJoinPool.commonPool());
+            long next = 0;
+            for (var r : regions) {
+                assertThat(r.start()).isEqualTo(next);
+                next = r.end();
+            }
+            assertThat(next).isEqualTo(data.length);
+            regions.parallelStream().forEach(r -> MappedPgnSplitter.games(ch, r, games::add));
+        }
+
+        assertThat(games).containsExactlyInAnyOrderElementsOf(expected).hasSize(2_000);
+    }
+
+    @Test
+    void cut_point_searches_past_its_probe_window() throws Exception {
+        String big = game(1).replace("1. e4", "{" + "x".repeat(600_000) + "} 1. e4");
+        Path file = Files.writeString(dir.resolve("big.pgn"), big + game(2));
+        try (FileChannel ch = FileChannel.open(file)) {
+            assertThat(MappedPgnSplitter.nextGameStart(ch, 5, ch.size())).isEqualTo(big.length());
+            assertThat(MappedPgnSplitter.regions(ch, 0, ch.size(), 1_000, ForkJoinPool.commonPool()))
+                    .extracting(MappedPgnSplitter.Region::start)
+                    .containsExactly(0L, (long) big.length());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.chessapp.api.ingest.pgn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.domain.entity.Color;
+import com.chessapp.api.domain.entity.Game;
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.service.pgn.MoveCodec;
+import com.chessapp.api.service.pgn.ParsedGame;
+import com.chessapp.api.service.pgn.ParsedMove;
+import com.chessapp.api.service.pgn.PgnGameMapper;
+import com.chessapp.api.service.pgn.PgnGameParser;
+import com.chessapp.api.service.pgn.PgnWriter;
+
+class MoveCodecTest {
+
+    /** En passant, queenside castling, a knight move needing its file, clocks on some plies. */
+    private static final String GAME = """
+            [Event "Live Chess"]
+            [Site "Chess.com"]
+            [White "bob"]
+            [Black "alice"]
+            [Result "*"]
+            [TimeControl "180+2"]
+            [Link "https://www.chess.com/game/live/555"]
+
+            1. e4 {[%clk 0:03:01.9]} 1... d5 {[%clk 0:02:59]} 2. e5 {a comment} f5 3. exf6 Nc6
+            4. Nf3 Bf5 5. Nc3 Qd7 6. d3 O-O-O 7. Nd2 {[%clk 0:02:40.5]} Nb4 8. Nde4 *
+            """;
+
+    private static final String FROM_FEN = """
+            [Event "Live Chess"]
+            [White "carol"]
+            [Black "bob"]
+            [Result "0-1"]
+            [SetUp "1"]
+            [FEN "4k3/P7/8/8/8/8/8/4K3 w - - 0 12"]
+
+            12. a8=Q+ Kd7 0-1
+            """;
+
+    private final PgnGameParser parser = new PgnGameParser();
+
+    @Test
+    void moves_take_one_byte_per_ply_and_rebuild_to_the_same_game() {
+        ParsedGame parsed = parser.parse(GAME);
+        Game game = PgnGameMapper.toGame(parsed, UUID.randomUUID(), "bob", Platform.CHESS_COM, false);
+
+        assertThat(game.getPgn()).isNull();
+        assertThat(game.getMovesBin()).hasSize(parsed.moves().size() + 1);
+
+        String rebuilt = PgnWriter.write(game.getTags(), game.getMovesBin(), game.getClocksBin());
+        assertThat(rebuilt)
+                .startsWith("[Event \"Live Chess\"]\n[Site \"Chess.com\"]\n")
+                .contains("[Link \"https://www.chess.com/game/live/555\"]", "exf6", "O-O-O", "8. Nde4")
+                .contains("1. e4 {[%clk 0:03:01.9]} 1... d5 {[%clk 0:02:59]} 2. e5 f5")
+                .doesNotContain("color", "a comment")
+                .endsWith(" *\n");
+
+        ParsedGame again = parser.parse(rebuilt);
+        assertThat(again.moves()).extracting(ParsedMove::uci)
+                .containsExactlyElementsOf(parsed.moves().stream().map(ParsedMove::uci).toList());
+        assertThat(again.moves()).extracting(ParsedMove::clockMs)
+                .containsExactlyElementsOf(parsed.moves().stream().map(ParsedMove::clockMs).toList());
+        assertThat(again.headers()).containsEntry("TimeControl", "180+2");
+    }
+
+    @Test
+    void game_from_fen_keeps_move_numbers_and_promotion() {
+        ParsedGame parsed = parser.parse(FROM_FEN);
+        Game game = PgnGameMapper.toGame(parsed, UUID.randomUUID(), "bob", Platform.CHESS_COM, false);
+
+        assertThat(game.getClocksBin()).isNull();
+        String rebuilt = PgnWriter.write(game.getTags(), game.getMovesBin(), null);
+        assertThat(rebuilt).contains("\n\n12. a8=Q+ Kd7 0-1\n");
+        assertThat(parser.parse(rebuilt).moves()).extracting(ParsedMove::uci).containsExactly("a7a8q", "e8d7");
+    }
+
+    @Test
+    void clocks_are_deltas_in_the_coarsest_unit() {
+        List<Integer> clocks = Arrays.asList(180_000, 180_000, 178_000, null, 175_500, 181_000);
+        List<ParsedMove> moves = new ArrayList<>();
+        for (int i = 0; i < clocks.size(); i++) {
+            moves.add(new ParsedMove(i + 1, "-", "-", 0, i % 2 == 0 ? Color.WHITE : Color.BLACK, clocks.get(i), null));
+        }
+
+        byte[] data = MoveCodec.encodeClocks(moves);
+
+        // version, unit 10^2 ms, 2 bytes for each side's first clock, then one byte per ply
+        assertThat(data[1]).isEqualTo((byte) 2);
+        assertThat(data).hasSize(2 + 2 + 2 + 4);
+        assertThat(MoveCodec.decodeClocks(data)).containsExactlyElementsOf(clocks);
+    }
+
+    @Test
+    void truncated_clocks_are_rejected() {
+        assertThatThrownBy(() -> MoveCodec.decodeClocks(new byte[] {1, 3, (byte) 0x80}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
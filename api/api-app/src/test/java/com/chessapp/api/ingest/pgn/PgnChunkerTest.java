@@ -0,0 +1,76 @@
+package com.chessapp.api.ingest.pgn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PgnChunkerTest {
+
+    private static String game(int i) {
+        return """
+                [Event "Rated Blitz game"]
+                [Site "https://lichess.org/g%07d"]
+                [Result "1-0"]
+
+                1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7# 1-0
+
+                """.formatted(i);
+    }
+
+    @Test
+    void chunks_hold_whole_games_and_cover_the_stream() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) sb.append(game(i));
+        byte[] data = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        List<byte[]> chunks = new ArrayList<>();
+        PgnChunker chunker = new PgnChunker(4_096, chunks::add);
+        // odd read size so "[Event \"" straddles updates
+        for (int off = 0; off < data.length; off += 1_000) {
+            chunker.update(data, off, Math.min(1_000, data.length - off));
+        }
+        chunker.finish();
+
+        assertThat(chunks).hasSizeGreaterThan(10);
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        long games = 0;
+        for (byte[] chunk : chunks) {
+            assertThat(new String(chunk, 0, 8, StandardCharsets.UTF_8)).isEqualTo("[Event \"");
+            List<String> split = new ArrayList<>();
+            PgnGameSplitter splitter = new PgnGameSplitter(split::add);
+            splitter.update(chunk, 0, chunk.length);
+            splitter.finish();
+            assertThat(split).allSatisfy(g -> assertThat(g).endsWith("1-0"));
+            games += split.size();
+            joined.writeBytes(chunk);
+        }
+        assertThat(games).isEqualTo(500);
+        assertThat(joined.toByteArray()).isEqualTo(data);
+    }
+
+    @Test
+    void game_larger_than_a_chunk_is_not_cut() {
+        String big = game(1).replace("1. e4", "{" + "x".repeat(10_000) + "} 1. e4");
+        byte[] data = (big + game(2)).getBytes(StandardCharsets.UTF_8);
+
+        List<byte[]> chunks = new ArrayList<>();
+        PgnChunker chunker = new PgnChunker(1_024, chunks::add);
+        chunker.update(data, 0, data.length);
+        chunker.finish();
+
+        assertThat(chunks).hasSize(2);
+        assertThat(new String(chunks.get(0), StandardCharsets.UTF_8)).isEqualTo(big);
+    }
+
+    @Test
+    void event_tag_inside_a_comment_line_is_not_a_boundary() {
+        byte[] b = "[Event \"a\"]\n1. e4 {see [Event \"b\"]} 1-0\n".getBytes(StandardCharsets.UTF_8);
+        assertThat(PgnChunker.lastGameStart(b, 1, b.length)).isEqualTo(-1);
+        assertThat(PgnChunker.lastGameStart(b, 0, b.length)).isZero();
+    }
+}
@@ -0,0 +1,115 @@
+package com.chessapp.api.ingest.pgn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.domain.entity.Color;
+import com.chessapp.api.domain.entity.GameResult;
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.domain.entity.TimeControlCategory;
+import com.chessapp.api.service.pgn.ParsedGame;
+import com.chessapp.api.service.pgn.PgnGameMapper;
+import com.chessapp.api.service.pgn.PgnGameParser;
+import com.chessapp.api.service.pgn.PgnParseException;
+
+class PgnGameParserTest {
+
+    private static final String GAME_1 = """
+            [Event "Live Chess"]
+            [Site "Chess.com"]
+            [UTCDate "2024.01.05"]
+            [UTCTime "10:00:00"]
+            [White "bob"]
+            [Black "alice"]
+            [Result "1-0"]
+            [WhiteElo "1500"]
+            [BlackElo "1490"]
+            [TimeControl "180+2"]
+            [Link "https://www.chess.com/game/live/987654"]
+
+            1. e4 {[%clk 0:03:01.9]} 1... e5 {[%clk 0:02:59]} 2. Nf3 $1 {[%clk 0:03:00]} (2. Bc4 Nc6)
+            2... Nc6 {[%clk 0:02:58]} 3. Bb5 a6 4. Ba4 Nf6 5. O-O Be7 1-0
+            """;
+
+    private static final String GAME_2 = """
+            [Event "Live Chess"]
+            [White "carol"]
+            [Black "bob"]
+            [Result "0-1"]
+            [SetUp "1"]
+            [FEN "4k3/P7/8/8/8/8/8/4K3 w - - 0 1"]
+
+            1. a8=Q+ Kd7 0-1
+            """;
+
+    private final PgnGameParser parser = new PgnGameParser();
+
+    @Test
+    void splitter_cuts_games_across_arbitrary_chunk_boundaries() {
+        byte[] data = (GAME_1 + "\n" + GAME_2).getBytes(StandardCharsets.UTF_8);
+        List<String> games = new ArrayList<>();
+        var splitter = new PgnGameSplitter(games::add);
+        // 3-byte chunks split the "[Event \"" tag and the blank lines between games
+        for (int off = 0; off < data.length; off += 3) {
+            splitter.update(data, off, Math.min(3, data.length - off));
+        }
+        splitter.finish();
+
+        assertThat(games).hasSize(2);
+        assertThat(games.get(0)).startsWith("[Event").endsWith("1-0");
+        assertThat(games.get(1)).startsWith("[Event").contains("a8=Q+");
+    }
+
+    @Test
+    void replays_moves_clocks_and_positions() {
+        ParsedGame game = parser.parse(GAME_1);
+
+        assertThat(game.moves()).hasSize(10);
+        assertThat(game.positions()).hasSize(10);
+        var first = game.moves().get(0);
+        assertThat(first.san()).isEqualTo("e4");
+        assertThat(first.uci()).isEqualTo("e2e4");
+        assertThat(first.color()).isEqualTo(Color.WHITE);
+        assertThat(first.clockMs()).isEqualTo(181_900);
+        // the variation (2. Bc4 Nc6) is skipped, the NAG does not become a move
+        assertThat(game.moves().get(2).san()).isEqualTo("Nf3");
+        assertThat(game.moves().get(3).san()).isEqualTo("Nc6");
+        assertThat(game.moves().get(8).uci()).isEqualTo("e1g1");
+        assertThat(game.positions().get(0).fen()).startsWith("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b");
+        assertThat(game.positions().get(0).sideToMove()).isEqualTo(Color.BLACK);
+    }
+
+    @Test
+    void starts_from_fen_and_resolves_promotion() {
+        ParsedGame game = parser.parse(GAME_2);
+
+        assertThat(game.moves()).extracting(m -> m.uci()).containsExactly("a7a8q", "e8d7");
+        assertThat(game.positions().get(1).sideToMove()).isEqualTo(Color.WHITE);
+    }
+
+    @Test
+    void maps_headers_onto_game_columns() {
+        var game = PgnGameMapper.toGame(parser.parse(GAME_1), UUID.randomUUID(), "bob",
+                Platform.CHESS_COM);
+
+        assertThat(game.getGameIdExt()).isEqualTo("987654");
+        assertThat(game.getResult()).isEqualTo(GameResult.WHITE_WIN);
+        assertThat(game.getTimeCategory()).isEqualTo(TimeControlCategory.BLITZ);
+        assertThat(game.getWhiteRating()).isEqualTo(1500);
+        assertThat(game.getEndTime()).hasToString("2024-01-05T10:00:00Z");
+        assertThat(game.getTags()).containsEntry("color", "white");
+    }
+
+    @Test
+    void illegal_move_is_rejected() {
+        assertThatThrownBy(() -> parser.parse("[Event \"x\"]\n\n1. e5 *"))
+                .isInstanceOf(PgnParseException.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.chessapp.api.ingest.pgn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class PgnStatsCollectorTest {
+
+    private static final String PGN = """
+            [Event "Live Chess"]
+            [UTCDate "2024.01.03"]
+            [White "alice"]
+            [Black "bob"]
+            [Result "1-0"]
+            [WhiteElo "1500"]
+            [BlackElo "1400"]
+            [TimeControl "180"]
+
+            1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7# 1-0
+
+            [Event "Live Chess"]
+            [Date "2024.01.01"]
+            [White "bob"]
+            [Black "carol"]
+            [Result "0-1"]
+            [WhiteElo "?"]
+            [BlackElo "2100"]
+            [TimeControl "600"]
+
+            1. d4 d5 0-1
+            """;
+
+    @Test
+    void profiles_tag_columns_in_one_pass() {
+        PgnProfile p = collect(PGN.getBytes(StandardCharsets.UTF_8), 7);
+
+        assertThat(p.games()).isEqualTo(2);
+        Map<String, PgnProfile.Column> cols = columns(p);
+        assertThat(cols.get("date").min()).isEqualTo("2024.01.01");
+        assertThat(cols.get("date").max()).isEqualTo("2024.01.03");
+        assertThat(cols.get("whiteRating").nullPct()).isEqualTo(0.5);
+        assertThat(cols.get("blackRating").min()).isEqualTo("1400");
+        assertThat(cols.get("blackRating").max()).isEqualTo("2100");
+        assertThat(cols.get("result").uniquePct()).isEqualTo(1.0);
+        assertThat(cols.get("white").uniquePct()).isEqualTo(1.0);
+        assertThat(cols.get("eco").nullPct()).isEqualTo(1.0);
+        assertThat(p.ratings().count()).isEqualTo(3);
+        assertThat(p.quality().duplicatePct()).isZero();
+    }
+
+    @Test
+    void chunk_size_does_not_change_the_profile() {
+        byte[] bytes = PGN.getBytes(StandardCharsets.UTF_8);
+        assertThat(collect(bytes, 1)).isEqualTo(collect(bytes, bytes.length));
+    }
+
+    @Test
+    void repeated_games_count_as_duplicates() {
+        byte[] bytes = (PGN + "\n" + PGN).getBytes(StandardCharsets.UTF_8);
+        PgnProfile p = collect(bytes, 4096);
+
+        assertThat(p.games()).isEqualTo(4);
+        assertThat(p.quality().duplicatePct()).isEqualTo(0.5);
+        assertThat(columns(p).get("white").uniquePct()).isEqualTo(0.5);
+    }
+
+    @Test
+    void rating_quantiles_and_outliers_come_from_the_digest() {
+        StringBuilder pgn = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            // one in a hundred games has an absurd rating
+            int elo = i % 100 == 0 ? 9000 : 1000 + i;
+            pgn.append("[Event \"g").append(i).append("\"]\n[WhiteElo \"").append(elo).append("\"]\n\n1. e4 *\n\n");
+        }
+        PgnProfile p = collect(pgn.toString().getBytes(StandardCharsets.UTF_8), 8192);
+
+        assertThat(p.ratings().count()).isEqualTo(1000);
+        assertThat(p.ratings().p50()).isCloseTo(1500, within(15.0));
+        // the digest interpolates into the 9000 centroid, so the share is approximate
+        assertThat(p.quality().outlierPct()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    void empty_stream_has_an_empty_profile() {
+        PgnProfile p = collect(new byte[0], 1);
+        assertThat(p.games()).isZero();
+        assertThat(p.ratings().p50()).isNull();
+        assertThat(p.quality().missingPct()).isZero();
+    }
+
+    private static PgnProfile collect(byte[] bytes, int chunk) {
+        PgnStatsCollector c = new PgnStatsCollector();
+        for (int off = 0; off < bytes.length; off += chunk) {
+            c.update(bytes, off, Math.min(chunk, bytes.length - off));
+        }
+        c.finish();
+        return c.profile();
+    }
+
+    private static Map<String, PgnProfile.Column> columns(PgnProfile p) {
+        return p.schema().columns().stream().collect(Collectors.toMap(PgnProfile.Column::name, Function.identity()));
+    }
+}
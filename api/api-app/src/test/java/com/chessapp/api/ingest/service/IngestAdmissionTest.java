@@ -0,0 +1,102 @@
+package com.chessapp.api.ingest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.data.ingest.IngestJobRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IngestAdmissionTest {
+
+    private static final long SEC = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(1_000 * SEC);
+    private IngestJobRepository jobs;
+    private SimpleMeterRegistry registry;
+    private IngestAdmission admission;
+
+    @BeforeEach
+    void setUp() {
+        jobs = mock(IngestJobRepository.class);
+        registry = new SimpleMeterRegistry();
+        admission = new IngestAdmission(jobs, registry, now::get, 3, 1, Duration.ofSeconds(1),
+                Duration.ofSeconds(5), Duration.ofMinutes(10), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void burst_within_one_refresh_is_counted_locally() {
+        when(jobs.countQueued()).thenReturn(1L);
+
+        admission.admitRun("chesscom");
+        admission.admitRun("chesscom");
+
+        assertThatThrownBy(() -> admission.admitRun("chesscom"))
+                .isInstanceOf(IngestSaturatedException.class);
+        verify(jobs, times(1)).countQueued();
+        assertThat(registry.get("chs_ingest_rejected_total").tag("endpoint", "chesscom").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("chs_ingest_queue_depth").gauge().value()).isEqualTo(3);
+
+        // the next refresh reads the drained queue again
+        when(jobs.countQueued()).thenReturn(0L);
+        now.addAndGet(SEC);
+        admission.admitRun("chesscom");
+    }
+
+    @Test
+    void retry_after_follows_the_drain_rate() {
+        when(jobs.countQueued()).thenReturn(13L);
+        // no completions yet: default
+        assertThatThrownBy(() -> admission.admitRun("chesscom"))
+                .extracting(e -> ((IngestSaturatedException) e).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(30));
+
+        // one job every 2 s; 11 jobs above the limit of 3 drain in 22 s
+        for (int i = 0; i < 5; i++) {
+            admission.jobCompleted();
+            now.addAndGet(2 * SEC);
+        }
+        now.addAndGet(-2 * SEC);
+        assertThatThrownBy(() -> admission.admitRun("chesscom"))
+                .extracting(e -> ((IngestSaturatedException) e).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(22));
+
+        // a stalled queue stretches the rate instead of keeping the old one
+        now.addAndGet(92 * SEC);
+        assertThat(admission.drainRate()).isCloseTo(0.04, within(1e-9));
+    }
+
+    @Test
+    void uploads_are_capped_and_released() {
+        IngestAdmission.UploadPermit first = admission.admitUpload();
+        assertThatThrownBy(admission::admitUpload)
+                .isInstanceOf(IngestSaturatedException.class)
+                .extracting(e -> ((IngestSaturatedException) e).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(30));
+
+        now.addAndGet(40 * SEC);
+        first.close();
+        first.close();
+
+        try (IngestAdmission.UploadPermit second = admission.admitUpload()) {
+            // the mean upload duration replaces the default
+            assertThatThrownBy(admission::admitUpload)
+                    .extracting(e -> ((IngestSaturatedException) e).getRetryAfter())
+                    .isEqualTo(Duration.ofSeconds(40));
+        }
+        assertThat(registry.get("chs_ingest_rejected_total").tag("endpoint", "upload").counter().count())
+                .isEqualTo(2);
+    }
+}
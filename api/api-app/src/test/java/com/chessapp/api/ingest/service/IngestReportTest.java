@@ -0,0 +1,76 @@
+package com.chessapp.api.ingest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class IngestReportTest {
+
+    private static final long MS = 1_000_000L;
+    private static final Instant T0 = Instant.parse("2024-05-01T10:00:00Z");
+
+    /** Stage order: download, parse, s3_write, db_load, catalog. */
+    private static IngestReport.Unit month(String name, long start, long ready, long commit, long done,
+                                           long download, long parse, long s3, long db) {
+        var timings = new StageTimings(start * MS, ready * MS, commit * MS, done * MS,
+                download * MS, parse * MS, s3 * MS, db * MS, (done - commit) * MS);
+        return new IngestReport.Unit(name, 1_000, 10, 10, false, null, timings);
+    }
+
+    @Test
+    void critical_path_follows_the_catalog_queue_and_freed_fetch_slots() {
+        // two fetch slots: jan and feb start together, mar starts when feb's fetch frees a slot;
+        // jan is slow, so feb's catalog step waits for jan's, mar's waits for feb's
+        var jan = month("2024-01", 0, 900, 900, 1000, 700, 100, 50, 50);
+        var feb = month("2024-02", 0, 300, 1000, 1100, 200, 50, 25, 25);
+        var mar = month("2024-03", 300, 800, 1100, 1200, 400, 50, 25, 25);
+
+        var report = IngestReport.of(UUID.randomUUID(), "chesscom", "SUCCEEDED", T0, T0.plusMillis(1200),
+                List.of(jan, feb, mar));
+
+        var path = report.criticalPath();
+        assertThat(path.units()).containsExactly("2024-01", "2024-02", "2024-03");
+        // jan's fetch and catalog, then the catalog steps of feb and mar
+        assertThat(path.seconds()).isEqualTo(1.2);
+        assertThat(path.stages().get("download")).isEqualTo(0.7);
+        assertThat(path.stages().get("catalog")).isEqualTo(0.3);
+        assertThat(path.bottleneck()).isEqualTo("download");
+        assertThat(path.wallShare()).isEqualTo(1.0);
+    }
+
+    @Test
+    void fetch_started_late_waits_for_the_fetch_that_freed_its_slot() {
+        // one slot: feb can only start when jan's fetch is ready
+        var jan = month("2024-01", 0, 500, 500, 520, 100, 300, 50, 50);
+        var feb = month("2024-02", 500, 900, 900, 920, 100, 200, 50, 50);
+
+        var path = IngestReport.criticalPath(List.of(jan, feb), 0.92);
+
+        assertThat(path.units()).containsExactly("2024-01", "2024-02");
+        // feb's catalog and fetch, then jan's fetch; jan's catalog ran alongside feb's fetch
+        assertThat(path.seconds()).isEqualTo(0.92);
+        assertThat(path.stages().get("catalog")).isEqualTo(0.02);
+        assertThat(path.bottleneck()).isEqualTo("parse");
+    }
+
+    @Test
+    void totals_add_up_units_and_skip_untimed_ones() {
+        var jan = month("2024-01", 0, 500, 500, 520, 100, 300, 50, 50);
+        var skipped = new IngestReport.Unit("2024-02", 0, 0, 0, true, null, null);
+
+        var report = IngestReport.of(UUID.randomUUID(), "chesscom", "SUCCEEDED", T0, T0.plusSeconds(2),
+                List.of(jan, skipped));
+
+        assertThat(report.wallSeconds()).isEqualTo(2.0);
+        assertThat(report.totals().bytes()).isEqualTo(1_000);
+        assertThat(report.totals().gamesPerSecond()).isEqualTo(5.0);
+        assertThat(report.totals().stageSeconds()).containsEntry("parse", 0.3).containsEntry("catalog", 0.02);
+        assertThat(report.units().get(0).seconds()).isEqualTo(0.52);
+        assertThat(report.units().get(1).stages()).isNull();
+        assertThat(report.criticalPath().units()).containsExactly("2024-01");
+    }
+}
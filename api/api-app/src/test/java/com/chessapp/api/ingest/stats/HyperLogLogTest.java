@@ -0,0 +1,27 @@
+package com.chessapp.api.ingest.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    @Test
+    void small_sets_are_counted_almost_exactly() {
+        HyperLogLog hll = new HyperLogLog();
+        for (int i = 0; i < 1000; i++) {
+            hll.add(HyperLogLog.hash("user" + (i % 500)));
+        }
+        assertThat(hll.estimate()).isCloseTo(500L, within(2L));
+    }
+
+    @Test
+    void large_sets_stay_within_a_few_percent() {
+        HyperLogLog hll = new HyperLogLog();
+        for (int i = 0; i < 500_000; i++) {
+            hll.add(HyperLogLog.hash("game-" + i));
+        }
+        assertThat((double) hll.estimate()).isCloseTo(500_000, within(15_000.0));
+    }
+}
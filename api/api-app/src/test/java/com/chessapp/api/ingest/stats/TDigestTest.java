@@ -0,0 +1,38 @@
+package com.chessapp.api.ingest.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TDigestTest {
+
+    @Test
+    void quantiles_track_the_exact_values() {
+        Random random = new Random(42);
+        TDigest digest = new TDigest(100);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1500 + 300 * random.nextGaussian();
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[] {0.01, 0.25, 0.5, 0.75, 0.99}) {
+            assertThat(digest.quantile(q)).as("q=%s", q).isCloseTo(values[(int) (q * values.length)], within(10.0));
+            assertThat(digest.cdf(digest.quantile(q))).isCloseTo(q, within(0.002));
+        }
+        assertThat(digest.quantile(0)).isEqualTo(values[0]);
+        assertThat(digest.quantile(1)).isEqualTo(values[values.length - 1]);
+    }
+
+    @Test
+    void empty_digest_has_no_quantiles() {
+        TDigest digest = new TDigest(100);
+        assertThat(digest.count()).isZero();
+        assertThat(digest.quantile(0.5)).isNaN();
+    }
+}
@@ -0,0 +1,135 @@
+package com.chessapp.api.lichess;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.chessapp.api.codex.CodexApplication;
+import com.chessapp.api.data.ingest.IngestRunEntity;
+import com.chessapp.api.data.ingest.IngestRunRepository;
+import com.chessapp.api.ingest.service.IngestService;
+import com.chessapp.api.testutil.AbstractIntegrationTest;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * A Lichess-style {@code .pgn.zst} dump (streamed) and a plain {@code .pgn} (memory-mapped) from the
+ * local source root, executed like a claimed job.
+ */
+@SpringBootTest(classes = CodexApplication.class, properties = {
+        "chess.ingest.queue.workers=0",
+        "chess.ingest.lichess.local-root=${java.io.tmpdir}",
+        "chess.ingest.lichess.chunk-bytes=65536",
+        "chess.ingest.lichess.batch-size=1000"
+})
+class LichessIngestIT extends AbstractIntegrationTest {
+
+    private static final int GAMES = 20_000;
+    private static final String[] LINES = {
+            "1. e4 e5 2. Nf3 Nc6 3. Bb5 a6 4. Ba4 Nf6 5. O-O Be7 6. Re1 b5 7. Bb3 d6 8. c3 O-O",
+            "1. d4 d5 2. c4 e6 3. Nc3 Nf6 4. Bg5 Be7 5. e3 O-O 6. Nf3 h6 7. Bh4 b6 8. cxd5 Nxd5",
+            "1. e4 c5 2. Nf3 d6 3. d4 cxd4 4. Nxd4 Nf6 5. Nc3 a6 6. Be3 e5 7. Nb3 Be6 8. f3 Be7",
+    };
+
+    @MockitoBean
+    S3Client s3Client;
+
+    @Autowired IngestService ingestService;
+    @Autowired IngestRunRepository runs;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void zstd_dump_is_parsed_in_parallel_and_resumes() throws Exception {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        Path dump = Path.of(System.getProperty("java.io.tmpdir"), "lichess_db_it_" + tag + "_2024-01.pgn.zst");
+        try (OutputStream out = new ZstdOutputStream(Files.newOutputStream(dump))) {
+            for (int i = 0; i < GAMES; i++) {
+                out.write(game(tag, i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        try {
+            UUID runId = ingestService.startDump("lichess_it", "v2024-01", dump.getFileName().toString());
+            ingestService.execute(runId);
+
+            IngestRunEntity run = runs.findById(runId).orElseThrow();
+            assertThat(run.getStatus()).isEqualTo("SUCCEEDED");
+            assertThat(run.getGamesCount()).isEqualTo(GAMES);
+            assertThat(run.getMovesCount()).isEqualTo(GAMES * 17L);
+            assertThat(run.getBytesRead()).isGreaterThan(Files.size(dump));
+            assertThat(jdbc.queryForObject(
+                    "SELECT count(*) FROM games WHERE platform = 'LICHESS' AND game_id_ext LIKE ?",
+                    Long.class, tag + "%")).isEqualTo(GAMES);
+            // a resumed run reads the dump again and skips what is stored
+            assertThat(ingestService.resume(runId)).isFalse(); // SUCCEEDED runs are final
+            runs.finish(runId, java.util.List.of("SUCCEEDED"), "FAILED", null, "test", java.time.Instant.now());
+            assertThat(ingestService.resume(runId)).isTrue();
+            ingestService.execute(runId);
+            run = runs.findById(runId).orElseThrow();
+            assertThat(run.getStatus()).isEqualTo("SUCCEEDED");
+            assertThat(run.getGamesCount()).isEqualTo(GAMES);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    void plain_local_file_is_split_from_its_mapping() throws Exception {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        Path dump = Path.of(System.getProperty("java.io.tmpdir"), "lichess_db_it_" + tag + ".pgn");
+        StringBuilder pgn = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            pgn.append(game(tag, i));
+        }
+        Files.writeString(dump, pgn);
+        try {
+            UUID runId = ingestService.startDump("lichess_it", "v-mapped-" + tag, dump.getFileName().toString());
+            ingestService.execute(runId);
+
+            IngestRunEntity run = runs.findById(runId).orElseThrow();
+            assertThat(run.getStatus()).isEqualTo("SUCCEEDED");
+            assertThat(run.getGamesCount()).isEqualTo(5_000);
+            assertThat(run.getBytesRead()).isEqualTo(Files.size(dump));
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    void source_outside_the_local_root_fails_the_run() {
+        UUID runId = ingestService.startDump("lichess_it", "v2024-02", "../../etc/passwd");
+        ingestService.execute(runId);
+        IngestRunEntity run = runs.findById(runId).orElseThrow();
+        assertThat(run.getStatus()).isEqualTo("FAILED");
+        assertThat(run.getError()).contains("must be below");
+    }
+
+    private static String game(String tag, int i) {
+        return """
+                [Event "Rated Blitz game"]
+                [Site "https://lichess.org/%s%07d"]
+                [Date "2024.01.01"]
+                [White "w%d"]
+                [Black "b%d"]
+                [Result "1/2-1/2"]
+                [UTCDate "2024.01.01"]
+                [UTCTime "00:00:00"]
+                [WhiteElo "1500"]
+                [BlackElo "1500"]
+                [TimeControl "180+0"]
+
+                %s 9. h3 1/2-1/2
+
+                """.formatted(tag, i, i, i, LINES[i % LINES.length]);
+    }
+}
@@ -0,0 +1,46 @@
+package com.chessapp.api.lichess;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.chessapp.api.lichess.service.LichessIngestService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LichessSourceTest {
+
+    private final LichessIngestService service = new LichessIngestService(null, null, null, null, null,
+            new SimpleMeterRegistry(), "/data/lichess", "lichess", 1, 65536, 1000, 1, 1 << 20,
+            List.of("database.lichess.org", " Mirror.Example.org "));
+
+    @Test
+    void https_on_an_allowed_host_and_local_paths_pass() {
+        assertThatCode(() -> service.validate(
+                "https://database.lichess.org/standard/lichess_db_standard_rated_2024-01.pgn.zst"))
+                .doesNotThrowAnyException();
+        assertThatCode(() -> service.validate("https://MIRROR.example.org:443/2024-01.pgn")).doesNotThrowAnyException();
+        assertThatCode(() -> service.validate("2024/lichess_db_standard_rated_2024-01.pgn.zst"))
+                .doesNotThrowAnyException();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "http://database.lichess.org/standard/x.pgn.zst",
+            "https://169.254.169.254/latest/meta-data/",
+            "https://localhost:8080/actuator/env",
+            "https://database.lichess.org.evil.example/x.pgn",
+            "https://database.lichess.org:8443/x.pgn",
+            "https://user@database.lichess.org/x.pgn",
+            "https://database.lichess.org/x y.pgn",
+            "../../etc/passwd",
+    })
+    void other_sources_are_rejected(String source) {
+        assertThatThrownBy(() -> service.validate(source)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -77,6 +77,8 @@ class ServingControllerIT extends AbstractIntegrationTest {
         assertThat(resp.getStatusCode().value()).isEqualTo(200);
         var body = java.util.Objects.requireNonNull(resp.getBody());
         assertThat(body.move()).isEqualTo("e2e4");
+        // generated locally, not the upstream's one-element list
+        assertThat(body.legal()).hasSize(20).contains("e2e4", "g1f3");
 
         RecordedRequest req = serve.takeRequest();
         assertThat(req.getHeader("X-Run-Id")).isNotBlank();
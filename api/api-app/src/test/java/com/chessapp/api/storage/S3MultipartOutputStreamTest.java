@@ -0,0 +1,74 @@
+package com.chessapp.api.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+class S3MultipartOutputStreamTest {
+
+    @SuppressWarnings("unchecked")
+    private static S3Client multipartS3() {
+        S3Client s3 = mock(S3Client.class);
+        when(s3.createMultipartUpload(any(Consumer.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("u1").build());
+        when(s3.uploadPart(any(Consumer.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+        return s3;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void small_object_uses_single_put() throws IOException {
+        S3Client s3 = multipartS3();
+        AtomicInteger completed = new AtomicInteger();
+        try (var out = new S3MultipartOutputStream(s3, "datasets", "k", "text/plain", 16, completed::incrementAndGet)) {
+            out.write("hello".getBytes());
+        }
+        verify(s3).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3, never()).createMultipartUpload(any(Consumer.class));
+        assertThat(completed).hasValue(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void large_object_is_split_into_parts() throws IOException {
+        S3Client s3 = multipartS3();
+        var out = new S3MultipartOutputStream(s3, "datasets", "k", "text/plain", 16, () -> {});
+        out.write(new byte[40]);
+        out.close();
+        assertThat(out.bytesWritten()).isEqualTo(40);
+        assertThat(out.partsUploaded()).isEqualTo(3);
+        verify(s3, times(3)).uploadPart(any(Consumer.class), any(RequestBody.class));
+        verify(s3).completeMultipartUpload(any(Consumer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void abort_discards_upload() throws IOException {
+        S3Client s3 = multipartS3();
+        var out = new S3MultipartOutputStream(s3, "datasets", "k", "text/plain", 16, () -> {});
+        out.write(new byte[20]);
+        out.abort();
+        out.close();
+        verify(s3).abortMultipartUpload(any(Consumer.class));
+        verify(s3, never()).completeMultipartUpload(any(Consumer.class));
+        assertThatThrownBy(() -> out.write(1)).isInstanceOf(IOException.class);
+    }
+}
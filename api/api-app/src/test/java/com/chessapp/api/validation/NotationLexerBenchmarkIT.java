@@ -0,0 +1,93 @@
+package com.chessapp.api.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.common.validation.ValidFenValidator;
+import com.chessapp.api.common.validation.ValidPgnValidator;
+
+/**
+ * Cost per call of the FEN/PGN validators on the lexers against the regex versions they replaced
+ * (kept below as the baseline). Prints ns/call for both after a warm-up; run explicitly, it is
+ * not part of the unit suite.
+ */
+class NotationLexerBenchmarkIT {
+
+    private static final String[] FENS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4",
+            "8/8/4k3/8/2p5/8/1P2K3/8 w - - 0 52",
+    };
+    private static final String PGN = """
+            [Event "Live Chess"]
+            [Site "Chess.com"]
+            [Date "2024.01.05"]
+            [White "bob"]
+            [Black "alice"]
+            [Result "1-0"]
+            [WhiteElo "1500"]
+            [BlackElo "1490"]
+            [TimeControl "180+2"]
+
+            1. e4 {[%clk 0:03:01.9]} 1... e5 {[%clk 0:02:59]} 2. Nf3 {[%clk 0:03:00]} 2... Nc6
+            {[%clk 0:02:58]} 3. Bb5 {[%clk 0:02:59]} 3... a6 {[%clk 0:02:57]} 4. Ba4 Nf6 5. O-O Be7
+            6. Re1 b5 7. Bb3 d6 8. c3 O-O 9. h3 Nb8 10. d4 Nbd7 11. c4 c6 12. cxb5 axb5 13. Nc3 Bb7
+            14. Bg5 b4 15. Nb1 h6 16. Bh4 c5 17. dxe5 Nxe4 18. Bxe7 Qxe7 19. exd6 Qf6 20. Nbd2 1-0
+            """;
+    private static final int CALLS = 200_000;
+
+    private static final Pattern MOVE_PATTERN = Pattern.compile("\\d+\\.\\s*[a-hnbrqkoxO0-9+=#-]+");
+
+    @Test
+    void lexers_are_cheaper_per_call_than_the_regex_validators() {
+        ValidFenValidator fen = new ValidFenValidator();
+        ValidPgnValidator pgn = new ValidPgnValidator();
+
+        double fenRegex = nanosPerCall("fen", "regex", NotationLexerBenchmarkIT::regexFen, FENS);
+        double fenLexer = nanosPerCall("fen", "lexer", s -> fen.isValid(s, null), FENS);
+        double pgnRegex = nanosPerCall("pgn", "regex", NotationLexerBenchmarkIT::regexPgn, PGN);
+        double pgnLexer = nanosPerCall("pgn", "lexer", s -> pgn.isValid(s, null), PGN);
+
+        assertThat(fenLexer).isLessThan(fenRegex);
+        assertThat(pgnLexer).isLessThan(pgnRegex);
+    }
+
+    private static double nanosPerCall(String kind, String impl, Predicate<String> check, String... inputs) {
+        int valid = 0;
+        // warm-up, then the measured round
+        for (int round = 0; round < 2; round++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                if (check.test(inputs[i % inputs.length])) valid++;
+            }
+            double ns = (System.nanoTime() - t0) / (double) CALLS;
+            if (round == 1) {
+                assertThat(valid).isEqualTo(2 * CALLS);
+                System.out.printf("notation-validate kind=%s impl=%s calls=%d ns_per_call=%.0f%n", kind, impl, CALLS, ns);
+                return ns;
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    /** ValidFenValidator before the lexer. */
+    private static boolean regexFen(String fen) {
+        String[] parts = fen.trim().split("\\s+");
+        if (parts.length < 4 || parts.length > 6) return false;
+        return parts[0].matches("(?i)([prnbqk1-8]{1,8}/){7}[prnbqk1-8]{1,8}")
+                && parts[1].matches("[wb]")
+                && parts[2].matches("(-|K?Q?k?q?)")
+                && parts[3].matches("(-|[a-h][36])");
+    }
+
+    /** ValidPgnValidator before the lexer. */
+    private static boolean regexPgn(String pgn) {
+        String noHeaders = pgn.trim().replaceAll("(?m)^\\[.*?\\]\\s*", "").trim();
+        if (noHeaders.isEmpty()) return false;
+        return MOVE_PATTERN.matcher(noHeaders).find();
+    }
+}
@@ -0,0 +1,84 @@
+package com.chessapp.api.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.chessapp.api.common.notation.FenLexer;
+import com.chessapp.api.common.notation.PgnLexer;
+import com.chessapp.api.common.validation.ValidFenValidator;
+import com.chessapp.api.common.validation.ValidPgnValidator;
+
+class NotationLexerTest {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private final ValidFenValidator fenValidator = new ValidFenValidator();
+    private final ValidPgnValidator pgnValidator = new ValidPgnValidator();
+
+    @Test
+    void fen_fields_are_validated_and_located() {
+        int[] bounds = new int[12];
+        assertThat(FenLexer.lex("  " + START + " ", bounds)).isEqualTo(6);
+        assertThat(bounds[2 * FenLexer.CASTLING]).isEqualTo(2 + START.indexOf("KQkq"));
+        assertThat(FenLexer.number(START, bounds, FenLexer.lex(START, bounds), FenLexer.FULLMOVE_NUMBER, 0)).isEqualTo(1);
+
+        assertThat(fenValidator.isValid(START, null)).isTrue();
+        assertThat(fenValidator.isValid("4k3/8/8/8/8/8/8/4K3 b - e3", null)).isTrue();
+        assertThat(fenValidator.isValid(null, null)).isTrue();
+        assertThat(fenValidator.isValid("invalid", null)).isFalse();
+        // 9 squares on the first rank, 7 ranks, castling out of order, counters not numbers
+        assertThat(fenValidator.isValid("rnbqkbnr1/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", null)).isFalse();
+        assertThat(fenValidator.isValid("8/8/8/8/8/8/8 w - -", null)).isFalse();
+        assertThat(fenValidator.isValid("8/8/8/8/8/8/8/8 w kK -", null)).isFalse();
+        assertThat(fenValidator.isValid("8/8/8/8/8/8/8/8 w - - x 1", null)).isFalse();
+        assertThat(fenValidator.isValid(START + " 7", null)).isFalse();
+    }
+
+    @Test
+    void pgn_tokens_carry_offsets_into_the_input() {
+        String pgn = """
+                [Event "Casual \\"blitz\\""]
+                [Broken
+                %escaped line
+                1.e4 {[%clk 0:03:00]} 1... e5 $1 (1... c5 2. Nf3) 2. Nf3 ; rest of line
+                1/2-1/2
+                """;
+        List<String> tokens = new ArrayList<>();
+        PgnLexer lexer = new PgnLexer().reset(pgn);
+        for (PgnLexer.Token t = lexer.next(); t != PgnLexer.Token.END; t = lexer.next()) {
+            tokens.add(t + ":" + (t == PgnLexer.Token.TAG ? lexer.text() + "=" + lexer.value() : lexer.text()));
+        }
+
+        assertThat(tokens).containsExactly(
+                "TAG:Event=Casual \"blitz\"", "MALFORMED_TAG:[Broken",
+                "MOVE_NUMBER:1.", "MOVE:e4", "COMMENT:[%clk 0:03:00]", "MOVE_NUMBER:1...", "MOVE:e5", "NAG:$1",
+                "VARIATION_START:(", "MOVE_NUMBER:1...", "MOVE:c5", "MOVE_NUMBER:2.", "MOVE:Nf3", "VARIATION_END:)",
+                "MOVE_NUMBER:2.", "MOVE:Nf3", "LINE_COMMENT: rest of line", "RESULT:1/2-1/2");
+    }
+
+    @Test
+    void bytes_are_lexed_in_place_and_decoded_as_utf8() {
+        byte[] line = "xx[White \"Müller\"]".getBytes(StandardCharsets.UTF_8);
+        PgnLexer lexer = new PgnLexer().reset(line, 2, line.length);
+
+        assertThat(lexer.next()).isEqualTo(PgnLexer.Token.TAG);
+        assertThat(lexer.is("White")).isTrue();
+        assertThat(lexer.value()).isEqualTo("Müller");
+        assertThat(lexer.next()).isEqualTo(PgnLexer.Token.END);
+    }
+
+    @Test
+    void pgn_needs_a_numbered_move() {
+        assertThat(pgnValidator.isValid("[Event \"?\"]\n\n1. e4 e5 2. Nf3 Nc6 1/2-1/2", null)).isTrue();
+        assertThat(pgnValidator.isValid("1.Nf3 *", null)).isTrue();
+        assertThat(pgnValidator.isValid("  ", null)).isTrue();
+        assertThat(pgnValidator.isValid("[Event \"?\"]\n[Site \"?\"]", null)).isFalse();
+        assertThat(pgnValidator.isValid("pgn", null)).isFalse();
+        assertThat(pgnValidator.isValid("{1. e4} *", null)).isFalse();
+    }
+}
@@ -0,0 +1,132 @@
+package com.chessapp.api.common.notation;
+
+/**
+ * Single-pass FEN validator and field splitter that works on any {@link CharSequence} without
+ * creating strings or regex matchers.
+ * <p>
+ * Fields are separated by runs of whitespace; leading and trailing whitespace is ignored. The
+ * first four fields are required, the move counters are optional. Checked per field: placement
+ * has 8 ranks of 8 squares each, side to move is {@code w} or {@code b}, castling is {@code -}
+ * or {@code KQkq} in that order without repeats, en passant is {@code -} or a square on rank 3
+ * or 6, and the counters are decimal numbers. Whether the position is reachable is not checked.
+ */
+public final class FenLexer {
+
+    public static final int PLACEMENT = 0;
+    public static final int SIDE_TO_MOVE = 1;
+    public static final int CASTLING = 2;
+    public static final int EN_PASSANT = 3;
+    public static final int HALFMOVE_CLOCK = 4;
+    public static final int FULLMOVE_NUMBER = 5;
+
+    private static final String PIECES = "pnbrqkPNBRQK";
+    private static final String CASTLING_RIGHTS = "KQkq";
+
+    private FenLexer() {
+    }
+
+    public static boolean isValid(CharSequence fen) {
+        return lex(fen, null) > 0;
+    }
+
+    /**
+     * Validate {@code fen} and, when {@code bounds} is given (at least 12 entries), store start
+     * and end offset of field {@code f} at {@code bounds[2f]} and {@code bounds[2f + 1]}.
+     *
+     * @return the number of fields (4 to 6), or -1 when {@code fen} is malformed
+     */
+    public static int lex(CharSequence fen, int[] bounds) {
+        int n = fen.length();
+        int i = skipSpace(fen, 0, n);
+        int field = 0;
+        while (i < n) {
+            if (field > FULLMOVE_NUMBER) {
+                return -1;
+            }
+            int start = i;
+            while (i < n && !Character.isWhitespace(fen.charAt(i))) i++;
+            if (!validField(field, fen, start, i)) {
+                return -1;
+            }
+            if (bounds != null) {
+                bounds[2 * field] = start;
+                bounds[2 * field + 1] = i;
+            }
+            field++;
+            i = skipSpace(fen, i, n);
+        }
+        return field > EN_PASSANT ? field : -1;
+    }
+
+    /** Value of a counter field from {@link #lex}, or {@code fallback} when it is absent or too large. */
+    public static int number(CharSequence fen, int[] bounds, int fields, int field, int fallback) {
+        if (fields < 0 || field >= fields) {
+            return fallback;
+        }
+        long value = 0;
+        for (int i = bounds[2 * field]; i < bounds[2 * field + 1]; i++) {
+            value = value * 10 + (fen.charAt(i) - '0');
+            if (value > Integer.MAX_VALUE) return fallback;
+        }
+        return (int) value;
+    }
+
+    private static boolean validField(int field, CharSequence s, int from, int to) {
+        return switch (field) {
+            case PLACEMENT -> placement(s, from, to);
+            case SIDE_TO_MOVE -> to - from == 1 && (s.charAt(from) == 'w' || s.charAt(from) == 'b');
+            case CASTLING -> castling(s, from, to);
+            case EN_PASSANT -> to - from == 1 && s.charAt(from) == '-'
+                    || to - from == 2 && s.charAt(from) >= 'a' && s.charAt(from) <= 'h'
+                    && (s.charAt(from + 1) == '3' || s.charAt(from + 1) == '6');
+            default -> digits(s, from, to);
+        };
+    }
+
+    private static boolean placement(CharSequence s, int from, int to) {
+        int ranks = 1;
+        int squares = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '/') {
+                if (squares != 8) return false;
+                ranks++;
+                squares = 0;
+            } else if (c >= '1' && c <= '8') {
+                squares += c - '0';
+            } else if (PIECES.indexOf(c) >= 0) {
+                squares++;
+            } else {
+                return false;
+            }
+            if (squares > 8) return false;
+        }
+        return ranks == 8 && squares == 8;
+    }
+
+    private static boolean castling(CharSequence s, int from, int to) {
+        if (to - from == 1 && s.charAt(from) == '-') {
+            return true;
+        }
+        int last = -1;
+        for (int i = from; i < to; i++) {
+            int k = CASTLING_RIGHTS.indexOf(s.charAt(i));
+            if (k <= last) return false;
+            last = k;
+        }
+        return true;
+    }
+
+    private static boolean digits(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private static int skipSpace(CharSequence s, int i, int n) {
+        while (i < n && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+}
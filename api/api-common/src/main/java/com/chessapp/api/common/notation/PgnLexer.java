@@ -0,0 +1,266 @@
+package com.chessapp.api.common.notation;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hand-written PGN tokenizer over a {@link CharSequence} or a byte range, in one pass and without
+ * creating strings: a token is reported as its type plus offsets into the input, and callers
+ * only copy the text they keep. One instance can be {@link #reset} and reused; not thread-safe.
+ * <p>
+ * Tokens: tag pairs ({@code [Name "value"]}, offsets of name and raw value), move numbers
+ * ({@code 12.}, {@code 12...}, also when glued to the move as in {@code 12.e4}), moves (any other
+ * word, SAN suffixes like {@code +!?} included), NAGs ({@code $1}), comments ({@code {...}}, and
+ * {@code ;} to the end of the line; offsets of the text inside), variation brackets and the game
+ * result.
+ * Words end at whitespace, an opening brace, parentheses and {@code ;}. Lines starting with
+ * {@code %} are skipped. A tag line the lexer cannot read becomes {@link Token#MALFORMED_TAG}.
+ * <p>
+ * Byte input is read as Latin-1 for the structure, which is safe because every delimiter is
+ * ASCII; decode names, values and comments with {@link #decode} when they hold UTF-8.
+ */
+public final class PgnLexer {
+
+    public enum Token {
+        TAG, MALFORMED_TAG, MOVE_NUMBER, MOVE, NAG, COMMENT, LINE_COMMENT, VARIATION_START, VARIATION_END, RESULT, END
+    }
+
+    private final Bytes bytes = new Bytes();
+    private CharSequence text = "";
+    private int from;
+    private int limit;
+    private int pos;
+
+    private Token token = Token.END;
+    private int start;
+    private int end;
+    private int valueStart;
+    private int valueEnd;
+
+    public PgnLexer reset(CharSequence text) {
+        return reset(text, 0, text.length());
+    }
+
+    public PgnLexer reset(CharSequence text, int from, int to) {
+        this.text = text;
+        this.from = from;
+        this.limit = to;
+        this.pos = from;
+        this.token = Token.END;
+        return this;
+    }
+
+    public PgnLexer reset(byte[] data, int from, int to) {
+        bytes.data = data;
+        bytes.length = to;
+        return reset(bytes, from, to);
+    }
+
+    /** Advance to the next token; {@link Token#END} once the input is used up. */
+    public Token next() {
+        skipSpace();
+        if (pos >= limit) {
+            start = end = pos;
+            return token = Token.END;
+        }
+        char c = text.charAt(pos);
+        return token = switch (c) {
+            case '{' -> {
+                int close = indexOf('}', pos + 1, limit);
+                start = pos + 1;
+                end = close;
+                pos = Math.min(close + 1, limit);
+                yield Token.COMMENT;
+            }
+            case ';' -> {
+                start = pos + 1;
+                end = indexOf('\n', pos + 1, limit);
+                pos = end;
+                yield Token.LINE_COMMENT;
+            }
+            case '(', ')' -> {
+                start = pos;
+                end = ++pos;
+                yield c == '(' ? Token.VARIATION_START : Token.VARIATION_END;
+            }
+            case '[' -> tag();
+            default -> word();
+        };
+    }
+
+    public Token token() {
+        return token;
+    }
+
+    /** Start of the token; for a tag, of its name; for a comment, of the text inside. */
+    public int start() {
+        return start;
+    }
+
+    public int end() {
+        return end;
+    }
+
+    /** Start of a tag's value between the quotes, escapes not resolved. */
+    public int valueStart() {
+        return valueStart;
+    }
+
+    public int valueEnd() {
+        return valueEnd;
+    }
+
+    public int length() {
+        return end - start;
+    }
+
+    public char charAt(int index) {
+        return text.charAt(index);
+    }
+
+    /** Whether the token (a tag's name for tags) is {@code s}. */
+    public boolean is(String s) {
+        return regionEquals(start, end, s);
+    }
+
+    /** The token text; allocates. */
+    public String text() {
+        return decode(start, end);
+    }
+
+    /** A tag's value with {@code \"} and {@code \\} resolved; allocates. */
+    public String value() {
+        String raw = decode(valueStart, valueEnd);
+        return raw.indexOf('\\') < 0 ? raw : raw.replace("\\\"", "\"").replace("\\\\", "\\");
+    }
+
+    /** Text of {@code [from, to)}, decoded as UTF-8 for byte input; allocates. */
+    public String decode(int from, int to) {
+        if (text == bytes) {
+            return new String(bytes.data, from, to - from, StandardCharsets.UTF_8);
+        }
+        return text.subSequence(from, to).toString();
+    }
+
+    /**
+     * {@code [Name "value"]} up to the end of the line. Like most readers, the value runs to the
+     * last quote before the last {@code ]}, so unescaped quotes inside it are tolerated.
+     */
+    private Token tag() {
+        int eol = indexOf('\n', pos, limit);
+        int i = pos + 1;
+        while (i < eol && text.charAt(i) == ' ') i++;
+        int nameStart = i;
+        while (i < eol && !Character.isWhitespace(text.charAt(i)) && text.charAt(i) != '"') i++;
+        int nameEnd = i;
+        int open = indexOf('"', i, eol);
+        int close = lastIndexOf(']', pos, eol);
+        int quote = close < 0 ? -1 : lastIndexOf('"', pos, close);
+        int lineStart = pos;
+        pos = eol;
+        if (nameEnd > nameStart && open < eol && quote > open) {
+            start = nameStart;
+            end = nameEnd;
+            valueStart = open + 1;
+            valueEnd = quote;
+            return Token.TAG;
+        }
+        start = lineStart;
+        end = eol;
+        return Token.MALFORMED_TAG;
+    }
+
+    private Token word() {
+        int s = pos;
+        int i = pos;
+        while (i < limit && isDigit(text.charAt(i))) i++;
+        if (i > s && i < limit && text.charAt(i) == '.') {
+            while (i < limit && text.charAt(i) == '.') i++;
+            start = s;
+            end = pos = i;
+            return Token.MOVE_NUMBER;
+        }
+        while (i < limit && !isDelimiter(text.charAt(i))) i++;
+        start = s;
+        end = pos = i;
+        if (text.charAt(s) == '$') {
+            return Token.NAG;
+        }
+        return isResult() ? Token.RESULT : Token.MOVE;
+    }
+
+    private boolean isResult() {
+        return is("1-0") || is("0-1") || is("1/2-1/2") || is("*");
+    }
+
+    private void skipSpace() {
+        while (pos < limit) {
+            char c = text.charAt(pos);
+            if (c == '%' && (pos == from || text.charAt(pos - 1) == '\n')) {
+                pos = indexOf('\n', pos, limit);
+            } else if (Character.isWhitespace(c)) {
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private boolean regionEquals(int from, int to, String s) {
+        if (to - from != s.length()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            if (text.charAt(from + i) != s.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** Offset of {@code c} in {@code [from, to)}, or {@code to}. */
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == c) return i;
+        }
+        return to;
+    }
+
+    /** Last offset of {@code c} in {@code [from, to)}, or -1. */
+    private int lastIndexOf(char c, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (text.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '(' || c == ')' || c == ';';
+    }
+
+    /** Bytes as chars without copying; reused across resets. */
+    private static final class Bytes implements CharSequence {
+
+        byte[] data;
+        int length;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (data[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(data, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(data, 0, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
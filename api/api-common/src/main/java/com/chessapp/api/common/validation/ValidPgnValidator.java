@@ -3,18 +3,26 @@ package com.chessapp.api.common.validation;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
-import java.util.regex.Pattern;
+import com.chessapp.api.common.notation.PgnLexer;
 
+/** Accepts PGN whose movetext has at least one numbered move, e.g. {@code 1. e4}; tags alone are not enough. */
 public class ValidPgnValidator implements ConstraintValidator<ValidPgn, String> {
-    private static final Pattern MOVE_PATTERN = Pattern.compile("\\d+\\.\\s*[a-hnbrqkoxO0-9+=#-]+");
 
     @Override
     public boolean isValid(String pgn, ConstraintValidatorContext context) {
         if (pgn == null || pgn.isBlank()) return true;
-        String trimmed = pgn.trim();
-        // Strip header tags
-        String noHeaders = trimmed.replaceAll("(?m)^\\[.*?\\]\\s*", "").trim();
-        if (noHeaders.isEmpty()) return false;
-        return MOVE_PATTERN.matcher(noHeaders).find();
+        PgnLexer lexer = new PgnLexer().reset(pgn);
+        boolean afterNumber = false;
+        for (PgnLexer.Token t = lexer.next(); t != PgnLexer.Token.END; t = lexer.next()) {
+            if (t == PgnLexer.Token.MOVE && afterNumber && isSanStart(lexer.charAt(lexer.start()))) {
+                return true;
+            }
+            afterNumber = t == PgnLexer.Token.MOVE_NUMBER;
+        }
+        return false;
+    }
+
+    private static boolean isSanStart(char c) {
+        return (c >= 'a' && c <= 'h') || "NBRQKO0".indexOf(c) >= 0;
     }
 }
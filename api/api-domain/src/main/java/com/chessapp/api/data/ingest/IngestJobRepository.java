@@ -0,0 +1,123 @@
+package com.chessapp.api.data.ingest;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Postgres-backed queue of ingest runs ({@code ingest_jobs}).
+ * <p>
+ * Workers on any node claim the oldest claimable job with {@code FOR UPDATE SKIP LOCKED}, so
+ * concurrent claims never block on or return the same row. A claim is a lease: the holder
+ * extends it by {@link #heartbeat}, and a job whose lease ran out (crashed node, stuck worker)
+ * becomes claimable again. All lease times use the database clock.
+ */
+@Repository
+public class IngestJobRepository {
+
+    private static final String ENQUEUE = """
+            INSERT INTO ingest_jobs (run_id) VALUES (?)
+            ON CONFLICT (run_id) DO UPDATE
+              SET enqueued_at = now(), attempts = 0, locked_by = NULL, lease_until = NULL, heartbeat_at = NULL
+            """;
+
+    private static final String CLAIM = """
+            UPDATE ingest_jobs j
+               SET locked_by = ?, lease_until = now() + ? * interval '1 millisecond',
+                   heartbeat_at = now(), attempts = j.attempts + 1
+              FROM (SELECT run_id FROM ingest_jobs
+                     WHERE (locked_by IS NULL OR lease_until < now()) AND attempts < ?
+                     ORDER BY enqueued_at
+                     LIMIT 1
+                     FOR UPDATE SKIP LOCKED) c
+             WHERE j.run_id = c.run_id
+            RETURNING j.run_id, j.attempts
+            """;
+
+    private static final String HEARTBEAT = """
+            UPDATE ingest_jobs
+               SET lease_until = now() + ? * interval '1 millisecond', heartbeat_at = now()
+             WHERE locked_by = ? AND run_id = ANY(?)
+            """;
+
+    private static final String EXHAUSTED = """
+            DELETE FROM ingest_jobs
+             WHERE run_id IN (SELECT run_id FROM ingest_jobs
+                               WHERE lease_until < now() AND attempts >= ?
+                               FOR UPDATE SKIP LOCKED)
+            RETURNING run_id
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public IngestJobRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Queue a run; re-queuing a known run resets its attempts and releases any lease. */
+    public void enqueue(UUID runId) {
+        jdbc.update(ENQUEUE, runId);
+    }
+
+    /**
+     * Claim the oldest job that is unclaimed or whose lease expired.
+     *
+     * @param maxAttempts jobs claimed this often are left for {@link #removeExhausted(int)}
+     */
+    public Optional<Claim> claim(String workerId, Duration lease, int maxAttempts) {
+        List<Claim> claimed = jdbc.query(CLAIM,
+                (rs, i) -> new Claim(rs.getObject("run_id", UUID.class), rs.getInt("attempts")),
+                workerId, lease.toMillis(), maxAttempts);
+        return claimed.stream().findFirst();
+    }
+
+    /**
+     * Extend the leases of the given jobs held by {@code workerId}.
+     *
+     * @return number of leases extended; fewer than requested means a job was lost to another worker
+     */
+    public int heartbeat(String workerId, Collection<UUID> runIds, Duration lease) {
+        if (runIds.isEmpty()) {
+            return 0;
+        }
+        return jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(HEARTBEAT);
+            Array ids = con.createArrayOf("uuid", runIds.toArray());
+            ps.setLong(1, lease.toMillis());
+            ps.setString(2, workerId);
+            ps.setArray(3, ids);
+            return ps;
+        });
+    }
+
+    /** Remove a finished job; a no-op when the lease was meanwhile taken over by another worker. */
+    public boolean complete(UUID runId, String workerId) {
+        return jdbc.update("DELETE FROM ingest_jobs WHERE run_id = ? AND locked_by = ?", runId, workerId) > 0;
+    }
+
+    /** Remove jobs whose lease expired after {@code maxAttempts} claims and return their run ids. */
+    public List<UUID> removeExhausted(int maxAttempts) {
+        return jdbc.query(EXHAUSTED, (rs, i) -> rs.getObject("run_id", UUID.class), maxAttempts);
+    }
+
+    /** Jobs waiting for a worker (unclaimed or with an expired lease). */
+    public long countQueued() {
+        Long n = jdbc.queryForObject(
+                "SELECT count(*) FROM ingest_jobs WHERE locked_by IS NULL OR lease_until < now()", Long.class);
+        return n != null ? n : 0L;
+    }
+
+    /**
+     * A claimed job.
+     *
+     * @param attempts how often the job has been claimed, including this claim
+     */
+    public record Claim(UUID runId, int attempts) {}
+}
@@ -35,12 +35,36 @@ public class IngestRunEntity {
     @Column(name = "versions", columnDefinition = "jsonb")
     private List<String> versions;
 
+    /** chess.com players of a bulk run; null for single-player and upload runs. */
+    @Type(JsonType.class)
+    @Column(name = "players", columnDefinition = "jsonb")
+    private List<String> players;
+
+    /** File or URL of a Lichess dump run; null for chess.com and upload runs. */
+    @Column(name = "source")
+    private String source;
+
     @Column(name = "files_written")
     private Long filesWritten;
 
+    @Column(name = "games_count")
+    private Long gamesCount;
+
+    @Column(name = "moves_count")
+    private Long movesCount;
+
+    @Column(name = "positions_count")
+    private Long positionsCount;
+
+    @Column(name = "bytes_read")
+    private Long bytesRead;
+
     @Column(name = "report_uri")
     private String reportUri;
 
+    @Column(name = "error", columnDefinition = "text")
+    private String error;
+
     @Column(name = "started_at")
     private Instant startedAt;
 
@@ -91,6 +115,9 @@ public class IngestRunEntity {
         this.reportUri = reportUri;
     }
 
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
     public String getDatasetId() { return datasetId; }
     public void setDatasetId(String datasetId) { this.datasetId = datasetId; }
 
@@ -103,6 +130,24 @@ public class IngestRunEntity {
     public Long getFilesWritten() { return filesWritten; }
     public void setFilesWritten(Long filesWritten) { this.filesWritten = filesWritten; }
 
+    public Long getGamesCount() { return gamesCount; }
+    public void setGamesCount(Long gamesCount) { this.gamesCount = gamesCount; }
+
+    public Long getMovesCount() { return movesCount; }
+    public void setMovesCount(Long movesCount) { this.movesCount = movesCount; }
+
+    public Long getPositionsCount() { return positionsCount; }
+    public void setPositionsCount(Long positionsCount) { this.positionsCount = positionsCount; }
+
+    public List<String> getPlayers() { return players; }
+    public void setPlayers(List<String> players) { this.players = players; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public Long getBytesRead() { return bytesRead; }
+    public void setBytesRead(Long bytesRead) { this.bytesRead = bytesRead; }
+
     public Instant getStartedAt() { return startedAt; }
 
     public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
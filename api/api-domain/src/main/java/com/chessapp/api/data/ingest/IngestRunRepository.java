@@ -1,12 +1,70 @@
 package com.chessapp.api.data.ingest;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.UUID;
 
 /**
  * Repository for {@link IngestRunEntity}.
+ * <p>
+ * Progress and status changes of a running ingest go through the single-statement updates below
+ * instead of load-modify-save: concurrent writers cannot lose increments, and a status change
+ * only applies while the run is in one of the {@code expected} states. Each returns the number
+ * of rows updated, 0 meaning the run does not exist or was not in an expected state.
  */
 public interface IngestRunRepository extends JpaRepository<IngestRunEntity, UUID> {
     java.util.List<IngestRunEntity> findAllByDatasetIdOrderByStartedAtDesc(String datasetId);
+
+    /** Add to the file, byte and row counters of a run. */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE ingest_runs
+               SET files_written = coalesce(files_written, 0) + :files,
+                   bytes_read = coalesce(bytes_read, 0) + :bytes,
+                   games_count = coalesce(games_count, 0) + :games,
+                   moves_count = coalesce(moves_count, 0) + :moves,
+                   positions_count = coalesce(positions_count, 0) + :positions
+             WHERE id = :runId
+            """, nativeQuery = true)
+    int addProgress(@Param("runId") UUID runId, @Param("files") long files, @Param("bytes") long bytes,
+                    @Param("games") long games, @Param("moves") long moves, @Param("positions") long positions);
+
+    /** Move a run to a non-final status. */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE ingest_runs SET status = :status
+             WHERE id = :runId AND status IN (:expected)
+            """, nativeQuery = true)
+    int transition(@Param("runId") UUID runId, @Param("expected") Collection<String> expected,
+                   @Param("status") String status);
+
+    /** Move a run to a final status, recording when it finished, its report and its error (if any). */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE ingest_runs
+               SET status = :status, finished_at = :finishedAt,
+                   report_uri = coalesce(:reportUri, report_uri), error = :error
+             WHERE id = :runId AND status IN (:expected)
+            """, nativeQuery = true)
+    int finish(@Param("runId") UUID runId, @Param("expected") Collection<String> expected,
+               @Param("status") String status, @Param("reportUri") String reportUri,
+               @Param("error") String error, @Param("finishedAt") Instant finishedAt);
+
+    /** Put a FAILED or PARTIAL run back to PENDING for another attempt. */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE ingest_runs SET status = 'PENDING', error = NULL, finished_at = NULL
+             WHERE id = :runId AND status IN ('FAILED', 'PARTIAL')
+            """, nativeQuery = true)
+    int requeue(@Param("runId") UUID runId);
 }
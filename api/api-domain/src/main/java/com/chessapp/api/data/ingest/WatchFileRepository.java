@@ -0,0 +1,44 @@
+package com.chessapp.api.data.ingest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Byte offsets of watch-folder files ({@code ingest_watch_files}): everything before the offset
+ * has been written to {@code games}/{@code moves}/{@code positions}.
+ */
+@Repository
+public class WatchFileRepository {
+
+    private static final String UPSERT = """
+            INSERT INTO ingest_watch_files (path, offset_bytes) VALUES (?, ?)
+            ON CONFLICT (path) DO UPDATE SET offset_bytes = excluded.offset_bytes, updated_at = now()
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public WatchFileRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Offsets of all files below {@code dir}, keyed by absolute path. */
+    public Map<String, Long> offsets(String dir) {
+        Map<String, Long> offsets = new HashMap<>();
+        jdbc.query("SELECT path, offset_bytes FROM ingest_watch_files WHERE path LIKE ?",
+                rs -> { offsets.put(rs.getString(1), rs.getLong(2)); },
+                dir.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+        return offsets;
+    }
+
+    public void save(Map<String, Long> offsets) {
+        if (offsets.isEmpty()) return;
+        List<Object[]> args = offsets.entrySet().stream()
+                .map(e -> new Object[] {e.getKey(), e.getValue()})
+                .toList();
+        jdbc.batchUpdate(UPSERT, args);
+    }
+}
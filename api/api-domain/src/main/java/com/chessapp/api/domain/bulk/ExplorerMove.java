@@ -0,0 +1,13 @@
+package com.chessapp.api.domain.bulk;
+
+import java.util.UUID;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * One move of a game as counted by the opening explorer.
+ *
+ * @param zobrist        hash of the position the move was played from
+ * @param opponentRating rating of the side that did not make the move, if known
+ */
+public record ExplorerMove(UUID gameId, long zobrist, String uci, String san, @Nullable Integer opponentRating) {}
@@ -0,0 +1,259 @@
+package com.chessapp.api.domain.bulk;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HexFormat;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.chessapp.api.domain.entity.Game;
+import com.chessapp.api.domain.entity.Move;
+import com.chessapp.api.domain.entity.Position;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Bulk write path for games with their moves and positions.
+ * <p>
+ * Rows are streamed with {@code COPY ... FROM STDIN (FORMAT csv)} into temporary staging tables
+ * (dropped on commit) and merged in one statement: games are inserted with
+ * {@code ON CONFLICT (platform, game_id_ext) DO NOTHING}, and only moves/positions of games that
+ * were actually inserted follow. Ids are assigned by the caller so child rows can reference
+ * their game before it exists.
+ * <p>
+ * Explorer moves of the inserted games are added to {@code explorer_moves} in the same
+ * statement, in all four owner/time-control buckets. The upsert visits keys in primary-key
+ * order, so concurrent batches touching the same opening rows wait for each other instead of
+ * deadlocking.
+ * <p>
+ * Must run inside a transaction; the connection is the one bound to it.
+ */
+@Repository
+public class GameBulkLoader {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final String STAGING = """
+            CREATE TEMP TABLE IF NOT EXISTS stg_games (
+              id uuid, user_id uuid, platform text, game_id_ext text, end_time timestamptz,
+              time_control text, time_category text, result text, white_rating integer,
+              black_rating integer, pgn text, moves_bin bytea, clocks_bin bytea, tags text
+            ) ON COMMIT DROP;
+            CREATE TEMP TABLE IF NOT EXISTS stg_moves (
+              game_id uuid, ply integer, san text, uci text, color text, clock_ms integer, comment text
+            ) ON COMMIT DROP;
+            CREATE TEMP TABLE IF NOT EXISTS stg_positions (
+              game_id uuid, ply integer, fen text, zobrist bigint, side_to_move text
+            ) ON COMMIT DROP;
+            CREATE TEMP TABLE IF NOT EXISTS stg_explorer (
+              game_id uuid, zobrist bigint, uci text, san text, opponent_rating integer
+            ) ON COMMIT DROP;
+            """;
+
+    private static final String MERGE = """
+            WITH g AS (
+              INSERT INTO games (id, user_id, platform, game_id_ext, end_time, time_control, time_category,
+                                 result, white_rating, black_rating, pgn, moves_bin, clocks_bin, tags)
+              SELECT id, user_id, platform::platform, game_id_ext, end_time, time_control,
+                     time_category::time_category, result::game_result, white_rating, black_rating, pgn,
+                     moves_bin, clocks_bin, coalesce(tags::jsonb, '{}'::jsonb)
+              FROM stg_games
+              ON CONFLICT (platform, game_id_ext) DO NOTHING
+              RETURNING id
+            ), m AS (
+              INSERT INTO moves (id, game_id, ply, san, uci, color, clock_ms, comment)
+              SELECT gen_random_uuid(), s.game_id, s.ply, s.san, s.uci, s.color::color, s.clock_ms, s.comment
+              FROM stg_moves s JOIN g ON g.id = s.game_id
+              ON CONFLICT (game_id, ply) DO NOTHING
+              RETURNING 1
+            ), p AS (
+              INSERT INTO positions (id, game_id, ply, fen, zobrist, side_to_move)
+              SELECT gen_random_uuid(), s.game_id, s.ply, s.fen, s.zobrist, s.side_to_move::color
+              FROM stg_positions s JOIN g ON g.id = s.game_id
+              ON CONFLICT (game_id, ply) DO NOTHING
+              RETURNING 1
+            ), e AS (
+              INSERT INTO explorer_moves AS x (zobrist, user_id, time_category, uci, san, games, white_wins,
+                                               draws, black_wins, opponent_rating_sum, opponent_rating_count)
+              SELECT s.zobrist, b.user_id, b.time_category, s.uci, min(s.san), count(*),
+                     count(*) FILTER (WHERE sg.result = 'WHITE_WIN'),
+                     count(*) FILTER (WHERE sg.result = 'DRAW'),
+                     count(*) FILTER (WHERE sg.result = 'BLACK_WIN'),
+                     coalesce(sum(s.opponent_rating), 0), count(s.opponent_rating)
+              FROM stg_explorer s
+              JOIN g ON g.id = s.game_id
+              JOIN stg_games sg ON sg.id = s.game_id
+              CROSS JOIN LATERAL (VALUES
+                  (sg.user_id, coalesce(sg.time_category, 'UNKNOWN')),
+                  (sg.user_id, 'ALL'),
+                  ('00000000-0000-0000-0000-000000000000'::uuid, coalesce(sg.time_category, 'UNKNOWN')),
+                  ('00000000-0000-0000-0000-000000000000'::uuid, 'ALL')) b (user_id, time_category)
+              GROUP BY s.zobrist, b.user_id, b.time_category, s.uci
+              ORDER BY s.zobrist, b.user_id, b.time_category, s.uci
+              ON CONFLICT (zobrist, user_id, time_category, uci) DO UPDATE
+                SET games = x.games + excluded.games,
+                    white_wins = x.white_wins + excluded.white_wins,
+                    draws = x.draws + excluded.draws,
+                    black_wins = x.black_wins + excluded.black_wins,
+                    opponent_rating_sum = x.opponent_rating_sum + excluded.opponent_rating_sum,
+                    opponent_rating_count = x.opponent_rating_count + excluded.opponent_rating_count
+            )
+            SELECT (SELECT count(*) FROM g), (SELECT count(*) FROM m), (SELECT count(*) FROM p)
+            """;
+
+    private final DataSource dataSource;
+
+    public GameBulkLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Transactional
+    public LoadResult load(List<Game> games, List<Move> moves, List<Position> positions) {
+        return load(games, moves, positions, List.of());
+    }
+
+    @Transactional
+    public LoadResult load(List<Game> games, List<Move> moves, List<Position> positions,
+                           List<ExplorerMove> explorerMoves) {
+        if (games.isEmpty()) {
+            return new LoadResult(0, 0, 0);
+        }
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try {
+            try (Statement st = con.createStatement()) {
+                st.execute(STAGING);
+            }
+            CopyManager copy = con.unwrap(PGConnection.class).getCopyAPI();
+            copyGames(copy, games);
+            copyMoves(copy, moves);
+            copyPositions(copy, positions);
+            copyExplorerMoves(copy, explorerMoves);
+            try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(MERGE)) {
+                rs.next();
+                LoadResult result = new LoadResult(rs.getInt(1), rs.getLong(2), rs.getLong(3));
+                // staging tables live until commit; empty them for the next batch in this transaction
+                st.execute("TRUNCATE stg_games, stg_moves, stg_positions, stg_explorer");
+                return result;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("bulk load failed: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    private static void copyGames(CopyManager copy, List<Game> games) throws SQLException, IOException {
+        try (CsvRowWriter w = open(copy, "stg_games")) {
+            for (Game g : games) {
+                w.field(g.getId()).field(g.getUserId()).field(g.getPlatform()).field(g.getGameIdExt())
+                        .field(g.getEndTime()).field(g.getTimeControl()).field(g.getTimeCategory())
+                        .field(g.getResult()).field(g.getWhiteRating()).field(g.getBlackRating())
+                        .field(g.getPgn()).field(bytea(g.getMovesBin())).field(bytea(g.getClocksBin()))
+                        .field(json(g.getTags())).endRow();
+            }
+        }
+    }
+
+    private static void copyMoves(CopyManager copy, List<Move> moves) throws SQLException, IOException {
+        try (CsvRowWriter w = open(copy, "stg_moves")) {
+            for (Move m : moves) {
+                w.field(m.getGameId()).field(m.getPly()).field(m.getSan()).field(m.getUci())
+                        .field(m.getColor()).field(m.getClockMs()).field(m.getComment()).endRow();
+            }
+        }
+    }
+
+    private static void copyPositions(CopyManager copy, List<Position> positions) throws SQLException, IOException {
+        try (CsvRowWriter w = open(copy, "stg_positions")) {
+            for (Position p : positions) {
+                w.field(p.getGameId()).field(p.getPly()).field(p.getFen()).field(p.getZobrist()).field(p.getSideToMove())
+                        .endRow();
+            }
+        }
+    }
+
+    private static void copyExplorerMoves(CopyManager copy, List<ExplorerMove> moves) throws SQLException, IOException {
+        try (CsvRowWriter w = open(copy, "stg_explorer")) {
+            for (ExplorerMove m : moves) {
+                w.field(m.gameId()).field(m.zobrist()).field(m.uci()).field(m.san())
+                        .field(m.opponentRating()).endRow();
+            }
+        }
+    }
+
+    private static CsvRowWriter open(CopyManager copy, String table) throws SQLException {
+        var out = new PGCopyOutputStream(copy.copyIn("COPY " + table + " FROM STDIN (FORMAT csv)"), 64 * 1024);
+        return new CsvRowWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024));
+    }
+
+    private static String json(Object value) {
+        if (value == null) return null;
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /** Hex input format of bytea; backslashes are plain characters in CSV. */
+    private static String bytea(byte[] value) {
+        return value == null ? null : "\\x" + HexFormat.of().formatHex(value);
+    }
+
+    /** Rows actually inserted; games already present are not counted, nor are their children. */
+    public record LoadResult(int games, long moves, long positions) {}
+
+    /** CSV rows for COPY: null is an unquoted empty field, everything else is quoted. */
+    static final class CsvRowWriter implements AutoCloseable {
+
+        private final Writer out;
+        private boolean first = true;
+
+        CsvRowWriter(Writer out) {
+            this.out = out;
+        }
+
+        CsvRowWriter field(Object value) throws IOException {
+            if (!first) out.write(',');
+            first = false;
+            if (value == null) return this;
+            String s = value instanceof Enum<?> e ? e.name() : value.toString();
+            out.write('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"') out.write('"');
+                out.write(c);
+            }
+            out.write('"');
+            return this;
+        }
+
+        void endRow() throws IOException {
+            out.write('\n');
+            first = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -58,10 +58,19 @@ public class Game {
     @Column(name = "black_rating")
     private Integer blackRating;
 
-    @Column(name = "pgn", columnDefinition = "text", nullable = false)
+    /** Original PGN text; null when ingest kept only {@link #movesBin}. */
+    @Column(name = "pgn", columnDefinition = "text")
     @ValidPgn
     private String pgn;
 
+    /** Moves in the {@code MoveCodec} format; null for games written before V13. */
+    @Column(name = "moves_bin")
+    private byte[] movesBin;
+
+    /** Clocks in the {@code MoveCodec} format; null when the game has none. */
+    @Column(name = "clocks_bin")
+    private byte[] clocksBin;
+
     @Type(JsonType.class)
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> tags;
@@ -89,6 +98,10 @@ public class Game {
     public void setBlackRating(Integer blackRating) { this.blackRating = blackRating; }
     public String getPgn() { return pgn; }
     public void setPgn(String pgn) { this.pgn = pgn; }
+    public byte[] getMovesBin() { return movesBin; }
+    public void setMovesBin(byte[] movesBin) { this.movesBin = movesBin; }
+    public byte[] getClocksBin() { return clocksBin; }
+    public void setClocksBin(byte[] clocksBin) { this.clocksBin = clocksBin; }
     public Map<String, Object> getTags() { return tags; }
     public void setTags(Map<String, Object> tags) { this.tags = tags; }
 }
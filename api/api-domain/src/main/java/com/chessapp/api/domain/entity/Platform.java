@@ -1,5 +1,8 @@
 package com.chessapp.api.domain.entity;
 
 public enum Platform {
-    CHESS_COM
+    CHESS_COM,
+    LICHESS,
+    /** Engine games from the self-play runners, kept apart from real players' games. */
+    SELFPLAY
 }
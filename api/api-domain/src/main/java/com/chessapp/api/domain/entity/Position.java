@@ -1,11 +1,8 @@
 package com.chessapp.api.domain.entity;
 
-import java.util.List;
 import java.util.UUID;
 
-import com.vladmihalcea.hibernate.type.json.JsonType;
 import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.annotations.Type;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -29,14 +26,16 @@ public class Position {
     @Column(nullable = false)
     private String fen;
 
+    /** {@code ZobristHash} of {@link #fen}; null for rows written before V11. */
+    @Column(name = "zobrist")
+    private Long zobrist;
+
     @Enumerated(EnumType.STRING)
     @JdbcTypeCode(SqlTypes.NAMED_ENUM)
     @Column(name = "side_to_move", columnDefinition = "color", nullable = false)
     private Color sideToMove;
 
-    @Type(JsonType.class)
-    @Column(name = "legal_moves", columnDefinition = "jsonb")
-    private List<String> legalMoves;
+    // legal_moves is no longer written (it keeps its '[]' default); LegalMoveService generates them
 
     // getters and setters
     public UUID getId() { return id; }
@@ -47,8 +46,8 @@ public class Position {
     public void setPly(int ply) { this.ply = ply; }
     public String getFen() { return fen; }
     public void setFen(String fen) { this.fen = fen; }
+    public Long getZobrist() { return zobrist; }
+    public void setZobrist(Long zobrist) { this.zobrist = zobrist; }
     public Color getSideToMove() { return sideToMove; }
     public void setSideToMove(Color sideToMove) { this.sideToMove = sideToMove; }
-    public List<String> getLegalMoves() { return legalMoves; }
-    public void setLegalMoves(List<String> legalMoves) { this.legalMoves = legalMoves; }
 }
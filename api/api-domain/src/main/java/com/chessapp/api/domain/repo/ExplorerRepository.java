@@ -0,0 +1,41 @@
+package com.chessapp.api.domain.repo;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/** Reads the opening explorer counts in {@code explorer_moves}. */
+@Repository
+public class ExplorerRepository {
+
+    /** {@code user_id} of the bucket over all users. */
+    public static final UUID ALL_USERS = new UUID(0, 0);
+    /** {@code time_category} of the bucket over all time controls. */
+    public static final String ALL_TIME_CATEGORIES = "ALL";
+
+    private static final String MOVES = """
+            SELECT uci, san, games, white_wins, draws, black_wins, opponent_rating_sum, opponent_rating_count
+              FROM explorer_moves
+             WHERE zobrist = ? AND user_id = ? AND time_category = ?
+             ORDER BY games DESC, uci
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public ExplorerRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Moves played from {@code zobrist} in one bucket, most played first. */
+    public List<MoveStats> findMoves(long zobrist, UUID userId, String timeCategory) {
+        return jdbc.query(MOVES, (rs, i) -> new MoveStats(
+                rs.getString("uci"), rs.getString("san"), rs.getLong("games"), rs.getLong("white_wins"),
+                rs.getLong("draws"), rs.getLong("black_wins"), rs.getLong("opponent_rating_sum"),
+                rs.getLong("opponent_rating_count")), zobrist, userId, timeCategory);
+    }
+
+    public record MoveStats(String uci, String san, long games, long whiteWins, long draws, long blackWins,
+                            long opponentRatingSum, long opponentRatingCount) {}
+}
@@ -0,0 +1,75 @@
+package com.chessapp.api.domain.repo;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Games that passed through a position, found via {@code positions.zobrist}.
+ * <p>
+ * Pages are keyset-paginated on {@code game_id}: the distinct game ids come straight off
+ * {@code idx_positions_zobrist_game} in index order, starting after the cursor, so a page costs
+ * the same however deep it is. Only the page's games are joined.
+ */
+@Repository
+public class PositionSearchRepository {
+
+    /** Smallest uuid; the cursor of the first page. */
+    private static final UUID START = new UUID(0, 0);
+
+    private static final String GAMES_BY_ZOBRIST = """
+            WITH hit AS (
+              SELECT game_id, min(ply) AS ply
+                FROM positions
+               WHERE zobrist = ? AND game_id > ?
+               GROUP BY game_id
+               ORDER BY game_id
+               LIMIT ?
+            )
+            SELECT g.id, hit.ply, g.end_time, g.time_control, CAST(g.result AS text) AS result,
+                   g.white_rating, g.black_rating, g.tags->>'White' AS white, g.tags->>'Black' AS black
+              FROM hit JOIN games g ON g.id = hit.game_id
+             ORDER BY g.id
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public PositionSearchRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Up to {@code limit} games reaching {@code zobrist}, ordered by id.
+     *
+     * @param after id of the last game of the previous page, null for the first page
+     */
+    public List<GameAtPosition> findGames(long zobrist, @Nullable UUID after, int limit) {
+        return jdbc.query(GAMES_BY_ZOBRIST, (rs, i) -> {
+            OffsetDateTime end = rs.getObject("end_time", OffsetDateTime.class);
+            return new GameAtPosition(
+                    rs.getObject("id", UUID.class),
+                    rs.getInt("ply"),
+                    end != null ? end.toInstant() : null,
+                    rs.getString("time_control"),
+                    rs.getString("result"),
+                    (Integer) rs.getObject("white_rating"),
+                    (Integer) rs.getObject("black_rating"),
+                    rs.getString("white"),
+                    rs.getString("black"));
+        }, zobrist, after != null ? after : START, limit);
+    }
+
+    /**
+     * A game that reached the position.
+     *
+     * @param ply first ply at which the position occurred in the game
+     */
+    public record GameAtPosition(UUID gameId, int ply, @Nullable Instant endTime, @Nullable String timeControl,
+                                 @Nullable String result, @Nullable Integer whiteRating,
+                                 @Nullable Integer blackRating, @Nullable String white, @Nullable String black) {}
+}
@@ -1,10 +1,14 @@
 package com.chessapp.api.service;
 
+import java.util.List;
+import java.util.Map;
+
 import com.chessapp.api.domain.entity.Game;
 import com.chessapp.api.domain.entity.Position;
 import com.chessapp.api.service.dto.GameDetailDto;
 import com.chessapp.api.service.dto.GameSummaryDto;
 import com.chessapp.api.service.dto.PositionDto;
+import com.chessapp.api.service.pgn.PgnWriter;
 
 public class GameMapper {
     public static GameSummaryDto toSummary(Game game) {
@@ -26,15 +30,25 @@ public class GameMapper {
                 game.getResult(),
                 game.getWhiteRating(),
                 game.getBlackRating(),
-                game.getPgn()
+                pgn(game)
         );
     }
 
-    public static PositionDto toPositionDto(Position position) {
+    /** The stored text, or the PGN rebuilt from the compact move format when only that was kept. */
+    static String pgn(Game game) {
+        if (game.getPgn() != null || game.getMovesBin() == null) {
+            return game.getPgn();
+        }
+        return PgnWriter.write(game.getTags() != null ? game.getTags() : Map.of(),
+                game.getMovesBin(), game.getClocksBin());
+    }
+
+    public static PositionDto toPositionDto(Position position, List<String> legalMoves) {
         return new PositionDto(
                 position.getPly(),
                 position.getFen(),
-                position.getSideToMove()
+                position.getSideToMove(),
+                legalMoves
         );
     }
 }
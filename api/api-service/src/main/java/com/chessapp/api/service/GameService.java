@@ -16,10 +16,14 @@ import com.chessapp.api.domain.entity.Position;
 import com.chessapp.api.domain.entity.Color;
 import com.chessapp.api.domain.repo.GameRepository;
 import com.chessapp.api.domain.repo.PositionRepository;
+import com.chessapp.api.domain.repo.PositionSearchRepository;
 import com.chessapp.api.domain.repo.UserRepository;
 import com.chessapp.api.service.dto.GameDetailDto;
 import com.chessapp.api.service.dto.GameSummaryDto;
 import com.chessapp.api.service.dto.PositionDto;
+import com.chessapp.api.service.dto.PositionGamesDto;
+import com.chessapp.api.service.position.LegalMoveService;
+import com.chessapp.api.service.position.ZobristHash;
 
 @Service
 public class GameService {
@@ -29,11 +33,16 @@ public class GameService {
     private final GameRepository gameRepository;
     private final PositionRepository positionRepository;
     private final UserRepository userRepository;
+    private final PositionSearchRepository positionSearch;
+    private final LegalMoveService legalMoves;
 
-    public GameService(GameRepository gameRepository, PositionRepository positionRepository, UserRepository userRepository) {
+    public GameService(GameRepository gameRepository, PositionRepository positionRepository, UserRepository userRepository,
+                       PositionSearchRepository positionSearch, LegalMoveService legalMoves) {
         this.gameRepository = gameRepository;
         this.positionRepository = positionRepository;
         this.userRepository = userRepository;
+        this.positionSearch = positionSearch;
+        this.legalMoves = legalMoves;
     }
 
     @Transactional(readOnly = true)
@@ -57,10 +66,37 @@ public class GameService {
         return GameMapper.toDetail(game);
     }
 
+    /** Positions of a game in ply order, each with its legal moves (generated, not stored). */
     @Transactional(readOnly = true)
     public List<PositionDto> listPositions(UUID gameId) {
         List<Position> positions = positionRepository.findByGameIdOrderByPlyAsc(gameId);
-        return positions.stream().map(GameMapper::toPositionDto).toList();
+        return positions.stream()
+                .map(p -> GameMapper.toPositionDto(p, p.getZobrist() != null
+                        ? legalMoves.of(p.getFen(), p.getZobrist())
+                        : legalMoves.of(p.getFen())))
+                .toList();
+    }
+
+    /**
+     * Games that passed through the position of {@code fen}, one keyset page at a time.
+     *
+     * @param after cursor from the previous page's {@code next}, null for the first page
+     * @throws IllegalArgumentException when {@code fen} or {@code after} is malformed
+     */
+    @Transactional(readOnly = true)
+    public PositionGamesDto gamesAtPosition(String fen, String after, int limit) {
+        long zobrist = ZobristHash.of(fen);
+        UUID cursor = after == null || after.isBlank() ? null : UUID.fromString(after);
+        // one extra row tells whether there is a next page
+        var rows = positionSearch.findGames(zobrist, cursor, limit + 1);
+        List<PositionGamesDto.Game> games = rows.stream()
+                .limit(limit)
+                .map(r -> new PositionGamesDto.Game(r.gameId(), r.ply(), r.endTime(), r.timeControl(),
+                        r.result() != null ? GameResult.valueOf(r.result()) : null,
+                        r.whiteRating(), r.blackRating(), r.white(), r.black()))
+                .toList();
+        String next = rows.size() > limit ? games.get(games.size() - 1).id().toString() : null;
+        return new PositionGamesDto(fen, ZobristHash.hex(zobrist), games, next);
     }
 
     @Transactional(readOnly = true)
@@ -7,7 +7,8 @@ import com.chessapp.api.domain.entity.GameResult;
 import com.chessapp.api.common.validation.ValidPgn;
 
 /**
- * Detailed game information including raw PGN.
+ * Detailed game information including the PGN: the stored text, or for games kept only in the
+ * compact move format the PGN rebuilt from it.
  */
 public class GameDetailDto {
     private UUID id;
@@ -1,22 +1,27 @@
 package com.chessapp.api.service.dto;
 
+import java.util.List;
+
 import com.chessapp.api.domain.entity.Color;
 
 /**
- * Position information for a game.
+ * Position information for a game. {@code legalMoves} (UCI) are generated when the position
+ * is read, they are not stored.
  */
 public class PositionDto {
     private int ply;
     private String fen;
     private Color sideToMove;
+    private List<String> legalMoves;
 
     public PositionDto() {
     }
 
-    public PositionDto(int ply, String fen, Color sideToMove) {
+    public PositionDto(int ply, String fen, Color sideToMove, List<String> legalMoves) {
         this.ply = ply;
         this.fen = fen;
         this.sideToMove = sideToMove;
+        this.legalMoves = legalMoves;
     }
 
     public int getPly() {
@@ -42,4 +47,12 @@ public class PositionDto {
     public void setSideToMove(Color sideToMove) {
         this.sideToMove = sideToMove;
     }
+
+    public List<String> getLegalMoves() {
+        return legalMoves;
+    }
+
+    public void setLegalMoves(List<String> legalMoves) {
+        this.legalMoves = legalMoves;
+    }
 }
@@ -0,0 +1,20 @@
+package com.chessapp.api.service.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.chessapp.api.domain.entity.GameResult;
+
+/**
+ * One page of games that reached a position.
+ *
+ * @param zobrist hash the games were looked up by, as 16 hex digits
+ * @param next    cursor for the following page ({@code after}), null on the last page
+ */
+public record PositionGamesDto(String fen, String zobrist, List<Game> games, String next) {
+
+    /** @param ply first ply at which the game reached the position */
+    public record Game(UUID id, int ply, Instant endTime, String timeControl, GameResult result,
+                       Integer whiteRating, Integer blackRating, String white, String black) {}
+}
@@ -0,0 +1,162 @@
+package com.chessapp.api.service.pgn;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * Compact storage format of a game's moves and clocks ({@code games.moves_bin} and
+ * {@code games.clocks_bin}).
+ * <p>
+ * Moves: a version byte, then one byte per ply holding the index of the move among the legal
+ * moves of the position it was played from. The legal moves are ordered by from-square,
+ * to-square and promotion piece rather than in chesslib's generation order, so the encoding does
+ * not depend on the library version. No position has more than 218 legal moves, so an index
+ * always fits into one byte. Decoding replays the game from its start position, see
+ * {@link PgnWriter}.
+ * <p>
+ * Clocks: a version byte, the exponent {@code e} of the unit {@code 10^e} ms (the coarsest unit
+ * all clocks of the game are a multiple of: 1 s for Lichess, 0.1 s for chess.com), then one
+ * unsigned LEB128 varint per ply. 0 means no clock for that ply; otherwise the value is the
+ * zigzag-encoded difference to the previous clock of the same side, plus one. Most deltas fit
+ * into one byte.
+ */
+public final class MoveCodec {
+
+    static final byte MOVES_V1 = 1;
+    static final byte CLOCKS_V1 = 1;
+    private static final int[] UNITS = {1, 10, 100, 1000};
+
+    private MoveCodec() {
+    }
+
+    /** Index of {@code move} in {@code legal} under the codec's ordering. */
+    public static int index(List<Move> legal, Move move) {
+        int key = key(move);
+        int index = 0;
+        boolean found = false;
+        for (Move m : legal) {
+            int k = key(m);
+            if (k < key) index++;
+            else if (k == key) found = true;
+        }
+        if (!found) {
+            throw new IllegalArgumentException("move " + move + " is not legal here");
+        }
+        return index;
+    }
+
+    /** The move at {@code index} in {@code legal} under the codec's ordering. */
+    public static Move at(List<Move> legal, int index) {
+        if (index < 0 || index >= legal.size()) {
+            throw new IllegalArgumentException("move index " + index + " out of " + legal.size() + " legal moves");
+        }
+        int[] keys = new int[legal.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(legal.get(i));
+        }
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int wanted = sorted[index];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == wanted) return legal.get(i);
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    /** Moves of a parsed game; {@link ParsedMove#index()} must be set. */
+    public static byte[] encodeMoves(List<ParsedMove> moves) {
+        byte[] out = new byte[moves.size() + 1];
+        out[0] = MOVES_V1;
+        for (int i = 0; i < moves.size(); i++) {
+            out[i + 1] = (byte) moves.get(i).index();
+        }
+        return out;
+    }
+
+    /** Clocks of a parsed game, or null when no move has one. */
+    public static byte[] encodeClocks(List<ParsedMove> moves) {
+        int unit = UNITS.length - 1;
+        boolean any = false;
+        for (ParsedMove m : moves) {
+            if (m.clockMs() == null) continue;
+            any = true;
+            while (unit > 0 && m.clockMs() % UNITS[unit] != 0) unit--;
+        }
+        if (!any) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(moves.size() + 2);
+        out.write(CLOCKS_V1);
+        out.write(unit);
+        long[] last = new long[2];
+        for (int i = 0; i < moves.size(); i++) {
+            Integer ms = moves.get(i).clockMs();
+            if (ms == null) {
+                out.write(0);
+                continue;
+            }
+            long value = ms / UNITS[unit];
+            long delta = value - last[i & 1];
+            last[i & 1] = value;
+            writeVarint(out, ((delta << 1) ^ (delta >> 63)) + 1);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Clocks in milliseconds, one per ply; null entries for plies without a clock.
+     *
+     * @throws IllegalArgumentException when the data is malformed
+     */
+    public static List<Integer> decodeClocks(byte[] data) {
+        if (data == null || data.length < 2 || data[0] != CLOCKS_V1 || data[1] < 0 || data[1] >= UNITS.length) {
+            throw new IllegalArgumentException("unsupported clocks encoding");
+        }
+        int unit = UNITS[data[1]];
+        List<Integer> clocks = new ArrayList<>(data.length - 2);
+        long[] last = new long[2];
+        int i = 2;
+        while (i < data.length) {
+            long v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (i >= data.length || shift > 63) {
+                    throw new IllegalArgumentException("truncated clock varint");
+                }
+                b = data[i++];
+                v |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            int side = clocks.size() & 1;
+            if (v == 0) {
+                clocks.add(null);
+                continue;
+            }
+            long zigzag = v - 1;
+            last[side] += (zigzag >>> 1) ^ -(zigzag & 1);
+            clocks.add(Math.toIntExact(last[side] * unit));
+        }
+        return clocks;
+    }
+
+    /** From-square, to-square, promotion piece. */
+    private static int key(Move move) {
+        Piece promotion = move.getPromotion();
+        int promo = promotion == null || promotion == Piece.NONE ? 0 : promotion.getPieceType().ordinal() + 1;
+        return (move.getFrom().ordinal() << 9) | (move.getTo().ordinal() << 3) | promo;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+}
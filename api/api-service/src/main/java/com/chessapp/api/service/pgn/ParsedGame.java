@@ -0,0 +1,18 @@
+package com.chessapp.api.service.pgn;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A PGN game replayed on a board: header tags, the original text and the derived
+ * per-ply moves and positions (position {@code n} is the board after move {@code n}).
+ */
+public record ParsedGame(Map<String, String> headers,
+                         String pgn,
+                         List<ParsedMove> moves,
+                         List<ParsedPosition> positions) {
+
+    public String header(String name) {
+        return headers.get(name);
+    }
+}
@@ -0,0 +1,9 @@
+package com.chessapp.api.service.pgn;
+
+import com.chessapp.api.domain.entity.Color;
+
+/**
+ * One half-move; {@code clockMs} comes from a {@code [%clk h:mm:ss]} comment when present.
+ * {@code index} is the move's position among the legal moves as ordered by {@link MoveCodec}.
+ */
+public record ParsedMove(int ply, String san, String uci, int index, Color color, Integer clockMs, String comment) {}
@@ -0,0 +1,11 @@
+package com.chessapp.api.service.pgn;
+
+import com.chessapp.api.domain.entity.Color;
+
+/**
+ * Board state after {@code ply} half-moves. Legal moves are not kept; see
+ * {@link com.chessapp.api.service.position.LegalMoveService}.
+ *
+ * @param zobrist {@link com.chessapp.api.service.position.ZobristHash} of {@code fen}
+ */
+public record ParsedPosition(int ply, String fen, long zobrist, Color sideToMove) {}
@@ -0,0 +1,212 @@
+package com.chessapp.api.service.pgn;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.chessapp.api.domain.bulk.ExplorerMove;
+import com.chessapp.api.domain.entity.Color;
+import com.chessapp.api.domain.entity.Game;
+import com.chessapp.api.domain.entity.GameResult;
+import com.chessapp.api.domain.entity.Move;
+import com.chessapp.api.domain.entity.Platform;
+import com.chessapp.api.domain.entity.Position;
+import com.chessapp.api.domain.entity.TimeControlCategory;
+import com.chessapp.api.service.position.ZobristHash;
+
+/** Maps {@link ParsedGame} onto the {@code games}/{@code moves}/{@code positions} entities. */
+public class PgnGameMapper {
+
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    private static final long START_ZOBRIST =
+            ZobristHash.of("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+
+    public static Game toGame(ParsedGame parsed, UUID userId, String username, Platform platform) {
+        return toGame(parsed, userId, username, platform, true);
+    }
+
+    /**
+     * @param keepPgn also store the PGN text; without it the game is kept in the {@link MoveCodec}
+     *                format only and its PGN is rebuilt by {@link PgnWriter} when requested
+     */
+    public static Game toGame(ParsedGame parsed, UUID userId, String username, Platform platform, boolean keepPgn) {
+        Game game = new Game();
+        game.setId(UUID.randomUUID());
+        game.setUserId(userId);
+        game.setPlatform(platform);
+        game.setGameIdExt(externalId(parsed));
+        game.setEndTime(endTime(parsed));
+        String tc = parsed.header("TimeControl");
+        game.setTimeControl(tc);
+        game.setTimeCategory(timeCategory(tc));
+        game.setResult(result(parsed.header("Result")));
+        game.setWhiteRating(intOrNull(parsed.header("WhiteElo")));
+        game.setBlackRating(intOrNull(parsed.header("BlackElo")));
+        game.setPgn(keepPgn ? parsed.pgn() : null);
+        game.setMovesBin(MoveCodec.encodeMoves(parsed.moves()));
+        game.setClocksBin(MoveCodec.encodeClocks(parsed.moves()));
+
+        Map<String, Object> tags = new LinkedHashMap<>(parsed.headers());
+        Color color = userColor(parsed, username);
+        if (color != null) {
+            // GameRepository.findRecentByUser filters on tags->>'color'
+            tags.put("color", color.name().toLowerCase());
+        }
+        game.setTags(tags);
+        return game;
+    }
+
+    public static Move toMove(ParsedMove m, UUID gameId) {
+        Move move = new Move();
+        move.setId(UUID.randomUUID());
+        move.setGameId(gameId);
+        move.setPly(m.ply());
+        move.setSan(m.san());
+        move.setUci(m.uci());
+        move.setColor(m.color());
+        move.setClockMs(m.clockMs());
+        move.setComment(m.comment());
+        return move;
+    }
+
+    public static Position toPosition(ParsedPosition p, UUID gameId) {
+        Position position = new Position();
+        position.setId(UUID.randomUUID());
+        position.setGameId(gameId);
+        position.setPly(p.ply());
+        position.setFen(p.fen());
+        position.setZobrist(p.zobrist());
+        position.setSideToMove(p.sideToMove());
+        return position;
+    }
+
+    /**
+     * The first {@code maxPly} moves of a game for the opening explorer, each keyed by the
+     * position it was played from (the {@code [FEN]} start position for ply 1, if set). A move
+     * repeated from the same position (Nf3/Ng1 shuffles) is listed once: the explorer counts
+     * games, not plies.
+     */
+    public static List<ExplorerMove> toExplorerMoves(ParsedGame parsed, UUID gameId, int maxPly) {
+        int n = Math.min(maxPly, parsed.moves().size());
+        List<ExplorerMove> out = new ArrayList<>(n);
+        if (n == 0) {
+            return out;
+        }
+        String fen = parsed.header("FEN");
+        long before;
+        try {
+            before = fen != null && !fen.isBlank() ? ZobristHash.of(fen) : START_ZOBRIST;
+        } catch (IllegalArgumentException e) {
+            // start position chesslib accepted but we cannot key: leave the game out of the explorer
+            return out;
+        }
+        Integer white = intOrNull(parsed.header("WhiteElo"));
+        Integer black = intOrNull(parsed.header("BlackElo"));
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            ParsedMove m = parsed.moves().get(i);
+            if (seen.add(before + " " + m.uci())) {
+                out.add(new ExplorerMove(gameId, before, m.uci(), m.san(), m.color() == Color.WHITE ? black : white));
+            }
+            before = parsed.positions().get(i).zobrist();
+        }
+        return out;
+    }
+
+    /** Platform id from the game URL ({@code [Link]} or {@code [Site]}), else a content hash. */
+    static String externalId(ParsedGame parsed) {
+        for (String tag : new String[] {"Link", "Site"}) {
+            String url = parsed.header(tag);
+            // "https://www.chess.com/game/live/123" -> "123"; a bare host is not an id
+            if (url != null && url.startsWith("http") && url.indexOf('/', "https://".length()) > 0) {
+                String id = url.substring(url.lastIndexOf('/') + 1);
+                if (!id.isBlank()) {
+                    return id;
+                }
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(parsed.pgn().getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Instant endTime(ParsedGame parsed) {
+        Instant end = dateTime(parsed.header("EndDate"), parsed.header("EndTime"));
+        if (end == null) end = dateTime(parsed.header("UTCDate"), parsed.header("UTCTime"));
+        if (end == null) end = dateTime(parsed.header("Date"), null);
+        return end;
+    }
+
+    private static Instant dateTime(String date, String time) {
+        if (date == null || date.contains("?")) return null;
+        try {
+            LocalDate d = LocalDate.parse(date, PGN_DATE);
+            LocalTime t = time == null ? LocalTime.MIDNIGHT : LocalTime.parse(time);
+            return d.atTime(t).toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /** Estimated duration base + 40 * increment, as used by chess.com/lichess. */
+    static TimeControlCategory timeCategory(String tc) {
+        if (tc == null || tc.isBlank() || "-".equals(tc)) return null;
+        if (tc.contains("/")) return TimeControlCategory.CLASSICAL; // daily, e.g. "1/259200"
+        try {
+            int plus = tc.indexOf('+');
+            long base = Long.parseLong(plus < 0 ? tc : tc.substring(0, plus));
+            long inc = plus < 0 ? 0 : Long.parseLong(tc.substring(plus + 1));
+            long estimate = base + 40 * inc;
+            if (estimate < 180) return TimeControlCategory.BULLET;
+            if (estimate < 480) return TimeControlCategory.BLITZ;
+            if (estimate < 1500) return TimeControlCategory.RAPID;
+            return TimeControlCategory.CLASSICAL;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static GameResult result(String result) {
+        if (result == null) return null;
+        return switch (result) {
+            case "1-0" -> GameResult.WHITE_WIN;
+            case "0-1" -> GameResult.BLACK_WIN;
+            case "1/2-1/2" -> GameResult.DRAW;
+            default -> null;
+        };
+    }
+
+    private static Color userColor(ParsedGame parsed, String username) {
+        if (username == null) return null;
+        if (username.equalsIgnoreCase(parsed.header("White"))) return Color.WHITE;
+        if (username.equalsIgnoreCase(parsed.header("Black"))) return Color.BLACK;
+        return null;
+    }
+
+    private static Integer intOrNull(String value) {
+        if (value == null) return null;
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
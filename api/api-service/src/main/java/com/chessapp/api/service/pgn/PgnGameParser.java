@@ -0,0 +1,217 @@
+package com.chessapp.api.service.pgn;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.chessapp.api.common.notation.PgnLexer;
+import com.chessapp.api.domain.entity.Color;
+import com.chessapp.api.service.position.ZobristHash;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * Parses a single PGN game and replays it with chesslib.
+ * <p>
+ * Movetext handling, on {@link PgnLexer} tokens: move numbers, NAGs, {@code ;} comments and
+ * variations are skipped, {@code {...}} comments are attached to the preceding move
+ * ({@code [%clk]} becomes {@link ParsedMove#clockMs()}), and the result token ends the game.
+ * SAN is resolved against the board's legal moves, so every stored move is legal by
+ * construction.
+ */
+@Component
+public class PgnGameParser {
+
+    public ParsedGame parse(String pgn) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        PgnLexer lexer = new PgnLexer().reset(pgn);
+        PgnLexer.Token t = lexer.next();
+        while (t == PgnLexer.Token.TAG || t == PgnLexer.Token.MALFORMED_TAG) {
+            if (t == PgnLexer.Token.TAG) {
+                headers.put(lexer.text(), lexer.value());
+            }
+            t = lexer.next();
+        }
+
+        Board board = new Board();
+        String fen = headers.get("FEN");
+        if (fen != null && !fen.isBlank()) {
+            board.loadFromFen(fen);
+        }
+
+        List<ParsedMove> moves = new ArrayList<>();
+        List<ParsedPosition> positions = new ArrayList<>();
+        // legal moves of the current position, for the next move's codec index
+        List<Move> legal = board.legalMoves();
+        int depth = 0; // variation nesting
+        // a result inside a variation does not end the game
+        for (; t != PgnLexer.Token.END && !(t == PgnLexer.Token.RESULT && depth == 0); t = lexer.next()) {
+            switch (t) {
+                case VARIATION_START -> depth++;
+                case VARIATION_END -> depth = Math.max(0, depth - 1);
+                case COMMENT -> {
+                    if (depth == 0 && !moves.isEmpty()) {
+                        attachComment(moves, pgn.substring(lexer.start(), lexer.end()));
+                    }
+                }
+                case MOVE -> {
+                    if (depth > 0) break;
+                    String san = lexer.text();
+                    Side side = board.getSideToMove();
+                    Move move = resolveSan(board, san);
+                    int index = MoveCodec.index(legal, move);
+                    if (!board.doMove(move)) {
+                        throw new PgnParseException("illegal move " + san + " at ply " + (moves.size() + 1));
+                    }
+                    int ply = moves.size() + 1;
+                    moves.add(new ParsedMove(ply, san, move.toString(), index, color(side), null, null));
+                    String after = board.getFen();
+                    legal = board.legalMoves();
+                    positions.add(new ParsedPosition(ply, after, ZobristHash.of(after), color(board.getSideToMove())));
+                }
+                default -> {
+                    // move numbers, NAGs, ';' comments, stray tag lines, results in variations
+                }
+            }
+        }
+        return new ParsedGame(headers, pgn, moves, positions);
+    }
+
+    static Move resolveSan(Board board, String token) {
+        String san = token;
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+        san = san.substring(0, end);
+        if (san.isEmpty()) {
+            throw new PgnParseException("empty move token " + token);
+        }
+
+        if (san.startsWith("O-O") || san.startsWith("0-0")) {
+            boolean queenSide = san.length() >= 5;
+            for (Move m : board.legalMoves()) {
+                Piece p = board.getPiece(m.getFrom());
+                if (p.getPieceType() == PieceType.KING
+                        && Math.abs(m.getTo().getFile().ordinal() - m.getFrom().getFile().ordinal()) == 2
+                        && (m.getTo().getFile().ordinal() < m.getFrom().getFile().ordinal()) == queenSide) {
+                    return m;
+                }
+            }
+            throw new PgnParseException("illegal castling " + token);
+        }
+
+        PieceType promotion = null;
+        int eq = san.indexOf('=');
+        if (eq >= 0 && eq + 1 < san.length()) {
+            promotion = pieceType(san.charAt(eq + 1));
+            san = san.substring(0, eq);
+        } else if (san.length() >= 3 && pieceType(san.charAt(san.length() - 1)) != null
+                && Character.isDigit(san.charAt(san.length() - 2))) {
+            // "e8Q" without '='
+            promotion = pieceType(san.charAt(san.length() - 1));
+            san = san.substring(0, san.length() - 1);
+        }
+
+        PieceType type = PieceType.PAWN;
+        if (Character.isUpperCase(san.charAt(0))) {
+            type = pieceType(san.charAt(0));
+            if (type == null) {
+                throw new PgnParseException("unknown piece in " + token);
+            }
+            san = san.substring(1);
+        }
+        san = san.replace("x", "").replace("-", "");
+        if (san.length() < 2) {
+            throw new PgnParseException("no target square in " + token);
+        }
+        int toFile = san.charAt(san.length() - 2) - 'a';
+        int toRank = san.charAt(san.length() - 1) - '1';
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int k = 0; k < san.length() - 2; k++) {
+            char d = san.charAt(k);
+            if (d >= 'a' && d <= 'h') fromFile = d - 'a';
+            else if (d >= '1' && d <= '8') fromRank = d - '1';
+        }
+
+        for (Move m : board.legalMoves()) {
+            Square to = m.getTo();
+            Square from = m.getFrom();
+            if (to.getFile().ordinal() != toFile || to.getRank().ordinal() != toRank) continue;
+            if (board.getPiece(from).getPieceType() != type) continue;
+            if (fromFile >= 0 && from.getFile().ordinal() != fromFile) continue;
+            if (fromRank >= 0 && from.getRank().ordinal() != fromRank) continue;
+            PieceType promo = m.getPromotion() == null || m.getPromotion() == Piece.NONE
+                    ? null : m.getPromotion().getPieceType();
+            if (promo != promotion) continue;
+            return m;
+        }
+        throw new PgnParseException("illegal move " + token);
+    }
+
+    private static void attachComment(List<ParsedMove> moves, String text) {
+        int last = moves.size() - 1;
+        ParsedMove m = moves.get(last);
+        Integer clock = m.clockMs();
+        StringBuilder rest = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int open = text.indexOf("[%", i);
+            if (open < 0) {
+                rest.append(text, i, text.length());
+                break;
+            }
+            rest.append(text, i, open);
+            int close = text.indexOf(']', open);
+            if (close < 0) close = text.length();
+            String cmd = text.substring(open + 2, close).trim();
+            if (cmd.startsWith("clk")) {
+                Integer ms = parseClock(cmd.substring(3).trim());
+                if (ms != null) clock = ms;
+            }
+            i = close + 1;
+        }
+        String comment = rest.toString().trim();
+        if (comment.isEmpty()) {
+            comment = m.comment();
+        } else if (m.comment() != null) {
+            comment = m.comment() + " " + comment;
+        }
+        moves.set(last, new ParsedMove(m.ply(), m.san(), m.uci(), m.index(), m.color(), clock, comment));
+    }
+
+    /** {@code h:mm:ss[.f]} to milliseconds; null when malformed. */
+    static Integer parseClock(String value) {
+        String[] parts = value.split(":");
+        try {
+            double seconds = 0;
+            for (String part : parts) {
+                seconds = seconds * 60 + Double.parseDouble(part);
+            }
+            return (int) Math.round(seconds * 1000);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static PieceType pieceType(char c) {
+        return switch (c) {
+            case 'N' -> PieceType.KNIGHT;
+            case 'B' -> PieceType.BISHOP;
+            case 'R' -> PieceType.ROOK;
+            case 'Q' -> PieceType.QUEEN;
+            case 'K' -> PieceType.KING;
+            default -> null;
+        };
+    }
+
+    private static Color color(Side side) {
+        return side == Side.WHITE ? Color.WHITE : Color.BLACK;
+    }
+}
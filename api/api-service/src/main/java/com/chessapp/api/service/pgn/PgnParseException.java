@@ -0,0 +1,9 @@
+package com.chessapp.api.service.pgn;
+
+/** Raised when a game's movetext cannot be replayed on the board. */
+public class PgnParseException extends RuntimeException {
+
+    public PgnParseException(String message) {
+        super(message);
+    }
+}
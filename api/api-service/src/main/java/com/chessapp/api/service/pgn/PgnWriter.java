@@ -0,0 +1,189 @@
+package com.chessapp.api.service.pgn;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.chessapp.api.common.notation.FenLexer;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * Rebuilds the PGN of a game stored in the {@link MoveCodec} format, for games whose
+ * {@code games.pgn} was not kept.
+ * <p>
+ * Headers come from {@code games.tags}: the Seven Tag Roster first, then the others in the order
+ * of the map. Moves are written in canonical SAN with a {@code {[%clk h:mm:ss]}} comment per ply
+ * that had a clock. Other comments, NAGs and variations of the original text are not part of
+ * the format; comments stay available in {@code moves.comment}.
+ */
+public final class PgnWriter {
+
+    private static final List<String> SEVEN_TAG_ROSTER =
+            List.of("Event", "Site", "Date", "Round", "White", "Black", "Result");
+    /** Tags added by {@link PgnGameMapper}, not PGN headers. */
+    private static final Set<String> OWN_TAGS = Set.of("color");
+    private static final int LINE = 80;
+
+    private PgnWriter() {
+    }
+
+    /**
+     * @param clocks {@code games.clocks_bin}, may be null
+     * @throws IllegalArgumentException when the encoded moves do not replay from the start position
+     */
+    public static String write(Map<String, ?> tags, byte[] moves, byte[] clocks) {
+        if (moves == null || moves.length == 0 || moves[0] != MoveCodec.MOVES_V1) {
+            throw new IllegalArgumentException("unsupported moves encoding");
+        }
+        StringBuilder out = new StringBuilder(64 * 16 + moves.length * 20);
+        for (String name : SEVEN_TAG_ROSTER) {
+            if (tags.get(name) != null) header(out, name, tags.get(name));
+        }
+        tags.forEach((name, value) -> {
+            if (value != null && !SEVEN_TAG_ROSTER.contains(name) && !OWN_TAGS.contains(name)) {
+                header(out, name, value);
+            }
+        });
+        out.append('\n');
+
+        List<Integer> clockMs = clocks == null ? List.of() : MoveCodec.decodeClocks(clocks);
+        Board board = new Board();
+        Object fen = tags.get("FEN");
+        int moveNumber = 1;
+        if (fen != null && !fen.toString().isBlank()) {
+            board.loadFromFen(fen.toString());
+            moveNumber = fullMoveNumber(fen.toString());
+        }
+
+        int lineStart = out.length();
+        boolean numberBlack = true;
+        for (int i = 1; i < moves.length; i++) {
+            List<Move> legal = board.legalMoves();
+            Move move = MoveCodec.at(legal, moves[i] & 0xFF);
+            boolean white = board.getSideToMove() == Side.WHITE;
+            StringBuilder token = new StringBuilder(32);
+            if (white) {
+                token.append(moveNumber).append(". ");
+            } else if (numberBlack) {
+                token.append(moveNumber).append("... ");
+            }
+            token.append(san(board, legal, move));
+            board.doMove(move);
+            if (board.isMated()) token.append('#');
+            else if (board.isKingAttacked()) token.append('+');
+            Integer clock = i - 1 < clockMs.size() ? clockMs.get(i - 1) : null;
+            if (clock != null) {
+                token.append(" {[%clk ").append(clock(clock)).append("]}");
+            }
+            // after a comment, Black's move repeats its number
+            numberBlack = clock != null;
+            if (!white) moveNumber++;
+            lineStart = append(out, lineStart, token);
+        }
+        Object result = tags.get("Result");
+        append(out, lineStart, result != null ? result.toString() : "*");
+        return out.append('\n').toString();
+    }
+
+    /** Standard algebraic notation of {@code move}, without check marks. */
+    static String san(Board board, List<Move> legal, Move move) {
+        Square from = move.getFrom();
+        Square to = move.getTo();
+        Piece piece = board.getPiece(from);
+        PieceType type = piece.getPieceType();
+        int fileDelta = to.getFile().ordinal() - from.getFile().ordinal();
+        if (type == PieceType.KING && Math.abs(fileDelta) == 2) {
+            return fileDelta > 0 ? "O-O" : "O-O-O";
+        }
+        StringBuilder san = new StringBuilder(8);
+        // a pawn changing files captures, en passant onto an empty square included
+        boolean capture = board.getPiece(to) != Piece.NONE || (type == PieceType.PAWN && fileDelta != 0);
+        if (type == PieceType.PAWN) {
+            if (capture) san.append(file(from)).append('x');
+        } else {
+            san.append(letter(type));
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+            for (Move m : legal) {
+                if (m.getTo() == to && m.getFrom() != from && board.getPiece(m.getFrom()) == piece) {
+                    ambiguous = true;
+                    sameFile |= m.getFrom().getFile() == from.getFile();
+                    sameRank |= m.getFrom().getRank() == from.getRank();
+                }
+            }
+            if (ambiguous) {
+                if (!sameFile) san.append(file(from));
+                else if (!sameRank) san.append(rank(from));
+                else san.append(file(from)).append(rank(from));
+            }
+            if (capture) san.append('x');
+        }
+        san.append(file(to)).append(rank(to));
+        Piece promotion = move.getPromotion();
+        if (promotion != null && promotion != Piece.NONE) {
+            san.append('=').append(letter(promotion.getPieceType()));
+        }
+        return san.toString();
+    }
+
+    /** Inverse of {@link PgnGameParser#parseClock}: {@code h:mm:ss}, with as many decimals as needed. */
+    static String clock(int ms) {
+        int seconds = ms / 1000;
+        String hms = String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+        int frac = ms % 1000;
+        if (frac == 0) return hms;
+        if (frac % 100 == 0) return hms + "." + frac / 100;
+        if (frac % 10 == 0) return hms + "." + String.format("%02d", frac / 10);
+        return hms + "." + String.format("%03d", frac);
+    }
+
+    private static void header(StringBuilder out, String name, Object value) {
+        String v = value.toString().replace("\\", "\\\\").replace("\"", "\\\"");
+        out.append('[').append(name).append(" \"").append(v).append("\"]\n");
+    }
+
+    /** Appends {@code token}, breaking the line before it would pass {@link #LINE}; returns the line start. */
+    private static int append(StringBuilder out, int lineStart, CharSequence token) {
+        if (out.length() == lineStart) {
+            out.append(token);
+        } else if (out.length() - lineStart + 1 + token.length() > LINE) {
+            out.append('\n');
+            lineStart = out.length();
+            out.append(token);
+        } else {
+            out.append(' ').append(token);
+        }
+        return lineStart;
+    }
+
+    private static int fullMoveNumber(String fen) {
+        int[] bounds = new int[12];
+        int fields = FenLexer.lex(fen, bounds);
+        return Math.max(1, FenLexer.number(fen, bounds, fields, FenLexer.FULLMOVE_NUMBER, 1));
+    }
+
+    private static char file(Square square) {
+        return (char) ('a' + square.getFile().ordinal());
+    }
+
+    private static char rank(Square square) {
+        return (char) ('1' + square.getRank().ordinal());
+    }
+
+    private static char letter(PieceType type) {
+        return switch (type) {
+            case KNIGHT -> 'N';
+            case BISHOP -> 'B';
+            case ROOK -> 'R';
+            case QUEEN -> 'Q';
+            case KING -> 'K';
+            default -> throw new IllegalArgumentException("no SAN letter for " + type);
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.chessapp.api.service.position;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.chessapp.api.common.notation.FenLexer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Legal moves of a position in UCI, generated with chesslib when asked for instead of being
+ * stored per ply.
+ * <p>
+ * Results are held in a size-bounded cache keyed by {@link ZobristHash}. The hash covers
+ * everything move generation depends on (placement, side to move, castling rights and a
+ * capturable en-passant file) and nothing it does not, so transpositions and the same position
+ * at another move number share one entry. The opening plies that most games pass through stay
+ * cached.
+ */
+@Service
+public class LegalMoveService {
+
+    private final Cache<Long, List<String>> moves;
+
+    public LegalMoveService(MeterRegistry meterRegistry,
+                            @Value("${chess.positions.legal-moves.cache.max-size:200000}") long maxSize) {
+        this.moves = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, moves, "legal_moves");
+    }
+
+    /**
+     * Legal moves from {@code fen}, empty for mate and stalemate.
+     *
+     * @throws IllegalArgumentException when {@code fen} is malformed or not a playable position
+     */
+    public List<String> of(String fen) {
+        return of(fen, ZobristHash.of(fen));
+    }
+
+    /** As {@link #of(String)} for a stored position whose hash is already known. */
+    public List<String> of(String fen, long zobrist) {
+        int[] bounds = new int[12];
+        if (FenLexer.lex(fen, bounds) < 0) {
+            throw new IllegalArgumentException("malformed FEN: " + fen);
+        }
+        return moves.get(zobrist, k -> generate(fen, bounds));
+    }
+
+    /**
+     * Counters do not change the moves; fixed ones keep chesslib away from absent or odd fields.
+     * Well-formed but impossible positions (no king, say) can make chesslib fail.
+     */
+    private static List<String> generate(String fen, int[] bounds) {
+        Board board = new Board();
+        try {
+            board.loadFromFen(fen.substring(bounds[2 * FenLexer.PLACEMENT], bounds[2 * FenLexer.EN_PASSANT + 1])
+                    .replaceAll("\\s+", " ") + " 0 1");
+            return board.legalMoves().stream().map(Move::toString).toList();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("cannot generate moves for " + fen, e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.chessapp.api.service.position;
+
+import java.util.HexFormat;
+
+/**
+ * 64-bit Zobrist hash of a position, read straight from its FEN.
+ * <p>
+ * The hash covers piece placement, side to move, castling rights and an en-passant file. The
+ * en-passant file only counts when a pawn of the side to move stands next to the double-pushed
+ * pawn (the Polyglot rule), so a FEN written with or without a harmless target square hashes
+ * the same. Halfmove clock and move number are ignored: a position reached at different move
+ * numbers is one position. Fields may be separated by {@code ' '} or {@code '_'} (URL form);
+ * only placement and side to move are required.
+ * <p>
+ * The keys come from a fixed SplitMix64 seed rather than the Polyglot table, so hashes are
+ * stable across releases but not comparable with Polyglot books. Changing {@link #SEED}
+ * invalidates {@code positions.zobrist}.
+ */
+public final class ZobristHash {
+
+    private static final long SEED = 0x3C6E_F372_FE94_F82BL;
+    private static final String PIECES = "PNBRQKpnbrqk";
+    private static final String CASTLING = "KQkq";
+
+    private static final long[] PIECE_SQUARE = new long[12 * 64];
+    private static final long[] CASTLE = new long[4];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        long state = SEED;
+        for (int i = 0; i < PIECE_SQUARE.length; i++) {
+            PIECE_SQUARE[i] = splitMix(state += 0x9E37_79B9_7F4A_7C15L);
+        }
+        for (int i = 0; i < CASTLE.length; i++) {
+            CASTLE[i] = splitMix(state += 0x9E37_79B9_7F4A_7C15L);
+        }
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++) {
+            EN_PASSANT_FILE[i] = splitMix(state += 0x9E37_79B9_7F4A_7C15L);
+        }
+        BLACK_TO_MOVE = splitMix(state + 0x9E37_79B9_7F4A_7C15L);
+    }
+
+    private ZobristHash() {
+    }
+
+    /**
+     * Hash of {@code fen}.
+     *
+     * @throws IllegalArgumentException when placement or side to move are malformed
+     */
+    public static long of(CharSequence fen) {
+        int n = fen.length();
+        int i = 0;
+        while (i < n && isSeparator(fen.charAt(i))) i++;
+
+        long hash = 0;
+        long whitePawns = 0;
+        long blackPawns = 0;
+        int rank = 7;
+        int file = 0;
+        for (; i < n && !isSeparator(fen.charAt(i)); i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (file != 8 || rank == 0) throw malformed(fen, "rank " + (rank + 1));
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > 8) throw malformed(fen, "rank " + (rank + 1));
+            } else {
+                int piece = PIECES.indexOf(c);
+                if (piece < 0 || file > 7) throw malformed(fen, "placement");
+                int square = rank * 8 + file;
+                hash ^= PIECE_SQUARE[piece * 64 + square];
+                if (c == 'P') whitePawns |= 1L << square;
+                else if (c == 'p') blackPawns |= 1L << square;
+                file++;
+            }
+        }
+        if (rank != 0 || file != 8) throw malformed(fen, "placement");
+
+        i = skipSeparators(fen, i);
+        if (i >= n) throw malformed(fen, "side to move");
+        char side = fen.charAt(i++);
+        if ((side != 'w' && side != 'b') || (i < n && !isSeparator(fen.charAt(i)))) {
+            throw malformed(fen, "side to move");
+        }
+        boolean white = side == 'w';
+        if (!white) hash ^= BLACK_TO_MOVE;
+
+        i = skipSeparators(fen, i);
+        int rights = 0;
+        for (; i < n && !isSeparator(fen.charAt(i)); i++) {
+            int k = CASTLING.indexOf(fen.charAt(i));
+            if (k >= 0) rights |= 1 << k;
+            else if (fen.charAt(i) != '-') throw malformed(fen, "castling");
+        }
+        for (int k = 0; k < 4; k++) {
+            if ((rights & 1 << k) != 0) hash ^= CASTLE[k];
+        }
+
+        i = skipSeparators(fen, i);
+        if (i + 1 < n && fen.charAt(i) >= 'a' && fen.charAt(i) <= 'h') {
+            int epFile = fen.charAt(i) - 'a';
+            char epRank = fen.charAt(i + 1);
+            // white captures onto rank 6 from rank 5, black onto rank 3 from rank 4
+            if (epRank == (white ? '6' : '3')) {
+                long pawns = white ? whitePawns : blackPawns;
+                int from = (white ? 4 : 3) * 8 + epFile;
+                boolean capturable = (epFile > 0 && (pawns & 1L << (from - 1)) != 0)
+                        || (epFile < 7 && (pawns & 1L << (from + 1)) != 0);
+                if (capturable) hash ^= EN_PASSANT_FILE[epFile];
+            }
+        }
+        return hash;
+    }
+
+    /** Fixed-width lowercase hex, as exposed in the API (JSON numbers lose 64-bit precision). */
+    public static String hex(long hash) {
+        return HexFormat.of().toHexDigits(hash);
+    }
+
+    private static int skipSeparators(CharSequence fen, int i) {
+        while (i < fen.length() && isSeparator(fen.charAt(i))) i++;
+        return i;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '_';
+    }
+
+    private static IllegalArgumentException malformed(CharSequence fen, String part) {
+        return new IllegalArgumentException("malformed FEN (" + part + "): " + fen);
+    }
+
+    private static long splitMix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+}